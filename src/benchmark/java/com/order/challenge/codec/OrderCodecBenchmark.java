@@ -0,0 +1,120 @@
+package com.order.challenge.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoClientSettings;
+import com.order.challenge.config.MongoMappingConfig;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderResponse;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Serialization on the request path: JSON in, JSON out, and the entity as it goes to the driver.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private MappingMongoConverter converter;
+    private Codec<Document> documentCodec;
+
+    private byte[] requestJson;
+    private OrderResponse response;
+    private OrderEntity entity;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        MongoCustomConversions conversions = new MongoMappingConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, mappingContext));
+        converter.afterPropertiesSet();
+        // Same UUID representation the application configures on the client.
+        documentCodec = CodecRegistries.withUuidRepresentation(MongoClientSettings.getDefaultCodecRegistry(),
+                UuidRepresentation.STANDARD).get(Document.class);
+
+        UUID orderId = UUID.randomUUID();
+        requestJson = ("{\"orderId\":\"" + orderId + "\",\"barCode\":\"7891234567895\",\"quantity\":3,\"price\":19.90}")
+                .getBytes(StandardCharsets.UTF_8);
+        LocalDateTime createdAt = LocalDateTime.now();
+        response = OrderResponse.builder()
+                .orderId(orderId)
+                .barCode("7891234567895")
+                .quantity(3)
+                .price(Money.of("19.90"))
+                .totalValue(Money.of("59.70"))
+                .createdAt(createdAt)
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build();
+        entity = OrderEntity.builder()
+                .orderId(orderId)
+                .barCode("7891234567895")
+                .quantity(3)
+                .price(Money.of("19.90"))
+                .totalValue(Money.of("59.70"))
+                .createdAt(createdAt)
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build();
+    }
+
+    @Benchmark
+    public OrderRequest decodeOrderRequest() throws IOException {
+        return objectMapper.readValue(requestJson, OrderRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeOrderResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Document convertOrderEntity() {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    @Benchmark
+    public BasicOutputBuffer encodeOrderEntityBson() {
+        Document document = new Document();
+        converter.write(entity, document);
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer;
+    }
+}
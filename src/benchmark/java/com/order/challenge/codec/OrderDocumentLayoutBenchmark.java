@@ -0,0 +1,118 @@
+package com.order.challenge.codec;
+
+import com.mongodb.MongoClientSettings;
+import com.order.challenge.config.MongoMappingConfig;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Size and codec cost of one order document in the original layout and in the compact one that replaced it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDocumentLayoutBenchmark {
+
+    @Param({"LEGACY", "COMPACT"})
+    public String layout;
+
+    private MappingMongoConverter converter;
+    private Codec<Document> documentCodec;
+    private OrderEntity entity;
+    private LegacyOrder legacyOrder;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoMappingConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, mappingContext));
+        converter.afterPropertiesSet();
+
+        boolean legacy = layout.equals("LEGACY");
+        documentCodec = CodecRegistries.withUuidRepresentation(MongoClientSettings.getDefaultCodecRegistry(),
+                legacy ? UuidRepresentation.JAVA_LEGACY : UuidRepresentation.STANDARD).get(Document.class);
+        entity = OrderEntity.builder()
+                .orderId(UUID.randomUUID())
+                .barCode("7891234567895")
+                .quantity(3)
+                .price(Money.of("19.90"))
+                .totalValue(Money.of("59.70"))
+                .createdAt(LocalDateTime.now())
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build();
+
+        legacyOrder = new LegacyOrder(entity.getOrderId(), entity.getBarCode(), entity.getQuantity(),
+                entity.getPrice().toBigDecimal(), entity.getTotalValue().toBigDecimal(), entity.getCreatedAt(),
+                entity.getStatus());
+        encoded = encode(toDocument()).toByteArray();
+        System.out.printf("%n%s layout: %d bytes per order document%n", layout, encoded.length);
+    }
+
+    @Benchmark
+    public BasicOutputBuffer encodeOrder() {
+        return encode(toDocument());
+    }
+
+    @Benchmark
+    public Document decodeOrder() {
+        return documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(encoded)), DecoderContext.builder().build());
+    }
+
+    private Document toDocument() {
+        Document document = new Document();
+        if (layout.equals("LEGACY")) {
+            converter.write(legacyOrder, document);
+            document.put("_class", OrderEntity.class.getName());
+        } else {
+            converter.write(entity, document);
+        }
+        return document;
+    }
+
+    private BasicOutputBuffer encode(Document document) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer;
+    }
+
+    // OrderEntity as it was mapped before the compact layout: property names as keys and money as strings.
+    record LegacyOrder(@Id UUID orderId, String barCode, Integer quantity, BigDecimal price, BigDecimal totalValue,
+                       LocalDateTime createdAt, OrderStatus status) {
+    }
+}
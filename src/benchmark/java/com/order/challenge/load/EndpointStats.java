@@ -0,0 +1,90 @@
+package com.order.challenge.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class EndpointStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final LoadEndpoint endpoint;
+
+    // Measured from when the request was due, so a stalled server is charged for the requests it kept waiting.
+    private final Histogram responseTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    // Measured from when the request actually left; the gap to responseTime is the coordinated omission.
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    private final LongAdder succeeded = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    EndpointStats(LoadEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void success(long intendedNanos, long sentNanos, long completedNanos) {
+        record(intendedNanos, sentNanos, completedNanos);
+        succeeded.increment();
+    }
+
+    void failure(String reason, long intendedNanos, long sentNanos, long completedNanos) {
+        record(intendedNanos, sentNanos, completedNanos);
+        error(reason);
+    }
+
+    void error(String reason) {
+        errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    void reset() {
+        responseTime.reset();
+        serviceTime.reset();
+        succeeded.reset();
+        errors.clear();
+    }
+
+    void print(PrintStream out, double elapsedSeconds) {
+        long ok = succeeded.sum();
+        long failed = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        out.printf("%n%s%n", endpoint.label());
+        out.printf("  requests %d, ok %d, errors %d, throughput %.1f req/s (ok %.1f req/s)%n",
+                ok + failed, ok, failed, (ok + failed) / elapsedSeconds, ok / elapsedSeconds);
+        printLatency(out, "response time", responseTime);
+        printLatency(out, "service time ", serviceTime);
+        if (!errors.isEmpty()) {
+            Map<String, Long> byReason = new TreeMap<>();
+            errors.forEach((reason, count) -> byReason.put(reason, count.sum()));
+            out.printf("  errors: %s%n", byReason);
+        }
+    }
+
+    private void record(long intendedNanos, long sentNanos, long completedNanos) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos));
+    }
+
+    private static void printLatency(PrintStream out, String name, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        StringBuilder line = new StringBuilder("  ").append(name).append(" ms:");
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" p%s=%.3f", formatPercentile(percentile),
+                    histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        line.append(String.format(" max=%.3f mean=%.3f", histogram.getMaxValue() / 1000.0, histogram.getMean() / 1000.0));
+        out.println(line);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,264 @@
+package com.order.challenge.load;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.BulkInsertResult;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.OrderQuery;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import com.order.challenge.repository.TopBarcodesSnapshotRepositoryCustom;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Stands in for every Mongo-backed repository so the load test exercises the web and service layers on their own.
+public class InMemoryOrderStore implements OrderRepositoryCustom, TotalMetricsRepositoryCustom,
+        OrderAccountingRepositoryCustom, TopBarcodesSnapshotRepositoryCustom {
+
+    private static final UpdateResult ACKNOWLEDGED = UpdateResult.acknowledged(1, 1L, null);
+
+    private static final Comparator<OrderEntity> KEYSET_ORDER = Comparator
+            .comparing(OrderEntity::getCreatedAt)
+            .thenComparing(OrderEntity::getOrderId);
+
+    private final Map<UUID, OrderEntity> orders = new ConcurrentHashMap<>();
+    private final Map<String, TopBarcodesSnapshotEntity> snapshots = new ConcurrentHashMap<>();
+
+    private long orderCount;
+    private Money totalValue = Money.ZERO;
+    private Money minValue;
+    private Money maxValue;
+
+    @Override
+    public Mono<OrderEntity> findByOrderId(UUID orderId) {
+        return Mono.fromSupplier(() -> orders.get(orderId));
+    }
+
+    @Override
+    public Mono<OrderEntity> findByOrderId(UUID orderId, BsonTimestamp afterOperationTime) {
+        return findByOrderId(orderId);
+    }
+
+    @Override
+    public Mono<OrderEntity> findByOrderIdOnPrimary(UUID orderId) {
+        return findByOrderId(orderId);
+    }
+
+    @Override
+    public Mono<OrderEntity> insert(OrderEntity orderEntity) {
+        return Mono.defer(() -> orders.putIfAbsent(orderEntity.getOrderId(), orderEntity) == null
+                ? Mono.just(orderEntity)
+                : Mono.error(new DuplicateKeyException("Duplicate orderId " + orderEntity.getOrderId())));
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<OrderEntity> orderEntities) {
+        return Mono.fromSupplier(() -> {
+            List<OrderEntity> inserted = new ArrayList<>(orderEntities.size());
+            Map<Integer, String> failures = new HashMap<>();
+            for (int i = 0; i < orderEntities.size(); i++) {
+                OrderEntity orderEntity = orderEntities.get(i);
+                if (orders.putIfAbsent(orderEntity.getOrderId(), orderEntity) == null) {
+                    inserted.add(orderEntity);
+                } else {
+                    failures.put(i, "Duplicate orderId " + orderEntity.getOrderId());
+                }
+            }
+            return new BulkInsertResult(inserted, failures, failures.keySet());
+        });
+    }
+
+    @Override
+    public Flux<UUID> findAllOrderIds() {
+        return Flux.defer(() -> Flux.fromIterable(List.copyOf(orders.keySet())));
+    }
+
+    @Override
+    public Flux<OrderEntity> findOrders(OrderQuery query) {
+        return Flux.defer(() -> {
+            Stream<OrderEntity> matches = orders.values().stream()
+                    .filter(order -> query.getBarCode() == null || query.getBarCode().equals(order.getBarCode()))
+                    .filter(order -> query.getFrom() == null || !order.getCreatedAt().isBefore(query.getFrom()))
+                    .filter(order -> query.getTo() == null || order.getCreatedAt().isBefore(query.getTo()))
+                    .filter(order -> isAfterCursor(order, query))
+                    .sorted(KEYSET_ORDER);
+            if (query.getLimit() != null) {
+                matches = matches.limit(query.getLimit());
+            }
+            return Flux.fromIterable(matches.toList());
+        });
+    }
+
+    @Override
+    public synchronized Mono<UpdateResult> recordOrders(Collection<OrderEntity> recorded) {
+        for (OrderEntity order : recorded) {
+            Money value = order.getTotalValue();
+            orderCount++;
+            totalValue = totalValue.plus(value);
+            minValue = minValue == null || value.compareTo(minValue) < 0 ? value : minValue;
+            maxValue = maxValue == null || value.compareTo(maxValue) > 0 ? value : maxValue;
+        }
+        return Mono.just(ACKNOWLEDGED);
+    }
+
+    @Override
+    public synchronized Mono<TotalMetricsEntity> findTotalMetrics() {
+        if (orderCount == 0) {
+            return Mono.empty();
+        }
+        return Mono.just(TotalMetricsEntity.builder()
+                .totalValue(totalValue.toBigDecimal())
+                .orderCount(orderCount)
+                .minValue(minValue == null ? null : minValue.toBigDecimal())
+                .maxValue(maxValue == null ? null : maxValue.toBigDecimal())
+                .build());
+    }
+
+    // Rollups are not on the load test's request mix.
+    @Override
+    public Flux<MetricsRollupEntity> findRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return Flux.empty();
+    }
+
+    @Override
+    public Flux<ChangeStreamEvent<OrderEntity>> watchInserts(BsonValue resumeToken) {
+        return Flux.never();
+    }
+
+    @Override
+    public Flux<ChangeStreamEvent<OrderEntity>> watchInsertsFrom(BsonTimestamp operationTime) {
+        return Flux.never();
+    }
+
+    @Override
+    public Mono<BsonTimestamp> currentOperationTime() {
+        return Mono.empty();
+    }
+
+    @Override
+    public Flux<OrderEntity> findNotAccounted(LocalDateTime createdFrom) {
+        return Flux.defer(() -> Flux.fromStream(orders.values().stream()
+                .filter(order -> order.getStatus() == OrderStatus.NOT_ACCOUNTED)
+                .filter(order -> !order.getCreatedAt().isBefore(createdFrom))));
+    }
+
+    @Override
+    public Flux<OrderEntity> findNotAccounted(Collection<UUID> orderIds) {
+        return Flux.fromIterable(orderIds)
+                .mapNotNull(orders::get)
+                .filter(order -> order.getStatus() == OrderStatus.NOT_ACCOUNTED);
+    }
+
+    @Override
+    public Mono<UpdateResult> markAccounted(Collection<UUID> orderIds) {
+        return Mono.fromSupplier(() -> {
+            long modified = 0;
+            for (UUID orderId : orderIds) {
+                OrderEntity order = orders.get(orderId);
+                if (order != null && order.getStatus() == OrderStatus.NOT_ACCOUNTED) {
+                    order.setStatus(OrderStatus.ACCOUNTED);
+                    modified++;
+                }
+            }
+            return UpdateResult.acknowledged(orderIds.size(), modified, null);
+        });
+    }
+
+    @Override
+    public Mono<List<UUID>> claim(Collection<UUID> orderIds) {
+        return Mono.fromSupplier(() -> {
+            List<UUID> claimed = new ArrayList<>(orderIds.size());
+            for (UUID orderId : orderIds) {
+                OrderEntity order = orders.get(orderId);
+                if (order != null && order.getStatus() == OrderStatus.NOT_ACCOUNTED) {
+                    order.setStatus(OrderStatus.ACCOUNTED);
+                    claimed.add(orderId);
+                }
+            }
+            return claimed;
+        });
+    }
+
+    @Override
+    public Mono<UpdateResult> release(Collection<UUID> orderIds) {
+        return Mono.fromSupplier(() -> {
+            long modified = 0;
+            for (UUID orderId : orderIds) {
+                OrderEntity order = orders.get(orderId);
+                if (order != null && order.getStatus() == OrderStatus.ACCOUNTED) {
+                    order.setStatus(OrderStatus.NOT_ACCOUNTED);
+                    modified++;
+                }
+            }
+            return UpdateResult.acknowledged(orderIds.size(), modified, null);
+        });
+    }
+
+    @Override
+    public Mono<LocalDateTime> recordCutover(String pipelineId) {
+        return Mono.just(LocalDateTime.MIN);
+    }
+
+    @Override
+    public Mono<BsonValue> findResumeToken(String pipelineId) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> saveResumeToken(String pipelineId, BsonValue resumeToken) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<TopBarcodesSnapshotEntity> findSnapshot(String id) {
+        return Mono.fromSupplier(() -> snapshots.get(id));
+    }
+
+    @Override
+    public Mono<TopBarcodesSnapshotEntity> saveSnapshot(TopBarcodesSnapshotEntity snapshot) {
+        return Mono.fromSupplier(() -> {
+            snapshots.put(snapshot.getId(), snapshot);
+            return snapshot;
+        });
+    }
+
+    @Override
+    public Flux<TopBarcodesSnapshotEntity> findSnapshotsTakenAfter(LocalDateTime takenAfter) {
+        return Flux.defer(() -> Flux.fromIterable(List.copyOf(snapshots.values())))
+                .filter(snapshot -> snapshot.getTakenAt().isAfter(takenAfter));
+    }
+
+    @Override
+    public Mono<Void> deleteSnapshotsTakenBefore(LocalDateTime takenBefore) {
+        return Mono.fromRunnable(() -> snapshots.values().removeIf(snapshot -> snapshot.getTakenAt().isBefore(takenBefore)));
+    }
+
+    private static boolean isAfterCursor(OrderEntity order, OrderQuery query) {
+        if (query.getAfterCreatedAt() == null || query.getAfterOrderId() == null) {
+            return true;
+        }
+        int byCreatedAt = order.getCreatedAt().compareTo(query.getAfterCreatedAt());
+        return byCreatedAt > 0 || byCreatedAt == 0 && order.getOrderId().compareTo(query.getAfterOrderId()) > 0;
+    }
+}
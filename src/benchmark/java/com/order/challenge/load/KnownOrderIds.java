@@ -0,0 +1,34 @@
+package com.order.challenge.load;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ring of recently created ids; GETs sample from it so reads hit orders that exist.
+final class KnownOrderIds {
+
+    private final AtomicReferenceArray<UUID> ids;
+    private final AtomicLong added = new AtomicLong();
+
+    KnownOrderIds(int capacity) {
+        this.ids = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(UUID orderId) {
+        ids.set((int) (added.getAndIncrement() % ids.length()), orderId);
+    }
+
+    Optional<UUID> pick() {
+        long size = Math.min(added.get(), ids.length());
+        if (size == 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(ids.get(ThreadLocalRandom.current().nextInt((int) size)));
+    }
+
+    long size() {
+        return Math.min(added.get(), ids.length());
+    }
+}
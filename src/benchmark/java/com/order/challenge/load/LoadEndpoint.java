@@ -0,0 +1,95 @@
+package com.order.challenge.load;
+
+import com.order.challenge.money.Money;
+import com.order.challenge.request.OrderRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+enum LoadEndpoint {
+
+    CREATE("create", "POST /v1/api/orders"),
+    GET_BY_ID("get-by-id", "GET /v1/api/orders/{id}"),
+    TOTAL_VALUE("total-value", "GET /v1/api/orders/total-value");
+
+    private static final String ORDERS_PATH = "/v1/api/orders";
+    private static final int BARCODE_POOL_SIZE = 1_000;
+    private static final String[] BARCODES = barcodes();
+
+    private final String key;
+    private final String label;
+
+    LoadEndpoint(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static LoadEndpoint fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint '" + key + "'. Expected one of "
+                        + Arrays.stream(values()).map(LoadEndpoint::key).toList()));
+    }
+
+    // The id a create will use or a read will ask for. Reads fall back to a random id (and a 404) until a create
+    // has succeeded, so seed before measuring.
+    UUID orderId(KnownOrderIds knownOrderIds) {
+        return switch (this) {
+            case CREATE -> UUID.randomUUID();
+            case GET_BY_ID -> knownOrderIds.pick().orElseGet(UUID::randomUUID);
+            case TOTAL_VALUE -> null;
+        };
+    }
+
+    WebClient.RequestHeadersSpec<?> request(WebClient client, UUID orderId) {
+        return switch (this) {
+            case CREATE -> client.post()
+                    .uri(ORDERS_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(randomOrder(orderId));
+            case GET_BY_ID -> client.get()
+                    .uri(ORDERS_PATH + "/{orderId}", orderId);
+            case TOTAL_VALUE -> client.get()
+                    .uri(ORDERS_PATH + "/total-value");
+        };
+    }
+
+    static OrderRequest randomOrder(UUID orderId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return OrderRequest.builder()
+                .orderId(orderId)
+                .barCode(BARCODES[random.nextInt(BARCODES.length)])
+                .quantity(random.nextInt(1, 26))
+                .price(Money.ofCents(random.nextLong(100, 5_000)))
+                .build();
+    }
+
+    // Valid EAN-13 codes as runner.py builds them, drawn from a bounded pool so the top-barcodes sketch sees repeats.
+    private static String[] barcodes() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] barcodes = new String[BARCODE_POOL_SIZE];
+        for (int i = 0; i < barcodes.length; i++) {
+            StringBuilder digits = new StringBuilder(13);
+            int sum = 0;
+            for (int position = 0; position < 12; position++) {
+                int digit = random.nextInt(10);
+                digits.append(digit);
+                sum += position % 2 == 0 ? digit : digit * 3;
+            }
+            barcodes[i] = digits.append((10 - sum % 10) % 10).toString();
+        }
+        return barcodes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.order.challenge.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+record LoadOptions(String target,
+                   double rate,
+                   Duration duration,
+                   Duration warmup,
+                   Map<LoadEndpoint, Integer> mix,
+                   int connections,
+                   int maxInFlight,
+                   Duration timeout,
+                   int seed) {
+
+    private static final Set<String> NAMES = Set.of("target", "rate", "duration", "warmup", "mix", "connections",
+            "max-in-flight", "timeout", "seed");
+
+    private static final String DEFAULT_MIX = "create:6,get-by-id:3,total-value:1";
+
+    // --target=http://host:8080 --rate=500 --duration=30s --warmup=10s --mix=create:6,get-by-id:3,total-value:1
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + ". Expected one of " + NAMES);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        LoadOptions options = new LoadOptions(
+                values.get("target"),
+                Double.parseDouble(values.getOrDefault("rate", "500")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("connections", "64")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                DurationStyle.detectAndParse(values.getOrDefault("timeout", "5s")),
+                Integer.parseInt(values.getOrDefault("seed", "1000")));
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("The rate must be greater than zero.");
+        }
+        return options;
+    }
+
+    boolean inProcess() {
+        return target == null || target.isBlank();
+    }
+
+    private static Map<LoadEndpoint, Integer> parseMix(String mix) {
+        Map<LoadEndpoint, Integer> weights = new EnumMap<>(LoadEndpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            if (weight > 0) {
+                weights.put(LoadEndpoint.fromKey(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one endpoint a positive weight.");
+        }
+        return weights;
+    }
+}
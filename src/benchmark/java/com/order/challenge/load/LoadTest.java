@@ -0,0 +1,86 @@
+package com.order.challenge.load;
+
+import com.order.challenge.ChallengeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.PrintStream;
+import java.util.UUID;
+
+// mvn -Pbenchmark test-compile exec:exec@load-test [-Dload.args="--rate=2000 --duration=60s --target=http://localhost:8080"]
+// Without --target the application is started in this JVM on a random port with InMemoryOrderStore in place of Mongo.
+public class LoadTest {
+
+    private static final int KNOWN_ORDER_IDS = 100_000;
+    private static final int SEED_CONCURRENCY = 64;
+
+    public static void main(String[] args) {
+        LoadOptions options = LoadOptions.parse(args);
+        ConfigurableApplicationContext application = options.inProcess() ? startInProcess() : null;
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(options.connections())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(options.timeout())
+                .build();
+        try {
+            String baseUrl = application == null ? options.target() : "http://localhost:" + port(application);
+            WebClient client = WebClient.builder()
+                    .baseUrl(baseUrl)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .build();
+
+            KnownOrderIds knownOrderIds = new KnownOrderIds(KNOWN_ORDER_IDS);
+            seed(client, knownOrderIds, options.seed());
+
+            PrintStream out = System.out;
+            out.printf("Target %s, %.1f req/s for %s after %s warmup, mix %s, %d connections, %d orders seeded%n",
+                    baseUrl, options.rate(), options.duration(), options.warmup(), options.mix(),
+                    options.connections(), knownOrderIds.size());
+
+            OpenModelLoad load = new OpenModelLoad(client, options, knownOrderIds);
+            double elapsedSeconds = load.run();
+            load.stats().values().forEach(stats -> stats.print(out, elapsedSeconds));
+        } finally {
+            connections.dispose();
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startInProcess() {
+        // Passed as arguments so they win over application.properties. The Mongo client is still created but never
+        // used; it points nowhere and its driver logging is silenced.
+        return new SpringApplicationBuilder(ChallengeApplication.class)
+                .initializers(context -> ((GenericApplicationContext) context)
+                        .registerBean(InMemoryOrderStore.class, definition -> definition.setPrimary(true)))
+                .run("--server.port=0",
+                        "--spring.data.mongodb.uri=mongodb://localhost:1/load-test?serverSelectionTimeoutMS=100",
+                        "--spring.data.mongodb.auto-index-creation=false",
+                        "--logging.level.org.mongodb.driver=off",
+                        "--logging.level.com.order.challenge=warn");
+    }
+
+    private static int port(ConfigurableApplicationContext application) {
+        return ((WebServerApplicationContext) application).getWebServer().getPort();
+    }
+
+    private static void seed(WebClient client, KnownOrderIds knownOrderIds, int orders) {
+        Flux.range(0, orders)
+                .flatMap(i -> {
+                    UUID orderId = LoadEndpoint.CREATE.orderId(knownOrderIds);
+                    return LoadEndpoint.CREATE.request(client, orderId)
+                            .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                            .filter(status -> status.is2xxSuccessful())
+                            .doOnNext(status -> knownOrderIds.add(orderId));
+                }, SEED_CONCURRENCY)
+                .blockLast();
+    }
+}
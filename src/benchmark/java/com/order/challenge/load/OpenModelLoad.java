@@ -0,0 +1,113 @@
+package com.order.challenge.load;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+// Open model: requests are issued on a fixed schedule whether or not earlier ones have answered,
+// unlike runner.py's worker pool, which stops offering load exactly when the server slows down.
+final class OpenModelLoad {
+
+    private static final long DRAIN_POLL_NANOS = Duration.ofMillis(10).toNanos();
+
+    private final WebClient client;
+    private final LoadOptions options;
+    private final KnownOrderIds knownOrderIds;
+    private final Map<LoadEndpoint, EndpointStats> stats = new EnumMap<>(LoadEndpoint.class);
+    private final LoadEndpoint[] schedule;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelLoad(WebClient client, LoadOptions options, KnownOrderIds knownOrderIds) {
+        this.client = client;
+        this.options = options;
+        this.knownOrderIds = knownOrderIds;
+        options.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+        this.schedule = options.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(LoadEndpoint[]::new);
+    }
+
+    Map<LoadEndpoint, EndpointStats> stats() {
+        return stats;
+    }
+
+    // Runs the warmup and the measured phase back to back at the same rate; returns the measured seconds.
+    double run() {
+        long intervalNanos = Math.max(1, Math.round(1_000_000_000d / options.rate()));
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        boolean measuring = options.warmup().isZero();
+
+        for (long tick = 0; ; tick++) {
+            long intended = start + tick * intervalNanos;
+            if (intended - end >= 0) {
+                break;
+            }
+            if (!measuring && intended - measureFrom >= 0) {
+                stats.values().forEach(EndpointStats::reset);
+                measuring = true;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], intended);
+        }
+
+        awaitInFlight(end + options.timeout().toNanos());
+        return options.duration().toNanos() / 1e9;
+    }
+
+    // A request due while the generator was behind keeps its original due time, so the lag is still measured.
+    private void fire(LoadEndpoint endpoint, long intended) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (inFlight.get() >= options.maxInFlight()) {
+            endpointStats.error("not sent: in-flight limit");
+            return;
+        }
+        inFlight.incrementAndGet();
+        UUID orderId = endpoint.orderId(knownOrderIds);
+        long sent = System.nanoTime();
+        endpoint.request(client, orderId)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .timeout(options.timeout())
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(status -> {
+                    long completed = System.nanoTime();
+                    if (status.is2xxSuccessful()) {
+                        endpointStats.success(intended, sent, completed);
+                        if (endpoint == LoadEndpoint.CREATE) {
+                            knownOrderIds.add(orderId);
+                        }
+                    } else {
+                        endpointStats.failure("HTTP " + status.value(), intended, sent, completed);
+                    }
+                }, error -> endpointStats.failure(describe(error), intended, sent, System.nanoTime()));
+    }
+
+    private void awaitInFlight(long deadline) {
+        while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName();
+    }
+}
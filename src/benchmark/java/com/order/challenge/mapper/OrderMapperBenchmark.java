@@ -0,0 +1,62 @@
+package com.order.challenge.mapper;
+
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    private final OrderMapper orderMapper = new OrderMapper();
+
+    private OrderRequest request;
+    private OrderEntity entity;
+
+    @Setup
+    public void setUp() {
+        UUID orderId = UUID.randomUUID();
+        request = OrderRequest.builder()
+                .orderId(orderId)
+                .barCode("7891234567895")
+                .quantity(3)
+                .price(Money.of("19.90"))
+                .build();
+        entity = OrderEntity.builder()
+                .orderId(orderId)
+                .barCode("7891234567895")
+                .quantity(3)
+                .price(Money.of("19.90"))
+                .totalValue(Money.of("59.70"))
+                .createdAt(LocalDateTime.now())
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build();
+    }
+
+    @Benchmark
+    public OrderEntity toEntity() {
+        return orderMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return orderMapper.toResponse(entity);
+    }
+}
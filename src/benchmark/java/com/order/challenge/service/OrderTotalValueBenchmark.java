@@ -0,0 +1,54 @@
+package com.order.challenge.service;
+
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+
+// "1234.5678" has more than two decimal places, so it takes Money's BigDecimal fallback.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalValueBenchmark {
+
+    @Param({"19.90", "1234.5678"})
+    private String price;
+
+    @Param({"3", "1000"})
+    private int quantity;
+
+    private OrderEntity entity;
+    private BigDecimal decimalPrice;
+
+    @Setup
+    public void setUp() {
+        entity = OrderEntity.builder()
+                .price(Money.of(price))
+                .quantity(quantity)
+                .build();
+        decimalPrice = new BigDecimal(price);
+    }
+
+    @Benchmark
+    public Money totalValue() {
+        return OrderService.totalValueOf(entity);
+    }
+
+    // The computation before Money, kept as the baseline.
+    @Benchmark
+    public BigDecimal bigDecimalTotalValue() {
+        return decimalPrice.multiply(new BigDecimal(quantity));
+    }
+}
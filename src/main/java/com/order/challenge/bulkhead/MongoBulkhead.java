@@ -0,0 +1,71 @@
+package com.order.challenge.bulkhead;
+
+import com.order.challenge.exception.OrderOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+// One side of the read/write split: its own template, and so its own connection pool, plus an optional scheduler.
+public final class MongoBulkhead {
+
+    private final String name;
+    private final ReactiveMongoTemplate template;
+    private final IntSupplier waiting;
+    private final int maxWaitQueueSize;
+    private final Duration retryAfter;
+    private final Counter rejected;
+    private final Scheduler scheduler;
+
+    public MongoBulkhead(String name, ReactiveMongoTemplate template, IntSupplier waiting, int maxWaitQueueSize,
+                         Duration retryAfter, Counter rejected, Scheduler scheduler) {
+        this.name = name;
+        this.template = template;
+        this.waiting = waiting;
+        this.maxWaitQueueSize = maxWaitQueueSize;
+        this.retryAfter = retryAfter;
+        this.rejected = rejected;
+        this.scheduler = scheduler;
+    }
+
+    static MongoBulkhead unbounded(String name, ReactiveMongoTemplate template) {
+        return new MongoBulkhead(name, template, () -> 0, 0, Duration.ZERO, null, null);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public ReactiveMongoTemplate template() {
+        return template;
+    }
+
+    public <T> Mono<T> isolate(Mono<T> work) {
+        Mono<T> admitted = Mono.defer(() -> isSaturated() ? Mono.error(saturated()) : work);
+        return scheduler == null ? admitted : admitted.publishOn(scheduler);
+    }
+
+    public <T> Flux<T> isolate(Flux<T> work) {
+        Flux<T> admitted = Flux.defer(() -> isSaturated() ? Flux.error(saturated()) : work);
+        return scheduler == null ? admitted : admitted.publishOn(scheduler);
+    }
+
+    void dispose() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    private boolean isSaturated() {
+        return maxWaitQueueSize > 0 && waiting.getAsInt() >= maxWaitQueueSize;
+    }
+
+    private OrderOverloadedException saturated() {
+        rejected.increment();
+        return new OrderOverloadedException("The " + name + " connection pool is saturated. Retry later.", retryAfter);
+    }
+}
@@ -0,0 +1,40 @@
+package com.order.challenge.bulkhead;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+// Reads and writes draw from separate pools, so an ingestion burst queues on the write pool and leaves GETs alone.
+public class MongoBulkheads implements DisposableBean {
+
+    public static final String NAME = "orders.bulkhead";
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+
+    private final MongoBulkhead read;
+    private final MongoBulkhead write;
+
+    public MongoBulkheads(MongoBulkhead read, MongoBulkhead write) {
+        this.read = read;
+        this.write = write;
+    }
+
+    // Both sides share the one template, as before the split.
+    public static MongoBulkheads shared(ReactiveMongoTemplate template) {
+        MongoBulkhead shared = MongoBulkhead.unbounded(WRITE, template);
+        return new MongoBulkheads(shared, shared);
+    }
+
+    public MongoBulkhead read() {
+        return read;
+    }
+
+    public MongoBulkhead write() {
+        return write;
+    }
+
+    @Override
+    public void destroy() {
+        read.dispose();
+        write.dispose();
+    }
+}
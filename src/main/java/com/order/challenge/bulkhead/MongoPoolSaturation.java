@@ -0,0 +1,55 @@
+package com.order.challenge.bulkhead;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The driver dropped its wait-queue size, so checkouts that started and have not yet finished are counted here instead.
+@RequiredArgsConstructor
+public class MongoPoolSaturation {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> waiting = new ConcurrentHashMap<>();
+
+    public ConnectionPoolListener listener(String pool) {
+        AtomicInteger waitingOnPool = waitingOn(pool);
+        return new ConnectionPoolListener() {
+            @Override
+            public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+                waitingOnPool.incrementAndGet();
+            }
+
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                waitingOnPool.decrementAndGet();
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                waitingOnPool.decrementAndGet();
+            }
+        };
+    }
+
+    public int waiting(String pool) {
+        return waitingOn(pool).get();
+    }
+
+    private AtomicInteger waitingOn(String pool) {
+        return waiting.computeIfAbsent(pool, name -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder(MongoBulkheads.NAME + ".waiting", counter, AtomicInteger::get)
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+}
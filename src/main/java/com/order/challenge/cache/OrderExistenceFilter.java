@@ -0,0 +1,135 @@
+package com.order.challenge.cache;
+
+import com.order.challenge.config.ExistenceFilterProperties;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderExistenceFilter {
+
+    private final OrderRepositoryCustom orderRepository;
+    private final OrderAccountingRepositoryCustom accountingRepository;
+    private final ExistenceFilterProperties properties;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile OrderIdBloomFilter active;
+    private volatile OrderIdBloomFilter building;
+    private volatile boolean ready;
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // The stream starts at an operation time read before the scan, so an insert the scan misses is still replayed.
+        subscription = Flux.defer(() -> {
+                    ready = false;
+                    if (!properties.isFollowInserts()) {
+                        return Flux.merge(Flux.<Void>never(), rebuild(properties.getExpectedInsertions()).flux());
+                    }
+                    return accountingRepository.currentOperationTime()
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            // The rebuild is subscribed first so the filters exist before the first insert is recorded.
+                            .flatMapMany(startAt -> Flux.merge(
+                                    rebuild(properties.getExpectedInsertions()).flux(),
+                                    followInserts(startAt.orElse(null))));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Order existence filter lost track of inserts, rebuilding. Error: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    private Flux<Void> followInserts(BsonTimestamp startAt) {
+        return accountingRepository.watchInsertsFrom(startAt)
+                .mapNotNull(event -> event.getBody() == null ? null : event.getBody().getOrderId())
+                .doOnNext(this::record)
+                .thenMany(Flux.empty());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public boolean isDefinitelyAbsent(UUID orderId) {
+        OrderIdBloomFilter filter = active;
+        return ready && filter != null && !filter.mightContain(orderId);
+    }
+
+    public void record(UUID orderId) {
+        OrderIdBloomFilter current = active;
+        if (current == null) {
+            return;
+        }
+        current.put(orderId);
+
+        OrderIdBloomFilter next = building;
+        if (next != null) {
+            next.put(orderId);
+        }
+        // A rebuild may have been swapped in meanwhile; active is published before building is cleared.
+        OrderIdBloomFilter latest = active;
+        if (latest != current) {
+            latest.put(orderId);
+        }
+
+        if (latest.isSaturated() && ready) {
+            long capacity = latest.capacity() * Math.max(2, properties.getGrowthFactor());
+            rebuild(capacity).subscribe(null, error -> log.error("Failed to resize order existence filter. Error: {}", error.getMessage()));
+        }
+    }
+
+    Mono<Void> rebuild(long capacity) {
+        return Mono.defer(() -> {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            OrderIdBloomFilter next = OrderIdBloomFilter.create(capacity, properties.getFalsePositiveRate());
+            if (active == null) {
+                active = OrderIdBloomFilter.create(capacity, properties.getFalsePositiveRate());
+            }
+            building = next;
+            log.info("Building order existence filter for {} orders.", capacity);
+
+            return orderRepository.findAllOrderIds()
+                    .filter(Objects::nonNull)
+                    .doOnNext(next::put)
+                    .then(Mono.fromRunnable(() -> {
+                        active = next;
+                        building = null;
+                        ready = true;
+                        log.info("Order existence filter ready with ~{} orders.", next.approximateInsertions());
+                    }))
+                    .doFinally(signal -> {
+                        building = null;
+                        rebuilding.set(false);
+                    })
+                    .then();
+        });
+    }
+}
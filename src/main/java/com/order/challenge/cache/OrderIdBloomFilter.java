@@ -0,0 +1,79 @@
+package com.order.challenge.cache;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+final class OrderIdBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long capacity;
+    private final LongAdder insertions = new LongAdder();
+
+    private OrderIdBloomFilter(long capacity, long bitCount, int hashFunctions) {
+        this.capacity = capacity;
+        this.bitCount = bitCount;
+        this.hashFunctions = hashFunctions;
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) >>> 6));
+    }
+
+    static OrderIdBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long capacity = Math.max(1, expectedInsertions);
+        long bitCount = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        return new OrderIdBloomFilter(capacity, bitCount, hashFunctions);
+    }
+
+    void put(UUID orderId) {
+        long h1 = mix(orderId.getMostSignificantBits());
+        long h2 = mix(orderId.getLeastSignificantBits()) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(UUID orderId) {
+        long h1 = mix(orderId.getMostSignificantBits());
+        long h2 = mix(orderId.getLeastSignificantBits()) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isSaturated() {
+        return insertions.sum() > capacity;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long approximateInsertions() {
+        return insertions.sum();
+    }
+
+    // MurmurHash3 fmix64 finalizer.
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.challenge.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.order.challenge.config.OrderCacheProperties;
+import com.order.challenge.response.OrderResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class OrderResponseCache {
+
+    // Rough retained size of an OrderResponse with its UUID, money values, LocalDateTime and map entry.
+    private static final int BASE_ENTRY_BYTES = 320;
+
+    private final boolean enabled;
+    private final Cache<UUID, OrderResponse> cache;
+
+    @Autowired
+    public OrderResponseCache(OrderCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    OrderResponseCache(OrderCacheProperties properties, Ticker ticker) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((UUID orderId, OrderResponse response) -> estimateSize(response))
+                .expireAfterWrite(properties.getTtl())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public OrderResponse get(UUID orderId) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(orderId);
+    }
+
+    public void put(OrderResponse response) {
+        if (enabled && response != null && response.getOrderId() != null) {
+            cache.put(response.getOrderId(), response);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    Cache<UUID, OrderResponse> nativeCache() {
+        return cache;
+    }
+
+    private static int estimateSize(OrderResponse response) {
+        String barCode = response.getBarCode();
+        return BASE_ENTRY_BYTES + (barCode == null ? 0 : barCode.length());
+    }
+}
@@ -0,0 +1,20 @@
+package com.order.challenge.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// The cache already records its stats, so hits and misses on getOrderById come for free.
+@Component
+@RequiredArgsConstructor
+public class OrderResponseCacheMetrics implements MeterBinder {
+
+    private final OrderResponseCache orderResponseCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, orderResponseCache.nativeCache(), "orders.response");
+    }
+}
@@ -0,0 +1,42 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private final Pool read = new Pool();
+
+    private final Pool write = new Pool();
+
+    @Data
+    public static class Pool {
+
+        private int maxSize = 50;
+
+        private int minSize = 5;
+
+        private int maxConnecting = 2;
+
+        // How long an operation may wait for a free connection before the driver gives up on it.
+        private Duration maxWaitTime = Duration.ofSeconds(1);
+
+        // Operations already waiting for a connection beyond which new ones are shed with 503; 0 disables it.
+        private int maxWaitQueueSize = 200;
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        // Results hop to a scheduler of this many threads owned by the pool; 0 keeps them on the driver threads.
+        private int schedulerThreads = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 200;
+
+    private int minLimit = 20;
+
+    private int maxLimit = 2000;
+
+    // The latency baseline is re-measured after probeMultiplier * limit samples, so it can follow a slower primary.
+    private int probeMultiplier = 30;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,15 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.consistency")
+public class ConsistencyProperties {
+
+    private boolean readYourWrites = true;
+
+    private Duration catchUpTimeout = Duration.ofMillis(500);
+}
@@ -0,0 +1,19 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "orders.existence-filter")
+public class ExistenceFilterProperties {
+
+    private boolean enabled = true;
+
+    private long expectedInsertions = 1_000_000;
+
+    private double falsePositiveRate = 0.01;
+
+    private int growthFactor = 2;
+
+    private boolean followInserts = true;
+}
@@ -0,0 +1,24 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.flight-recorder")
+public class FlightRecorderProperties {
+
+    private boolean startOnStartup = false;
+
+    // One of the JDK's settings files: "default" (about 1% overhead) or "profile" (more detail, about 2%).
+    private String settings = "default";
+
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    private Path dumpDirectory = Path.of("recordings");
+}
@@ -0,0 +1,29 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.hedged-reads")
+public class HedgedReadProperties {
+
+    private boolean enabled = false;
+
+    // The hedge goes out once the first read has taken longer than this share of recent lookups.
+    private double percentile = 0.95;
+
+    private Duration minDelay = Duration.ofMillis(5);
+
+    // Also the delay used until enough lookups have been seen to trust the percentile.
+    private Duration maxDelay = Duration.ofMillis(200);
+
+    // Hedges allowed per 100 lookups, and how many unused ones may be saved up for a burst.
+    private double budgetPercent = 5;
+
+    private int budgetBurst = 10;
+
+    // The first read follows the URI (secondaryPreferred), so a hedge to the primary always reaches another member.
+    private String readPreference = "primary";
+}
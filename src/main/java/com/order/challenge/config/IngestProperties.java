@@ -0,0 +1,47 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.ingest")
+public class IngestProperties {
+
+    private final Batch batch = new Batch();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final Router router = new Router();
+
+    @Data
+    public static class Batch {
+
+        private int chunkSize = 500;
+
+        private int concurrency = 2;
+    }
+
+    @Data
+    public static class Coalescing {
+
+        private boolean enabled = false;
+
+        private int maxBatchSize = 256;
+
+        private Duration maxDelay = Duration.ofMillis(2);
+
+        private int concurrency = 4;
+
+        // How long shutdown waits for buffered and in-flight writes before failing them.
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    // When enabled, a functional route takes over POST /v1/api/orders from the annotated controller.
+    @Data
+    public static class Router {
+
+        private boolean enabled = false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.live")
+public class LiveFeedProperties {
+
+    private Duration totalRefresh = Duration.ofSeconds(1);
+
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    // How long a publisher waits for a concurrent one to finish emitting before dropping its order from the feed.
+    private Duration publishTimeout = Duration.ofMillis(10);
+}
@@ -0,0 +1,34 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.local-store")
+public class LocalStoreProperties {
+
+    private Path directory = Path.of("data", "orders");
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private int initialIndexCapacity = 1 << 20;
+
+    // Forces each write to the device; without it a process crash loses nothing, only a machine crash can.
+    private boolean fsync = false;
+
+    private final Compaction compaction = new Compaction();
+
+    @Data
+    public static class Compaction {
+
+        private boolean enabled = true;
+
+        private Duration interval = Duration.ofMinutes(1);
+
+        private double minGarbageRatio = 0.5;
+    }
+}
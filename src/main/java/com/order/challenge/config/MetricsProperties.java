@@ -0,0 +1,49 @@
+package com.order.challenge.config;
+
+import com.order.challenge.enums.AccountingMode;
+import com.order.challenge.enums.CounterLayout;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.metrics")
+public class MetricsProperties {
+
+    private CounterLayout layout = CounterLayout.SINGLE;
+
+    private int shards = 16;
+
+    private int maxRollupBuckets = 1440;
+
+    private final Accumulator accumulator = new Accumulator();
+
+    private final Accounting accounting = new Accounting();
+
+    @Data
+    public static class Accumulator {
+
+        private boolean enabled = false;
+
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        private int flushThreshold = 1000;
+
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Accounting {
+
+        private AccountingMode mode = AccountingMode.INLINE;
+
+        private int batchSize = 500;
+
+        private Duration maxDelay = Duration.ofMillis(200);
+    }
+
+    public boolean isInlineAccounting() {
+        return accounting.getMode() == AccountingMode.INLINE;
+    }
+}
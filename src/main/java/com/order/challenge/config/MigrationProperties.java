@@ -0,0 +1,19 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "orders.migration")
+public class MigrationProperties {
+
+    private final CompactOrders compactOrders = new CompactOrders();
+
+    @Data
+    public static class CompactOrders {
+
+        private boolean enabled = true;
+
+        private int batchSize = 500;
+    }
+}
@@ -0,0 +1,144 @@
+package com.order.challenge.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.order.challenge.bulkhead.MongoBulkhead;
+import com.order.challenge.bulkhead.MongoBulkheads;
+import com.order.challenge.bulkhead.MongoPoolSaturation;
+import com.order.challenge.repository.local.LocalOrderStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoConnectionPoolTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.StandardMongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Profile("!" + LocalOrderStore.PROFILE)
+public class MongoBulkheadConfig {
+
+    // The write client is the primary one, so Boot's template, transactions and change streams keep using it.
+    @Configuration
+    @ConditionalOnProperty(prefix = "orders.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class SeparatePools {
+
+        @Bean
+        public MongoPoolSaturation mongoPoolSaturation(MeterRegistry meterRegistry) {
+            return new MongoPoolSaturation(meterRegistry);
+        }
+
+        @Bean
+        @Primary
+        public MongoClient writeMongoClient(MongoConnectionDetails connectionDetails, MongoProperties mongoProperties,
+                                            BulkheadProperties properties, MongoCommandTagsProvider commandTagsProvider,
+                                            MeterRegistry meterRegistry, MongoPoolSaturation saturation) {
+            return createClient(MongoBulkheads.WRITE, properties.getWrite(), connectionDetails, mongoProperties,
+                    commandTagsProvider, meterRegistry, saturation);
+        }
+
+        @Bean
+        public MongoClient readMongoClient(MongoConnectionDetails connectionDetails, MongoProperties mongoProperties,
+                                           BulkheadProperties properties, MongoCommandTagsProvider commandTagsProvider,
+                                           MeterRegistry meterRegistry, MongoPoolSaturation saturation) {
+            return createClient(MongoBulkheads.READ, properties.getRead(), connectionDetails, mongoProperties,
+                    commandTagsProvider, meterRegistry, saturation);
+        }
+
+        @Bean
+        public MongoBulkheads mongoBulkheads(ReactiveMongoTemplate mongoTemplate,
+                                             @Qualifier("readMongoClient") MongoClient readMongoClient,
+                                             MongoProperties mongoProperties, MappingMongoConverter converter,
+                                             BulkheadProperties properties, MongoPoolSaturation saturation,
+                                             MeterRegistry meterRegistry) {
+            ReactiveMongoTemplate readTemplate = new ReactiveMongoTemplate(
+                    new SimpleReactiveMongoDatabaseFactory(readMongoClient, mongoProperties.getMongoClientDatabase()),
+                    converter);
+            return new MongoBulkheads(
+                    bulkhead(MongoBulkheads.READ, readTemplate, properties, saturation, meterRegistry),
+                    bulkhead(MongoBulkheads.WRITE, mongoTemplate, properties, saturation, meterRegistry));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "orders.bulkhead", name = "enabled", havingValue = "false")
+    static class SharedPool {
+
+        @Bean
+        public MongoBulkheads mongoBulkheads(ReactiveMongoTemplate mongoTemplate) {
+            return MongoBulkheads.shared(mongoTemplate);
+        }
+    }
+
+    // Boot only instruments the client it builds itself, so each pool gets the same listeners, tagged with its name.
+    private static MongoClient createClient(String pool, BulkheadProperties.Pool settings,
+                                            MongoConnectionDetails connectionDetails, MongoProperties mongoProperties,
+                                            MongoCommandTagsProvider commandTagsProvider, MeterRegistry meterRegistry,
+                                            MongoPoolSaturation saturation) {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        new StandardMongoClientSettingsBuilderCustomizer(connectionDetails, mongoProperties.getUuidRepresentation())
+                .customize(builder);
+        DefaultMongoConnectionPoolTagsProvider poolTags = new DefaultMongoConnectionPoolTagsProvider();
+        builder.applicationName("orders-" + pool)
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry, withPool(commandTagsProvider, pool)))
+                .applyToConnectionPoolSettings(connections -> connections
+                        .maxSize(settings.getMaxSize())
+                        .minSize(settings.getMinSize())
+                        .maxConnecting(settings.getMaxConnecting())
+                        .maxWaitTime(settings.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry,
+                                event -> Tags.of(poolTags.connectionPoolTags(event)).and("pool", pool)))
+                        .addConnectionPoolListener(saturation.listener(pool)))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(Math.toIntExact(settings.getConnectTimeout().toMillis()), TimeUnit.MILLISECONDS)
+                        .readTimeout(Math.toIntExact(settings.getReadTimeout().toMillis()), TimeUnit.MILLISECONDS));
+        return MongoClients.create(builder.build());
+    }
+
+    private static MongoCommandTagsProvider withPool(MongoCommandTagsProvider delegate, String pool) {
+        return new MongoCommandTagsProvider() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                delegate.commandStarted(event);
+            }
+
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                return Tags.of(delegate.commandTags(event)).and("pool", pool);
+            }
+        };
+    }
+
+    private static MongoBulkhead bulkhead(String pool, ReactiveMongoTemplate template, BulkheadProperties properties,
+                                          MongoPoolSaturation saturation, MeterRegistry meterRegistry) {
+        BulkheadProperties.Pool settings = pool.equals(MongoBulkheads.READ) ? properties.getRead() : properties.getWrite();
+        Counter rejected = Counter.builder(MongoBulkheads.NAME + ".rejected")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Scheduler scheduler = settings.getSchedulerThreads() > 0
+                ? Schedulers.newParallel("orders-" + pool, settings.getSchedulerThreads())
+                : null;
+        return new MongoBulkhead(pool, template, () -> saturation.waiting(pool), settings.getMaxWaitQueueSize(),
+                properties.getRetryAfter(), rejected, scheduler);
+    }
+}
@@ -0,0 +1,32 @@
+package com.order.challenge.config;
+
+import com.order.challenge.money.MoneyConverters;
+import com.order.challenge.repository.local.LocalOrderStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+@Configuration
+@Profile("!" + LocalOrderStore.PROFILE)
+public class MongoMappingConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(MoneyConverters.all());
+    }
+
+    // No entity is polymorphic, so the _class hint would only repeat the declared type in every document.
+    @Bean
+    public MappingMongoConverter mappingMongoConverter(MongoMappingContext mappingContext,
+                                                       MongoCustomConversions conversions) {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, mappingContext));
+        return converter;
+    }
+}
@@ -0,0 +1,19 @@
+package com.order.challenge.config;
+
+import com.order.challenge.observation.ReadPreferenceCommandTagsProvider;
+import com.order.challenge.repository.local.LocalOrderStore;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Boot registers the command and connection-pool listeners itself; pool metrics already carry server.address.
+@Configuration
+@Profile("!" + LocalOrderStore.PROFILE)
+public class MongoMetricsConfig {
+
+    @Bean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        return new ReadPreferenceCommandTagsProvider();
+    }
+}
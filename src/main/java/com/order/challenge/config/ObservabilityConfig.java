@@ -0,0 +1,26 @@
+package com.order.challenge.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.challenge.observation.ObservedJackson2JsonDecoder;
+import com.order.challenge.observation.ObservedJackson2JsonEncoder;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class ObservabilityConfig {
+
+    // Runs after Boot's own Jackson customizer so these codecs replace the ones it registers.
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer observedJacksonCodecCustomizer(ObjectMapper objectMapper,
+                                                          ObservationRegistry observationRegistry) {
+        return configurer -> {
+            configurer.defaultCodecs().jackson2JsonDecoder(new ObservedJackson2JsonDecoder(objectMapper, observationRegistry));
+            configurer.defaultCodecs().jackson2JsonEncoder(new ObservedJackson2JsonEncoder(objectMapper, observationRegistry));
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.cache")
+public class OrderCacheProperties {
+
+    private boolean enabled = true;
+
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,11 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "orders.query")
+public class QueryProperties {
+
+    private int cursorBatchSize = 500;
+}
@@ -0,0 +1,11 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "orders.read-coalescing")
+public class ReadCoalescingProperties {
+
+    private boolean enabled = true;
+}
@@ -0,0 +1,39 @@
+package com.order.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.top-barcodes")
+public class TopBarcodesProperties {
+
+    private boolean enabled = true;
+
+    private int capacity = 1000;
+
+    private Duration window = Duration.ofHours(1);
+
+    private Duration slice = Duration.ofMinutes(5);
+
+    private final Snapshot snapshot = new Snapshot();
+
+    @Data
+    public static class Snapshot {
+
+        private boolean enabled = false;
+
+        // Required when snapshots are enabled: each instance keeps its own snapshot under this id, so it must be
+        // unique per instance and stable across its restarts.
+        private String instanceId = "";
+
+        private Duration interval = Duration.ofMinutes(1);
+
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+    }
+
+    public int sliceCount() {
+        return (int) Math.max(1, Math.ceilDiv(window.toMillis(), slice.toMillis()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.order.challenge.consistency;
+
+import org.bson.BsonTimestamp;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class OperationTimeHolder {
+
+    private final AtomicReference<BsonTimestamp> operationTime = new AtomicReference<>();
+
+    public void advance(BsonTimestamp candidate) {
+        if (candidate == null) {
+            return;
+        }
+        operationTime.accumulateAndGet(candidate,
+                (current, next) -> current == null || next.compareTo(current) > 0 ? next : current);
+    }
+
+    public BsonTimestamp get() {
+        return operationTime.get();
+    }
+}
@@ -0,0 +1,26 @@
+package com.order.challenge.consistency;
+
+import org.bson.BsonTimestamp;
+
+public final class OperationTimeToken {
+
+    public static final String HEADER = "X-Operation-Time";
+
+    private OperationTimeToken() {
+    }
+
+    public static String format(BsonTimestamp operationTime) {
+        return Long.toUnsignedString(operationTime.getValue());
+    }
+
+    public static BsonTimestamp parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return new BsonTimestamp(Long.parseUnsignedLong(token.trim()));
+        } catch (NumberFormatException malformed) {
+            return null;
+        }
+    }
+}
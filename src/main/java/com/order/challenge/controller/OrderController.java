@@ -1,15 +1,36 @@
 package com.order.challenge.controller;
 
+import com.order.challenge.consistency.OperationTimeHolder;
+import com.order.challenge.consistency.OperationTimeToken;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.enums.TopBarcodeRanking;
+import com.order.challenge.live.OrderLiveFeed;
+import com.order.challenge.pagination.OrderCursorToken;
+import com.order.challenge.request.OrderListRequest;
 import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderBatchResult;
+import com.order.challenge.response.OrderCursorResponse;
 import com.order.challenge.response.OrderResponse;
+import com.order.challenge.response.TopBarcodesResponse;
+import com.order.challenge.response.TotalMetricsResponse;
+import com.order.challenge.service.OrderMetricsService;
 import com.order.challenge.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,17 +38,66 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderMetricsService orderMetricsService;
+    private final OrderLiveFeed orderLiveFeed;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<OrderResponse> createOrder(@RequestBody Mono<OrderRequest> orderRequestMono) {
-        return orderRequestMono.flatMap(orderService::createOrder);
+    public Mono<OrderResponse> createOrder(@RequestBody Mono<OrderRequest> orderRequestMono, ServerHttpResponse response) {
+        OperationTimeHolder operationTime = new OperationTimeHolder();
+        return orderRequestMono.flatMap(orderService::createOrder)
+                .doOnNext(created -> {
+                    if (operationTime.get() != null) {
+                        response.getHeaders().set(OperationTimeToken.HEADER, OperationTimeToken.format(operationTime.get()));
+                    }
+                })
+                .contextWrite(Context.of(OperationTimeHolder.class, operationTime));
+    }
+
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<OrderBatchResult> createOrders(@RequestBody Flux<OrderRequest> orderRequests) {
+        return orderService.createOrders(orderRequests);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    // NDJSON has no event ids, so the continuation token for `after` follows the last order as a line of its own.
+    public Flux<Object> findOrders(OrderListRequest request) {
+        return Flux.defer(() -> {
+            AtomicReference<OrderResponse> last = new AtomicReference<>();
+            return orderService.findOrders(request.toQuery(null))
+                    .doOnNext(last::set)
+                    .cast(Object.class)
+                    .concatWith(Mono.fromSupplier(last::get)
+                            .map(order -> OrderCursorResponse.builder()
+                                    .nextCursor(OrderCursorToken.format(order.getCreatedAt(), order.getOrderId()))
+                                    .build()));
+        });
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<ServerSentEvent<OrderResponse>> streamOrders(OrderListRequest request,
+                                                             @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return orderService.findOrders(request.toQuery(lastEventId))
+                .map(order -> ServerSentEvent.builder(order)
+                        .id(OrderCursorToken.format(order.getCreatedAt(), order.getOrderId()))
+                        .build());
+    }
+
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> liveFeed() {
+        return orderLiveFeed.events();
     }
 
     @GetMapping("/{orderId}")
     @ResponseStatus(HttpStatus.OK)
-    public Mono<OrderResponse> getOrderById(@PathVariable UUID orderId) {
-        return orderService.getOrderById(orderId);
+    public Mono<OrderResponse> getOrderById(@PathVariable UUID orderId,
+                                            @RequestHeader(name = OperationTimeToken.HEADER, required = false) String operationTime) {
+        return orderService.getOrderById(orderId, OperationTimeToken.parse(operationTime));
     }
 
     @GetMapping("/total-value")
@@ -35,4 +105,27 @@ public class OrderController {
     public Mono<BigDecimal> getTotalOrderValue() {
         return orderService.getTotalOrderValue();
     }
-}
\ No newline at end of file
+
+    @GetMapping("/metrics")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<TotalMetricsResponse> getTotalMetrics() {
+        return orderMetricsService.getTotalMetrics();
+    }
+
+    @GetMapping("/metrics/rollups")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<TotalMetricsResponse> getMetricsRollups(
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return orderMetricsService.getRollups(granularity, from, to);
+    }
+
+    @GetMapping("/top-barcodes")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<TopBarcodesResponse> getTopBarcodes(@RequestParam(defaultValue = "REVENUE") TopBarcodeRanking by,
+                                                    @RequestParam(defaultValue = "50") int limit,
+                                                    @RequestParam(defaultValue = "PT1H") Duration window) {
+        return orderMetricsService.getTopBarcodes(by, limit, window);
+    }
+}
@@ -0,0 +1,46 @@
+package com.order.challenge.controller;
+
+import com.order.challenge.consistency.OperationTimeHolder;
+import com.order.challenge.consistency.OperationTimeToken;
+import com.order.challenge.request.OrderRequest;
+import com.order.challenge.service.OrderService;
+import com.order.challenge.validation.OrderRequestValidator;
+import com.order.challenge.validation.OrderViolation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "orders.ingest.router", name = "enabled", havingValue = "true")
+public class OrderHandler {
+
+    private final OrderService orderService;
+    private final OrderRequestValidator orderRequestValidator;
+
+    // Same contract as OrderController.createOrder, except that invalid orders are turned away before the service.
+    public Mono<ServerResponse> createOrder(ServerRequest request) {
+        OperationTimeHolder operationTime = new OperationTimeHolder();
+        return request.bodyToMono(OrderRequest.class)
+                .switchIfEmpty(Mono.error(OrderViolation.BODY_MISSING::exception))
+                .flatMap(orderRequest -> {
+                    OrderViolation violation = orderRequestValidator.validate(orderRequest);
+                    return violation == null ? orderService.createOrder(orderRequest) : Mono.error(violation.exception());
+                })
+                .flatMap(created -> {
+                    ServerResponse.BodyBuilder response = ServerResponse.status(HttpStatus.CREATED)
+                            .contentType(MediaType.APPLICATION_JSON);
+                    if (operationTime.get() != null) {
+                        response.header(OperationTimeToken.HEADER, OperationTimeToken.format(operationTime.get()));
+                    }
+                    return response.bodyValue(created);
+                })
+                .contextWrite(Context.of(OperationTimeHolder.class, operationTime));
+    }
+}
@@ -0,0 +1,50 @@
+package com.order.challenge.controller;
+
+import com.order.challenge.exception.OrderConflictException;
+import com.order.challenge.exception.OrderNotFoundException;
+import com.order.challenge.exception.OrderOverloadedException;
+import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.exception.OrderValidationException;
+import com.order.challenge.exception.handler.GlobalExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+// Router functions are matched before annotated mappings, so this route shadows OrderController.createOrder.
+@Configuration
+@ConditionalOnProperty(prefix = "orders.ingest.router", name = "enabled", havingValue = "true")
+public class OrderRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> orderIngestRoute(OrderHandler orderHandler, GlobalExceptionHandler exceptionHandler) {
+        return routes(orderHandler, exceptionHandler);
+    }
+
+    // @ControllerAdvice does not reach functional endpoints, so the route hands its errors to the same handler methods.
+    static RouterFunction<ServerResponse> routes(OrderHandler orderHandler, GlobalExceptionHandler exceptionHandler) {
+        return RouterFunctions.route()
+                .POST("/v1/api/orders", orderHandler::createOrder)
+                .onError(OrderValidationException.class, (error, request) ->
+                        toServerResponse(exceptionHandler.handleOrderValidationException((OrderValidationException) error)))
+                .onError(OrderNotFoundException.class, (error, request) ->
+                        toServerResponse(exceptionHandler.handleOrderNotFoundException((OrderNotFoundException) error)))
+                .onError(OrderConflictException.class, (error, request) ->
+                        toServerResponse(exceptionHandler.handleOrderConflictException((OrderConflictException) error)))
+                .onError(OrderOverloadedException.class, (error, request) ->
+                        toServerResponse(exceptionHandler.handleOrderOverloadedException((OrderOverloadedException) error)))
+                .onError(OrderPersistenceException.class, (error, request) ->
+                        toServerResponse(exceptionHandler.handleOrderPersistenceException((OrderPersistenceException) error)))
+                .build();
+    }
+
+    private static <T> Mono<ServerResponse> toServerResponse(Mono<ResponseEntity<T>> entity) {
+        return entity.flatMap(response -> ServerResponse.status(response.getStatusCode())
+                .headers(headers -> headers.addAll(response.getHeaders()))
+                .bodyValue(response.getBody()));
+    }
+}
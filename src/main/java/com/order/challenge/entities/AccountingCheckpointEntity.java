@@ -0,0 +1,26 @@
+package com.order.challenge.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "accounting_checkpoint")
+public class AccountingCheckpointEntity {
+
+    @Id
+    private String id;
+    private org.bson.Document resumeToken;
+    private LocalDateTime updatedAt;
+
+    // Orders created before this were counted inline while their status stayed NOT_ACCOUNTED.
+    private LocalDateTime cutoverAt;
+}
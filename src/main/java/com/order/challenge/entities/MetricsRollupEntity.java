@@ -0,0 +1,45 @@
+package com.order.challenge.entities;
+
+import com.order.challenge.enums.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "metrics_rollup")
+public class MetricsRollupEntity {
+
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    @Id
+    private String id;
+    private RollupGranularity granularity;
+    private LocalDateTime bucketStart;
+    private Long orderCount;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalValue;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal minValue;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal maxValue;
+
+    // Fixed-width ids sort chronologically, so a range of buckets is a range scan on _id.
+    public static String idOf(RollupGranularity granularity, LocalDateTime bucketStart) {
+        return granularity.name() + ":" + BUCKET_FORMAT.format(granularity.truncate(bucketStart));
+    }
+}
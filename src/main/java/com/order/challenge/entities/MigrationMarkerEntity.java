@@ -0,0 +1,22 @@
+package com.order.challenge.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "migration_marker")
+public class MigrationMarkerEntity {
+
+    @Id
+    private String id;
+    private LocalDateTime completedAt;
+}
@@ -1,11 +1,15 @@
 package com.order.challenge.entities;
 
 import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -14,15 +18,40 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "order")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_orderId", def = "{'c': 1, '_id': 1}"),
+        @CompoundIndex(name = "barCode_createdAt_orderId", def = "{'bc': 1, 'c': 1, '_id': 1}"),
+        @CompoundIndex(name = "notAccounted_createdAt", def = "{'s': 1, 'c': 1}", partialFilter = "{'s': 'NOT_ACCOUNTED'}")
+})
 public class OrderEntity {
 
+    // Field names are stored in every document, so the stored names are kept to a letter or two.
+    public static final String BAR_CODE = "bc";
+    public static final String QUANTITY = "q";
+    public static final String PRICE = "p";
+    public static final String TOTAL_VALUE = "t";
+    public static final String CREATED_AT = "c";
+    public static final String STATUS = "s";
+
     @Id
     private UUID orderId;
+
+    @Field(BAR_CODE)
     private String barCode;
+
+    @Field(QUANTITY)
     private Integer quantity;
-    private BigDecimal price;
-    private BigDecimal totalValue;
+
+    @Field(name = PRICE, targetType = FieldType.DECIMAL128)
+    private Money price;
+
+    @Field(name = TOTAL_VALUE, targetType = FieldType.DECIMAL128)
+    private Money totalValue;
+
+    @Field(CREATED_AT)
     private LocalDateTime createdAt;
+
+    @Field(STATUS)
     private OrderStatus status = OrderStatus.NOT_ACCOUNTED;
 
 
@@ -0,0 +1,45 @@
+package com.order.challenge.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "top_barcodes_snapshot")
+public class TopBarcodesSnapshotEntity {
+
+    @Id
+    private String id;
+    private LocalDateTime takenAt;
+    private long sliceMillis;
+    private List<Slice> slices;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slice {
+
+        private long sliceId;
+        private List<Counter> revenue;
+        private List<Counter> quantity;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Counter {
+
+        private String barCode;
+        private long count;
+        private long error;
+    }
+}
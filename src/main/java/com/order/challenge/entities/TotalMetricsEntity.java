@@ -23,4 +23,20 @@ public class TotalMetricsEntity {
 
     @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal totalValue;
-}
\ No newline at end of file
+
+    private Long orderCount;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal minValue;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal maxValue;
+
+    // Set on counters created once orderCount was kept, so a legacy total is never averaged over a partial count.
+    private Boolean countComplete;
+
+    public TotalMetricsEntity(String id, BigDecimal totalValue) {
+        this.id = id;
+        this.totalValue = totalValue;
+    }
+}
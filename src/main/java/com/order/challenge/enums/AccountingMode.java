@@ -0,0 +1,3 @@
+package com.order.challenge.enums;
+
+public enum AccountingMode { INLINE, CHANGE_STREAM }
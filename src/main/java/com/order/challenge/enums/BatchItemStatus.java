@@ -0,0 +1,3 @@
+package com.order.challenge.enums;
+
+public enum BatchItemStatus { CREATED, FAILED }
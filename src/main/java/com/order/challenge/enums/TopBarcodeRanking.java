@@ -0,0 +1,6 @@
+package com.order.challenge.enums;
+
+public enum TopBarcodeRanking {
+    REVENUE,
+    QUANTITY
+}
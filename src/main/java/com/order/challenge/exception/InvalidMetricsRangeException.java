@@ -0,0 +1,8 @@
+package com.order.challenge.exception;
+
+public class InvalidMetricsRangeException extends RuntimeException {
+
+    public InvalidMetricsRangeException(String message) {
+        super(message);
+    }
+}
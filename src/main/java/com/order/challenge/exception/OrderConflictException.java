@@ -0,0 +1,8 @@
+package com.order.challenge.exception;
+
+public class OrderConflictException extends RuntimeException {
+
+    public OrderConflictException(String message) {
+        super(message);
+    }
+}
@@ -2,9 +2,10 @@ package com.order.challenge.exception;
 
 public class OrderNotFoundException extends RuntimeException {
 
+    // Lookups for unknown IDs are expected, and the message already names the order.
     public OrderNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.order.challenge.exception;
+
+import java.time.Duration;
+
+public class OrderOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    // Shedding is what the service does under overload, the worst moment to fill in stack traces.
+    public OrderOverloadedException(String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,18 @@
+package com.order.challenge.exception;
+
+import com.order.challenge.validation.OrderViolation;
+
+public class OrderValidationException extends RuntimeException {
+
+    private final transient OrderViolation violation;
+
+    // A rejected request is routine traffic, so filling in a stack trace for it would be pure overhead.
+    public OrderValidationException(OrderViolation violation) {
+        super(violation.message(), null, false, false);
+        this.violation = violation;
+    }
+
+    public OrderViolation getViolation() {
+        return violation;
+    }
+}
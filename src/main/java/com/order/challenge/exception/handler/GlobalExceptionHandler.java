@@ -1,21 +1,42 @@
 package com.order.challenge.exception.handler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.order.challenge.exception.ErrorResponse;
+import com.order.challenge.exception.InvalidMetricsRangeException;
+import com.order.challenge.exception.InvalidOrderQueryException;
+import com.order.challenge.exception.OrderConflictException;
 import com.order.challenge.exception.OrderNotFoundException;
+import com.order.challenge.exception.OrderOverloadedException;
 import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.exception.OrderValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 
 @ControllerAdvice
 @RestController
 public class GlobalExceptionHandler {
 
+    private final ValidationErrorBodies validationErrorBodies;
+
+    @Autowired
+    public GlobalExceptionHandler(ObjectMapper objectMapper) {
+        this(objectMapper, Clock.systemDefaultZone());
+    }
+
+    GlobalExceptionHandler(ObjectMapper objectMapper, Clock clock) {
+        this.validationErrorBodies = new ValidationErrorBodies(objectMapper, clock);
+    }
+
     @ExceptionHandler(OrderNotFoundException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleOrderNotFoundException(OrderNotFoundException ex) {
 
@@ -31,6 +52,20 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OrderConflictException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleOrderConflictException(OrderConflictException ex) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(error));
+    }
+
     @ExceptionHandler(OrderPersistenceException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleOrderPersistenceException(OrderPersistenceException ex) {
 
@@ -44,4 +79,42 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(error));
     }
+
+    @ExceptionHandler(OrderOverloadedException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleOrderOverloadedException(OrderOverloadedException ex) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(error));
+    }
+
+    @ExceptionHandler({InvalidMetricsRangeException.class, InvalidOrderQueryException.class})
+    public Mono<ResponseEntity<ErrorResponse>> handleInvalidQueryException(RuntimeException ex) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(error));
+    }
+
+    @ExceptionHandler(OrderValidationException.class)
+    public Mono<ResponseEntity<byte[]>> handleOrderValidationException(OrderValidationException ex) {
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(validationErrorBodies.bodyOf(ex.getViolation())));
+    }
 }
@@ -0,0 +1,47 @@
+package com.order.challenge.exception.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.challenge.exception.ErrorResponse;
+import com.order.challenge.validation.OrderViolation;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// ErrorResponse stamps whole seconds, so each violation's body only changes once a second; serialize it then and
+// hand the same bytes to every rejected request in between.
+class ValidationErrorBodies {
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final AtomicReferenceArray<Body> bodies = new AtomicReferenceArray<>(OrderViolation.values().length);
+
+    ValidationErrorBodies(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    byte[] bodyOf(OrderViolation violation) {
+        Instant now = clock.instant();
+        Body body = bodies.get(violation.ordinal());
+        if (body == null || body.second() != now.getEpochSecond()) {
+            body = new Body(now.getEpochSecond(), serialize(violation, LocalDateTime.ofInstant(now, clock.getZone())));
+            bodies.set(violation.ordinal(), body);
+        }
+        return body.json();
+    }
+
+    private byte[] serialize(OrderViolation violation, LocalDateTime timestamp) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), violation.message(), timestamp));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the error body for " + violation, e);
+        }
+    }
+
+    private record Body(long second, byte[] json) {
+    }
+}
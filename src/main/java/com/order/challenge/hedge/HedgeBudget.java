@@ -0,0 +1,34 @@
+package com.order.challenge.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Every lookup earns a fraction of a hedge and every hedge spends a whole one, so hedges never exceed that fraction.
+final class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long cap;
+    private final AtomicLong balance;
+
+    HedgeBudget(double percent, int burst) {
+        this.deposit = Math.round(percent / 100 * SCALE);
+        this.cap = burst * SCALE;
+        this.balance = new AtomicLong(cap);
+    }
+
+    void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(cap, current + amount));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package com.order.challenge.hedge;
+
+import com.mongodb.ReadPreference;
+import com.order.challenge.config.HedgedReadProperties;
+import com.order.challenge.repository.local.LocalOrderStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// A slow member should cost one lookup its delay, not the whole GET tail: past the usual latency, ask another member too.
+@Component
+@Profile("!" + LocalOrderStore.PROFILE)
+public class HedgedReads {
+
+    public static final String NAME = "orders.hedge";
+
+    private final HedgedReadProperties properties;
+    private final ReadPreference readPreference;
+    private final LatencyPercentile latency;
+    private final HedgeBudget budget;
+    private final Counter won;
+    private final Counter lost;
+    private final Counter throttled;
+
+    public HedgedReads(HedgedReadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.readPreference = ReadPreference.valueOf(properties.getReadPreference());
+        this.latency = new LatencyPercentile(properties.getPercentile());
+        this.budget = new HedgeBudget(properties.getBudgetPercent(), properties.getBudgetBurst());
+        this.won = hedges(meterRegistry, "won");
+        this.lost = hedges(meterRegistry, "lost");
+        this.throttled = hedges(meterRegistry, "throttled");
+        TimeGauge.builder(NAME + ".delay", this, TimeUnit.NANOSECONDS, hedgedReads -> hedgedReads.delay().toNanos())
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public ReadPreference readPreference() {
+        return readPreference;
+    }
+
+    // Whichever read signals first wins and the other is cancelled; a throttled or failed hedge just leaves the first read.
+    public <T> Mono<T> hedge(Mono<T> first, Supplier<Mono<T>> second) {
+        if (!properties.isEnabled()) {
+            return first;
+        }
+        return Mono.defer(() -> {
+            budget.deposit();
+            long start = System.nanoTime();
+            // A first read cancelled by a winning hedge still took at least this long; dropping it would leave only
+            // the fast reads in the window and pull the delay below the tail it is meant to cut.
+            Mono<T> timedFirst = first.doOnSuccess(value -> latency.record(System.nanoTime() - start))
+                    .doOnCancel(() -> latency.record(System.nanoTime() - start));
+            Mono<T> hedge = Mono.delay(delay()).flatMap(tick -> {
+                if (!budget.tryWithdraw()) {
+                    throttled.increment();
+                    return Mono.never();
+                }
+                return second.get()
+                        .doOnSuccess(value -> won.increment())
+                        .doOnCancel(lost::increment)
+                        .onErrorResume(error -> Mono.never());
+            });
+            return Mono.firstWithSignal(timedFirst, hedge);
+        });
+    }
+
+    Duration delay() {
+        long current = latency.currentNanos();
+        Duration max = properties.getMaxDelay();
+        if (current < 0) {
+            return max;
+        }
+        Duration observed = Duration.ofNanos(current);
+        Duration min = properties.getMinDelay();
+        return observed.compareTo(min) < 0 ? min : observed.compareTo(max) > 0 ? max : observed;
+    }
+
+    private static Counter hedges(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(NAME + ".requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
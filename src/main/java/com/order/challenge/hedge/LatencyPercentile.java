@@ -0,0 +1,38 @@
+package com.order.challenge.hedge;
+
+import java.util.Arrays;
+
+// Keeps the latest lookups in a ring and re-sorts a copy every RECOMPUTE_EVERY samples, so recording stays O(1).
+final class LatencyPercentile {
+
+    static final int WINDOW = 1000;
+    static final int RECOMPUTE_EVERY = 100;
+
+    private final double percentile;
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long currentNanos = -1;
+
+    LatencyPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % WINDOW;
+        count = Math.min(count + 1, WINDOW);
+        if (++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            currentNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    // Negative until the first full batch of samples has been seen.
+    long currentNanos() {
+        return currentNanos;
+    }
+}
@@ -0,0 +1,108 @@
+package com.order.challenge.limit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// TCP Vegas applied to requests: the gap between the observed and the best latency estimates how many requests
+// are queued downstream, and the limit grows while that queue stays short and shrinks once it builds up.
+final class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeMultiplier;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Guarded by this.
+    private double estimatedLimit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long samplesUntilProbe;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, int probeMultiplier) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeMultiplier = probeMultiplier;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.samplesUntilProbe = (long) probeMultiplier * initialLimit;
+    }
+
+    Permit tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return new Permit();
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (--samplesUntilProbe <= 0) {
+            minRttNanos = rttNanos;
+            samplesUntilProbe = (long) probeMultiplier * limit;
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        double current = estimatedLimit;
+        double step = Math.max(1, Math.log10(current));
+        double next;
+        if (dropped) {
+            next = current - step;
+        } else if (inFlightAtStart * 2 < current) {
+            // Far below the limit the latency says nothing about it, and growing it would only inflate it.
+            return;
+        } else {
+            double queue = Math.ceil(current * (1 - (double) minRttNanos / Math.max(rttNanos, 1)));
+            if (queue <= step) {
+                next = current + 6 * step;
+            } else if (queue < 3 * step) {
+                next = current + step;
+            } else if (queue > 6 * step) {
+                next = current - step;
+            } else {
+                return;
+            }
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    final class Permit {
+
+        private final int inFlightAtStart = inFlight.get();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release(long rttNanos, boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                onSample(rttNanos, inFlightAtStart, dropped);
+            }
+        }
+
+        // A cancelled call never saw its response, so its latency is no sample.
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.challenge.limit;
+
+import com.order.challenge.config.ConcurrencyLimitProperties;
+import com.order.challenge.exception.OrderOverloadedException;
+import com.order.challenge.exception.OrderPersistenceException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Rejects instead of queueing once the repository slows down, so a Mongo election costs fast 503s, not a pile of timeouts.
+@Component
+@RequiredArgsConstructor
+public class OrderConcurrencyLimiter {
+
+    public static final String NAME = "orders.concurrency";
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+    public <T> Mono<T> limit(String operation, Supplier<Mono<T>> work) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(work);
+        }
+        AdaptiveLimit limit = limits.computeIfAbsent(operation, this::newLimit);
+        return Mono.defer(() -> {
+            AdaptiveLimit.Permit permit = limit.tryAcquire();
+            if (permit == null) {
+                return Mono.error(new OrderOverloadedException(
+                        "Too many concurrent '" + operation + "' requests. Retry later.", properties.getRetryAfter()));
+            }
+            long start = System.nanoTime();
+            return Mono.defer(work)
+                    .doOnSuccess(value -> permit.release(System.nanoTime() - start, false))
+                    .doOnError(error -> permit.release(System.nanoTime() - start, isOverload(error)))
+                    .doOnCancel(permit::release);
+        });
+    }
+
+    // Failed writes, saturated pools and timeouts are the loss signal; a missing order or a replayed duplicate is an ordinary sample.
+    private static boolean isOverload(Throwable error) {
+        return error instanceof OrderPersistenceException || error instanceof OrderOverloadedException
+                || error instanceof TimeoutException;
+    }
+
+    private AdaptiveLimit newLimit(String operation) {
+        AdaptiveLimit limit = new AdaptiveLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getProbeMultiplier());
+        Gauge.builder(NAME + ".limit", limit, AdaptiveLimit::limit)
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder(NAME + ".in.flight", limit, AdaptiveLimit::inFlight)
+                .tag("operation", operation)
+                .register(meterRegistry);
+        FunctionCounter.builder(NAME + ".rejected", limit, AdaptiveLimit::rejected)
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return limit;
+    }
+}
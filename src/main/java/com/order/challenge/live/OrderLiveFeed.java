@@ -0,0 +1,80 @@
+package com.order.challenge.live;
+
+import com.order.challenge.config.LiveFeedProperties;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.response.LiveTotalResponse;
+import com.order.challenge.response.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Slf4j
+@Component
+public class OrderLiveFeed {
+
+    static final String ORDER_EVENT = "order";
+    static final String TOTAL_EVENT = "total";
+
+    private final LiveFeedProperties properties;
+
+    // Best effort: a subscriber without outstanding demand misses the order instead of stalling the publisher.
+    private final Sinks.Many<OrderResponse> orders = Sinks.many().multicast().directBestEffort();
+
+    // One poll of the total serves every viewer; late joiners get the last value straight away.
+    private final Flux<LiveTotalResponse> totals;
+
+    public OrderLiveFeed(LiveFeedProperties properties, TotalMetricsRepositoryCustom totalMetricsRepository) {
+        this.properties = properties;
+        this.totals = Flux.interval(Duration.ZERO, properties.getTotalRefresh())
+                .onBackpressureDrop()
+                .concatMap(tick -> totalMetricsRepository.findTotalMetrics()
+                        .map(metrics -> new LiveTotalResponse(metrics.getTotalValue(),
+                                metrics.getOrderCount() == null ? 0 : metrics.getOrderCount()))
+                        .defaultIfEmpty(new LiveTotalResponse(BigDecimal.ZERO, 0))
+                        .onErrorResume(error -> {
+                            log.warn("Failed to refresh live total. Error: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .distinctUntilChanged()
+                .replay(1)
+                .refCount();
+    }
+
+    public void publish(OrderResponse order) {
+        // Only a concurrent publisher is worth retrying, and only briefly, since it may be delivering to many viewers;
+        // no viewers or no demand just means nobody needs this order. emitNext would error the sink on overflow.
+        Sinks.EmitFailureHandler contention = Sinks.EmitFailureHandler.busyLooping(properties.getPublishTimeout());
+        Sinks.EmitResult result;
+        do {
+            result = orders.tryEmitNext(order);
+        } while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED && contention.onEmitFailure(SignalType.ON_NEXT, result));
+        if (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            log.debug("Dropped order {} from the live feed while another publisher held it.", order.getOrderId());
+        }
+    }
+
+    public int subscriberCount() {
+        return orders.currentSubscriberCount();
+    }
+
+    public Flux<ServerSentEvent<Object>> events() {
+        Flux<ServerSentEvent<Object>> orderEvents = orders.asFlux()
+                .map(order -> ServerSentEvent.<Object>builder(order).event(ORDER_EVENT).build());
+        // A slow viewer only ever sees the newest total, never a backlog of stale ones.
+        Flux<ServerSentEvent<Object>> totalEvents = totals
+                .onBackpressureLatest()
+                .map(total -> ServerSentEvent.<Object>builder(total).event(TOTAL_EVENT).build());
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(properties.getHeartbeat())
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.builder().comment("keep-alive").build());
+
+        return Flux.merge(orderEvents, totalEvents, heartbeats);
+    }
+}
@@ -0,0 +1,169 @@
+package com.order.challenge.migration;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.order.challenge.config.MigrationProperties;
+import com.order.challenge.entities.MigrationMarkerEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.UuidRepresentation;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Rewrites orders stored with the original layout (long field names, string money, legacy UUIDs, _class) in place.
+@Slf4j
+@Component
+@Profile("!" + LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class CompactOrderLayoutMigration implements SmartInitializingSingleton {
+
+    static final String LEGACY_BAR_CODE = "barCode";
+    static final String MARKER_ID = "compact-orders";
+
+    private static final BulkWriteOptions ORDERED = new BulkWriteOptions().ordered(true);
+    private static final ReplaceOptions REPLACE = new ReplaceOptions();
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MigrationProperties properties;
+
+    // Runs once every bean exists and before the web server starts, so no request, pipeline or existence filter
+    // ever sees a legacy document: the application only reads standard UUIDs and short field names.
+    // Once a run finds nothing left to migrate it leaves a marker, so later startups cost one _id lookup
+    // instead of a scan of the orders collection.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (Boolean.TRUE.equals(isCompleted().block())) {
+            return;
+        }
+        MigrationProperties.CompactOrders compactOrders = properties.getCompactOrders();
+        if (!compactOrders.isEnabled()) {
+            if (Boolean.TRUE.equals(hasLegacyDocuments().block())) {
+                throw new IllegalStateException("Orders stored in the legacy layout remain and the compact layout "
+                        + "migration is disabled. Enable orders.migration.compact-orders.enabled to migrate them.");
+            }
+            markCompleted().block();
+            return;
+        }
+        log.info("Migrating order documents to the compact layout.");
+        Long migrated = migrate(compactOrders.getBatchSize()).block();
+        markCompleted().block();
+        log.info("Migrated {} order documents to the compact layout.", migrated);
+    }
+
+    Mono<Boolean> isCompleted() {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER_ID)), MigrationMarkerEntity.class);
+    }
+
+    Mono<Void> markCompleted() {
+        return mongoTemplate.save(MigrationMarkerEntity.builder()
+                        .id(MARKER_ID)
+                        .completedAt(LocalDateTime.now())
+                        .build())
+                .then();
+    }
+
+    Mono<Boolean> hasLegacyDocuments() {
+        return mongoTemplate.exists(Query.query(Criteria.where(LEGACY_BAR_CODE).exists(true)),
+                mongoTemplate.getCollectionName(OrderEntity.class));
+    }
+
+    Mono<Long> migrate(int batchSize) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrderEntity.class))
+                .map(collection -> collection.withDocumentClass(BsonDocument.class))
+                .flatMap(collection -> Flux.from(collection.find(Filters.exists(LEGACY_BAR_CODE)).batchSize(batchSize))
+                        .buffer(batchSize)
+                        .concatMap(legacyDocuments -> Mono.from(collection.bulkWrite(rewrites(legacyDocuments), ORDERED))
+                                .thenReturn((long) legacyDocuments.size()))
+                        .reduce(0L, Long::sum));
+    }
+
+    static List<WriteModel<BsonDocument>> rewrites(List<BsonDocument> legacyDocuments) {
+        List<WriteModel<BsonDocument>> writes = new ArrayList<>(legacyDocuments.size() * 2);
+        for (BsonDocument legacy : legacyDocuments) {
+            BsonDocument compact = toCompact(legacy);
+            BsonValue legacyId = legacy.get("_id");
+            BsonValue compactId = compact.get("_id");
+            if (compactId.equals(legacyId)) {
+                writes.add(new ReplaceOneModel<>(Filters.eq("_id", legacyId), compact, REPLACE));
+                continue;
+            }
+            // A new _id means a new document. Writing it before deleting the old one makes an interrupted run
+            // safe to repeat, and $setOnInsert never overwrites a copy the application already wrote in the new layout.
+            compact.remove("_id");
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", compactId), new BsonDocument("$setOnInsert", compact), UPSERT));
+            writes.add(new DeleteOneModel<>(Filters.eq("_id", legacyId)));
+        }
+        return writes;
+    }
+
+    static BsonDocument toCompact(BsonDocument legacy) {
+        BsonDocument compact = new BsonDocument("_id", standardId(legacy.get("_id")));
+        putIfPresent(compact, OrderEntity.BAR_CODE, legacy.get(LEGACY_BAR_CODE));
+        putIfPresent(compact, OrderEntity.QUANTITY, legacy.get("quantity"));
+        putIfPresent(compact, OrderEntity.PRICE, decimal(legacy.get("price")));
+        putIfPresent(compact, OrderEntity.TOTAL_VALUE, decimal(legacy.get("totalValue")));
+        putIfPresent(compact, OrderEntity.CREATED_AT, legacy.get("createdAt"));
+        // Legacy orders were counted when they were created. A new _id reaches the change stream as an insert,
+        // so anything but ACCOUNTED would count the order a second time.
+        compact.put(OrderEntity.STATUS, new BsonString(OrderStatus.ACCOUNTED.name()));
+        return compact;
+    }
+
+    private static BsonValue standardId(BsonValue id) {
+        if (id.isBinary() && id.asBinary().getType() == BsonBinarySubType.UUID_LEGACY.getValue()) {
+            return new BsonBinary(id.asBinary().asUuid(UuidRepresentation.JAVA_LEGACY), UuidRepresentation.STANDARD);
+        }
+        if (id.isString()) {
+            return new BsonBinary(UUID.fromString(id.asString().getValue()), UuidRepresentation.STANDARD);
+        }
+        return id;
+    }
+
+    private static BsonValue decimal(BsonValue value) {
+        if (value == null || value.isNull() || value.isDecimal128()) {
+            return value;
+        }
+        if (value.isString()) {
+            return new BsonDecimal128(new Decimal128(new BigDecimal(value.asString().getValue())));
+        }
+        if (value.isDouble()) {
+            return new BsonDecimal128(new Decimal128(BigDecimal.valueOf(value.asDouble().getValue())));
+        }
+        return new BsonDecimal128(new Decimal128(value.asNumber().longValue()));
+    }
+
+    private static void putIfPresent(BsonDocument document, String field, BsonValue value) {
+        if (value != null) {
+            document.put(field, value);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.order.challenge.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// An exact decimal amount. Values with at most two decimal places that fit a long are held as an unscaled long
+// (minor units), which covers every price and total this service sees; anything else falls back to a BigDecimal.
+// Like BigDecimal, the scale is part of the value, so 19.9 and 19.90 print and compare-by-equals differently.
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money> {
+
+    static final int MAX_COMPACT_SCALE = 2;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100};
+
+    public static final Money ZERO = new Money(0, 0, null);
+
+    private final long unscaled;
+    private final int scale;
+    private final BigDecimal decimal;
+
+    private Money(long unscaled, int scale, BigDecimal decimal) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.decimal = decimal;
+    }
+
+    public static Money of(long unscaled, int scale) {
+        if (scale >= 0 && scale <= MAX_COMPACT_SCALE) {
+            return new Money(unscaled, scale, null);
+        }
+        return new Money(0, 0, BigDecimal.valueOf(unscaled, scale));
+    }
+
+    public static Money ofCents(long cents) {
+        return new Money(cents, MAX_COMPACT_SCALE, null);
+    }
+
+    public static Money of(BigDecimal value) {
+        int scale = value.scale();
+        if (scale >= 0 && scale <= MAX_COMPACT_SCALE
+                && (value.precision() <= 18 || value.unscaledValue().bitLength() < Long.SIZE)) {
+            return new Money(value.unscaledValue().longValue(), scale, null);
+        }
+        return new Money(0, 0, value);
+    }
+
+    public static Money of(String value) {
+        return of(new BigDecimal(value));
+    }
+
+    public boolean isCompact() {
+        return decimal == null;
+    }
+
+    // Only meaningful when compact.
+    long unscaled() {
+        return unscaled;
+    }
+
+    int scale() {
+        return decimal == null ? scale : decimal.scale();
+    }
+
+    public int signum() {
+        return decimal == null ? Long.signum(unscaled) : decimal.signum();
+    }
+
+    public Money negate() {
+        if (decimal == null && unscaled != Long.MIN_VALUE) {
+            return new Money(-unscaled, scale, null);
+        }
+        return of(toBigDecimal().negate());
+    }
+
+    // Same scale as BigDecimal.multiply(new BigDecimal(quantity)): the price's own.
+    public Money times(int quantity) {
+        if (decimal == null) {
+            long product = unscaled * quantity;
+            if (Math.multiplyHigh(unscaled, quantity) == product >> 63) {
+                return new Money(product, scale, null);
+            }
+        }
+        return of(toBigDecimal().multiply(BigDecimal.valueOf(quantity)));
+    }
+
+    public Money plus(Money other) {
+        if (decimal == null && other.decimal == null) {
+            int resultScale = Math.max(scale, other.scale);
+            long left = rescaled(unscaled, scale, resultScale);
+            long right = rescaled(other.unscaled, other.scale, resultScale);
+            if (left != Long.MIN_VALUE && right != Long.MIN_VALUE) {
+                long sum = left + right;
+                if (((left ^ sum) & (right ^ sum)) >= 0) {
+                    return new Money(sum, resultScale, null);
+                }
+            }
+        }
+        return of(toBigDecimal().add(other.toBigDecimal()));
+    }
+
+    public Money min(Money other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    public Money max(Money other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    // Whole cents, rounded as asked; RoundingMode.UNNECESSARY throws when the amount has fractions of a cent.
+    public long toCents(RoundingMode rounding) {
+        if (decimal == null) {
+            long cents = rescaled(unscaled, scale, MAX_COMPACT_SCALE);
+            if (cents != Long.MIN_VALUE) {
+                return cents;
+            }
+        }
+        return toBigDecimal().movePointRight(MAX_COMPACT_SCALE).setScale(0, rounding).longValueExact();
+    }
+
+    public BigDecimal toBigDecimal() {
+        return decimal == null ? BigDecimal.valueOf(unscaled, scale) : decimal;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (decimal == null && other.decimal == null) {
+            int commonScale = Math.max(scale, other.scale);
+            long left = rescaled(unscaled, scale, commonScale);
+            long right = rescaled(other.unscaled, other.scale, commonScale);
+            if (left != Long.MIN_VALUE && right != Long.MIN_VALUE) {
+                return Long.compare(left, right);
+            }
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Money money)) {
+            return false;
+        }
+        // Compact whenever it can be, so two equal amounts never differ only in representation.
+        if (decimal == null || money.decimal == null) {
+            return decimal == money.decimal && unscaled == money.unscaled && scale == money.scale;
+        }
+        return decimal.equals(money.decimal);
+    }
+
+    @Override
+    public int hashCode() {
+        return decimal == null ? 31 * Long.hashCode(unscaled) + scale : decimal.hashCode();
+    }
+
+    // Same text as BigDecimal.toString(); with at most two decimal places that is always the plain notation.
+    @Override
+    public String toString() {
+        if (decimal != null) {
+            return decimal.toString();
+        }
+        char[] text = new char[22];
+        int length = appendTo(text);
+        return new String(text, 0, length);
+    }
+
+    int appendTo(char[] text) {
+        long magnitude = Math.abs(unscaled);
+        int position = text.length;
+        int digits = 0;
+        do {
+            text[--position] = (char) ('0' + Math.abs(magnitude % 10));
+            magnitude /= 10;
+            digits++;
+            if (digits == scale) {
+                text[--position] = '.';
+            }
+        } while (magnitude != 0 || digits <= scale);
+        if (unscaled < 0) {
+            text[--position] = '-';
+        }
+        int length = text.length - position;
+        System.arraycopy(text, position, text, 0, length);
+        return length;
+    }
+
+    // Long.MIN_VALUE doubles as the overflow marker; no real amount reaches it.
+    private static long rescaled(long unscaled, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return unscaled;
+        }
+        long factor = POWERS_OF_TEN[toScale - fromScale];
+        long product = unscaled * factor;
+        return Math.multiplyHigh(unscaled, factor) == product >> 63 ? product : Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,67 @@
+package com.order.challenge.money;
+
+import org.bson.types.Decimal128;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.List;
+
+// Money is stored as Decimal128, bit-for-bit what new Decimal128(BigDecimal) produces for the same value and scale.
+// Compact amounts are encoded directly: a coefficient below 2^63 sits in the low word, the exponent is -scale.
+public final class MoneyConverters {
+
+    private static final long SIGN_BIT = 1L << 63;
+    private static final int EXPONENT_SHIFT = 49;
+    private static final int EXPONENT_BIAS = 6176;
+    private static final long EXPONENT_MASK = 0x3FFFL;
+    private static final long COEFFICIENT_HIGH_MASK = (1L << EXPONENT_SHIFT) - 1;
+    private static final long LARGE_COEFFICIENT_FORM = 3L << 61;
+
+    private MoneyConverters() {
+    }
+
+    public static List<Converter<?, ?>> all() {
+        return List.of(MoneyToDecimal128Converter.INSTANCE, Decimal128ToMoneyConverter.INSTANCE);
+    }
+
+    @WritingConverter
+    public enum MoneyToDecimal128Converter implements Converter<Money, Decimal128> {
+
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(Money source) {
+            if (!source.isCompact()) {
+                return new Decimal128(source.toBigDecimal());
+            }
+            long unscaled = source.unscaled();
+            long high = (long) (EXPONENT_BIAS - source.scale()) << EXPONENT_SHIFT;
+            if (unscaled < 0) {
+                high |= SIGN_BIT;
+            }
+            // Math.abs(Long.MIN_VALUE) stays negative, which read as unsigned is exactly 2^63.
+            return Decimal128.fromIEEE754BIDEncoding(high, Math.abs(unscaled));
+        }
+    }
+
+    @ReadingConverter
+    public enum Decimal128ToMoneyConverter implements Converter<Decimal128, Money> {
+
+        INSTANCE;
+
+        @Override
+        public Money convert(Decimal128 source) {
+            long high = source.getHigh();
+            long low = source.getLow();
+            if ((high & LARGE_COEFFICIENT_FORM) != LARGE_COEFFICIENT_FORM
+                    && (high & COEFFICIENT_HIGH_MASK) == 0 && low >= 0) {
+                int scale = (int) (EXPONENT_BIAS - ((high >>> EXPONENT_SHIFT) & EXPONENT_MASK));
+                if (scale >= 0 && scale <= Money.MAX_COMPACT_SCALE) {
+                    return Money.of((high & SIGN_BIT) != 0 ? -low : low, scale);
+                }
+            }
+            return Money.of(source.bigDecimalValue());
+        }
+    }
+}
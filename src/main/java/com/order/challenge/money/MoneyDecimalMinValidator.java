@@ -0,0 +1,29 @@
+package com.order.challenge.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+
+// Lets @DecimalMin sit on Money fields; registered with Hibernate Validator through META-INF/services.
+public class MoneyDecimalMinValidator implements ConstraintValidator<DecimalMin, Money> {
+
+    private Money minimum;
+    private boolean inclusive;
+
+    @Override
+    public void initialize(DecimalMin constraint) {
+        minimum = Money.of(new BigDecimal(constraint.value()));
+        inclusive = constraint.inclusive();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int comparison = value.compareTo(minimum);
+        return inclusive ? comparison >= 0 : comparison > 0;
+    }
+}
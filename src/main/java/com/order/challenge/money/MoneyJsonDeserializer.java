@@ -0,0 +1,67 @@
+package com.order.challenge.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Reads numbers with up to two decimal places straight from the token text; everything else goes through BigDecimal,
+// accepting the same input Jackson's BigDecimal deserializer does.
+public class MoneyJsonDeserializer extends StdScalarDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            return Money.of(parser.getLongValue(), 0);
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            Money compact = parseCompact(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            return compact != null ? compact : Money.of(parser.getDecimalValue());
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Money.of(parser.getDecimalValue());
+        }
+        BigDecimal value = context.readValue(parser, BigDecimal.class);
+        return value == null ? null : Money.of(value);
+    }
+
+    static Money parseCompact(char[] text, int offset, int length) {
+        int end = offset + length;
+        int position = offset;
+        boolean negative = position < end && text[position] == '-';
+        if (negative) {
+            position++;
+        }
+        long unscaled = 0;
+        int scale = -1;
+        int integerDigits = 0;
+        for (; position < end; position++) {
+            char c = text[position];
+            if (c == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || scale == Money.MAX_COMPACT_SCALE || integerDigits + Math.max(scale, 0) == 18) {
+                return null;
+            }
+            unscaled = unscaled * 10 + (c - '0');
+            if (scale < 0) {
+                integerDigits++;
+            } else {
+                scale++;
+            }
+        }
+        if (integerDigits == 0) {
+            return null;
+        }
+        return Money.of(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+}
@@ -0,0 +1,32 @@
+package com.order.challenge.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Writes the same number BigDecimal would, without building one on the compact path.
+public class MoneyJsonSerializer extends StdSerializer<Money> {
+
+    // The generator copies the digits out before returning, so one scratch buffer per thread is enough.
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[22]);
+
+    public MoneyJsonSerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!value.isCompact()) {
+            generator.writeNumber(value.toBigDecimal());
+            return;
+        }
+        if (value.scale() == 0) {
+            generator.writeNumber(value.unscaled());
+            return;
+        }
+        char[] text = SCRATCH.get();
+        generator.writeNumber(text, 0, value.appendTo(text));
+    }
+}
@@ -0,0 +1,113 @@
+package com.order.challenge.observation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// POST starts a recording, GET downloads a dump of it (like heapdump), DELETE stops it.
+@Slf4j
+@Component
+@Endpoint(id = "flightrecording")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+    private final OrderFlightRecorder recorder;
+
+    @WriteOperation
+    public Map<String, Boolean> start() {
+        recorder.start();
+        return Map.of("recording", recorder.isRecording());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() {
+        Path file = recorder.dump();
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileSystemResource(file));
+    }
+
+    @DeleteOperation
+    public Map<String, Boolean> stop() {
+        recorder.stop();
+        return Map.of("recording", recorder.isRecording());
+    }
+
+    // Deletes the dump once the response has been written, the same way the heapdump endpoint does, so repeated
+    // downloads do not pile up on disk.
+    static final class TemporaryFileSystemResource extends FileSystemResource {
+
+        TemporaryFileSystemResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            ReadableByteChannel channel = super.readableChannel();
+            return new ReadableByteChannel() {
+
+                @Override
+                public boolean isOpen() {
+                    return channel.isOpen();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    closeThenDeleteFile(channel);
+                }
+
+                @Override
+                public int read(ByteBuffer dst) throws IOException {
+                    return channel.read(dst);
+                }
+            };
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+
+                @Override
+                public void close() throws IOException {
+                    closeThenDeleteFile(in);
+                }
+            };
+        }
+
+        // Zero-copy transfer would never close a stream, so the file would never be deleted.
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+
+        private void closeThenDeleteFile(Closeable closeable) throws IOException {
+            try {
+                closeable.close();
+            } finally {
+                try {
+                    Files.deleteIfExists(getFile().toPath());
+                } catch (IOException e) {
+                    log.warn("Failed to delete flight recording dump {}. Error: {}", getPath(), e.getMessage());
+                }
+            }
+        }
+    }
+}
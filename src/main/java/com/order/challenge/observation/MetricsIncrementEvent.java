@@ -0,0 +1,14 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.order.challenge.MetricsIncrement")
+@Label("Metrics Increment")
+@Description("Orders folded into the running totals")
+class MetricsIncrementEvent extends OrderEvent {
+
+    @Label("Order Count")
+    int orderCount;
+}
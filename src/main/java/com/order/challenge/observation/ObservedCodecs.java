@@ -0,0 +1,21 @@
+package com.order.challenge.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.ResolvableType;
+
+final class ObservedCodecs {
+
+    static final String NAME = "orders.codec";
+
+    private ObservedCodecs() {
+    }
+
+    // The raw class keeps the tag bounded by the DTOs the API exposes rather than by their generic parameters.
+    static Observation start(ObservationRegistry observationRegistry, String direction, ResolvableType type) {
+        return Observation.createNotStarted(NAME, observationRegistry)
+                .lowCardinalityKeyValue("direction", direction)
+                .lowCardinalityKeyValue("type", type.toClass().getSimpleName())
+                .start();
+    }
+}
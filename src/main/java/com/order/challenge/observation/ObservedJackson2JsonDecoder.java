@@ -0,0 +1,51 @@
+package com.order.challenge.observation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.challenge.request.OrderRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+// Single-value bodies are joined before this call, so the timer covers parsing only and not the wait for the bytes.
+public class ObservedJackson2JsonDecoder extends Jackson2JsonDecoder {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedJackson2JsonDecoder(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        super(objectMapper);
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object decode(DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType,
+                         Map<String, Object> hints) throws DecodingException {
+        OrderDecodeEvent event = new OrderDecodeEvent();
+        event.begin();
+        Observation observation = ObservedCodecs.start(observationRegistry, "decode", targetType);
+        Object value = null;
+        boolean failed = true;
+        try {
+            value = super.decode(dataBuffer, targetType, mimeType, hints);
+            failed = false;
+            return value;
+        } catch (RuntimeException exception) {
+            observation.error(exception);
+            throw exception;
+        } finally {
+            observation.stop();
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = targetType.toClass().getSimpleName();
+                event.orderId = value instanceof OrderRequest request ? OrderEvents.idOf(request.getOrderId()) : null;
+                event.outcome = failed ? OrderEvents.ERROR : OrderEvents.SUCCESS;
+                event.commit();
+            }
+        }
+    }
+}
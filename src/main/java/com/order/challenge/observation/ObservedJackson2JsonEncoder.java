@@ -0,0 +1,36 @@
+package com.order.challenge.observation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+public class ObservedJackson2JsonEncoder extends Jackson2JsonEncoder {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedJackson2JsonEncoder(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        super(objectMapper);
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        Observation observation = ObservedCodecs.start(observationRegistry, "encode", valueType);
+        try {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        } catch (RuntimeException exception) {
+            observation.error(exception);
+            throw exception;
+        } finally {
+            observation.stop();
+        }
+    }
+}
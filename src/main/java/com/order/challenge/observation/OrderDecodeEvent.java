@@ -0,0 +1,14 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.order.challenge.Decode")
+@Label("Order Decode")
+@Description("An order request body parsed from JSON")
+class OrderDecodeEvent extends OrderEvent {
+
+    @Label("Type")
+    String type;
+}
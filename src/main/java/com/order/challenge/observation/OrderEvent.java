@@ -0,0 +1,18 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+// Stack traces would cost more than the operations they describe; the orderId is what ties events together.
+@Category("Orders")
+@StackTrace(false)
+public abstract class OrderEvent extends Event {
+
+    @Label("Order ID")
+    String orderId;
+
+    @Label("Outcome")
+    String outcome;
+}
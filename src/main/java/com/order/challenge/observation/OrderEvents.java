@@ -0,0 +1,85 @@
+package com.order.challenge.observation;
+
+import com.order.challenge.entities.OrderEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Each entry point first asks a throwaway event whether it is enabled. That probe never escapes, so with no
+// recording running the JIT drops it and the caller's Mono is returned untouched.
+public final class OrderEvents {
+
+    static final String SUCCESS = "success";
+    static final String EMPTY = "empty";
+    static final String ERROR = "error";
+    static final String CANCELLED = "cancelled";
+    static final String FILTERED = "filtered";
+    static final String MISSING = "missing";
+
+    private OrderEvents() {
+    }
+
+    public static <T> Mono<T> persist(UUID orderId, int orderCount, Mono<T> work) {
+        if (!new OrderPersistEvent().isEnabled()) {
+            return work;
+        }
+        return timed(() -> {
+            OrderPersistEvent event = new OrderPersistEvent();
+            event.orderCount = orderCount;
+            return event;
+        }, orderId, work);
+    }
+
+    // A batch has no single order to name, so only a one-order increment carries its orderId.
+    public static <T> Mono<T> metricsIncrement(Collection<OrderEntity> orders, Mono<T> work) {
+        if (!new MetricsIncrementEvent().isEnabled()) {
+            return work;
+        }
+        UUID orderId = orders.size() == 1 ? orders.iterator().next().getOrderId() : null;
+        return timed(() -> {
+            MetricsIncrementEvent event = new MetricsIncrementEvent();
+            event.orderCount = orders.size();
+            return event;
+        }, orderId, work);
+    }
+
+    public static <T> Mono<T> lookup(UUID orderId, Mono<T> work) {
+        if (!new OrderLookupEvent().isEnabled()) {
+            return work;
+        }
+        return timed(OrderLookupEvent::new, orderId, work);
+    }
+
+    // filtered: the existence filter ruled the ID out; missing: the store had no such order.
+    public static void notFound(UUID orderId, boolean filtered) {
+        OrderNotFoundEvent event = new OrderNotFoundEvent();
+        if (event.shouldCommit()) {
+            event.orderId = idOf(orderId);
+            event.outcome = filtered ? FILTERED : MISSING;
+            event.commit();
+        }
+    }
+
+    static String idOf(UUID orderId) {
+        return orderId == null ? null : orderId.toString();
+    }
+
+    private static <T> Mono<T> timed(Supplier<OrderEvent> factory, UUID orderId, Mono<T> work) {
+        return Mono.defer(() -> {
+            OrderEvent event = factory.get();
+            event.orderId = idOf(orderId);
+            event.begin();
+            return work
+                    .doOnSuccess(value -> event.outcome = value == null ? EMPTY : SUCCESS)
+                    .doOnError(error -> event.outcome = ERROR)
+                    .doFinally(signal -> {
+                        if (event.outcome == null) {
+                            event.outcome = CANCELLED;
+                        }
+                        event.commit();
+                    });
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.order.challenge.observation;
+
+import com.order.challenge.config.FlightRecorderProperties;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+// Owns at most one rolling recording. The order events are enabled by default, so any JDK settings file captures them.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderFlightRecorder {
+
+    private final FlightRecorderProperties properties;
+
+    private Recording recording;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (properties.isStartOnStartup()) {
+            start();
+        }
+    }
+
+    public synchronized boolean start() {
+        if (recording != null) {
+            return false;
+        }
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown flight recorder settings '" + properties.getSettings() + "'.", e);
+        }
+        started.setName("orders");
+        started.setToDisk(true);
+        started.setMaxAge(properties.getMaxAge());
+        started.setMaxSize(properties.getMaxSize().toBytes());
+        started.start();
+        recording = started;
+        log.info("Flight recording started with '{}' settings.", properties.getSettings());
+        return true;
+    }
+
+    // Copies what the rolling buffer holds right now into a uniquely named file the caller must delete; the
+    // recording keeps running.
+    public synchronized Path dump() {
+        if (recording == null) {
+            return null;
+        }
+        Path file = null;
+        try {
+            Files.createDirectories(properties.getDumpDirectory());
+            file = Files.createTempFile(properties.getDumpDirectory(), "orders-", ".jfr").toAbsolutePath();
+            recording.dump(file);
+            log.info("Flight recording dumped to {}.", file);
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Failed to dump flight recording to " + properties.getDumpDirectory(), e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized boolean stop() {
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        recording = null;
+        return true;
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete flight recording dump {}. Error: {}", file, e.getMessage());
+        }
+    }
+}
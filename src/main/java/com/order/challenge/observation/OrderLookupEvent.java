@@ -0,0 +1,11 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.order.challenge.Lookup")
+@Label("Order Lookup")
+@Description("An order read from the store by ID")
+class OrderLookupEvent extends OrderEvent {
+}
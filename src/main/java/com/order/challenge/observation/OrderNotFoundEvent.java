@@ -0,0 +1,11 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.order.challenge.NotFound")
+@Label("Order Not Found")
+@Description("An order ID that matched no order")
+class OrderNotFoundEvent extends OrderEvent {
+}
@@ -0,0 +1,14 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.order.challenge.Persist")
+@Label("Order Persist")
+@Description("One or more orders written to the store")
+class OrderPersistEvent extends OrderEvent {
+
+    @Label("Order Count")
+    int orderCount;
+}
@@ -0,0 +1,54 @@
+package com.order.challenge.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+// Each stage becomes an orders.stage timer tagged by operation and stage only, so the series count stays fixed.
+@Component
+@RequiredArgsConstructor
+public class OrderStageObserver {
+
+    public static final String NAME = "orders.stage";
+
+    private final ObservationRegistry observationRegistry;
+
+    public <T> T observe(String operation, String stage, Supplier<T> work) {
+        Observation observation = start(operation, stage);
+        try {
+            return work.get();
+        } catch (RuntimeException exception) {
+            observation.error(exception);
+            throw exception;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    public void observe(String operation, String stage, Runnable work) {
+        observe(operation, stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> Mono<T> observe(String operation, String stage, Mono<T> work) {
+        return Mono.defer(() -> {
+            Observation observation = start(operation, stage);
+            return work
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+
+    private Observation start(String operation, String stage) {
+        return Observation.createNotStarted(NAME, observationRegistry)
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("stage", stage)
+                .start();
+    }
+}
@@ -0,0 +1,49 @@
+package com.order.challenge.observation;
+
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Adds the read preference the driver sent and the role of the member that answered to the default command tags.
+public class ReadPreferenceCommandTagsProvider extends DefaultMongoCommandTagsProvider {
+
+    // Commands whose completion never arrives would otherwise pin their entry forever.
+    private static final int MAX_IN_FLIGHT = 1000;
+
+    private final ConcurrentMap<Integer, String> inFlightReadPreferences = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        super.commandStarted(event);
+        if (inFlightReadPreferences.size() < MAX_IN_FLIGHT) {
+            inFlightReadPreferences.put(event.getRequestId(), readPreferenceOf(event.getCommand()));
+        }
+    }
+
+    @Override
+    public Iterable<Tag> commandTags(CommandEvent event) {
+        String readPreference = inFlightReadPreferences.remove(event.getRequestId());
+        ConnectionDescription connection = event.getConnectionDescription();
+        return Tags.of(super.commandTags(event))
+                .and("read.preference", readPreference == null ? "unknown" : readPreference)
+                .and("server.type", connection.getServerType().name());
+    }
+
+    // The driver only attaches $readPreference when it differs from primary.
+    static String readPreferenceOf(BsonDocument command) {
+        BsonValue readPreference = command.get("$readPreference");
+        if (readPreference == null || !readPreference.isDocument()) {
+            return "primary";
+        }
+        BsonValue mode = readPreference.asDocument().get("mode");
+        return mode != null && mode.isString() ? mode.asString().getValue() : "primary";
+    }
+}
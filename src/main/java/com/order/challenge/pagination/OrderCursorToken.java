@@ -0,0 +1,42 @@
+package com.order.challenge.pagination;
+
+import com.order.challenge.exception.InvalidOrderQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public final class OrderCursorToken {
+
+    private static final char SEPARATOR = '|';
+
+    private OrderCursorToken() {
+    }
+
+    public record Position(LocalDateTime createdAt, UUID orderId) {
+    }
+
+    public static String format(LocalDateTime createdAt, UUID orderId) {
+        String position = createdAt.toString() + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidOrderQueryException("Malformed continuation token");
+            }
+            return new Position(LocalDateTime.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException malformed) {
+            throw new InvalidOrderQueryException("Malformed continuation token");
+        }
+    }
+}
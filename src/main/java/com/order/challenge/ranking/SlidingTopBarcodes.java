@@ -0,0 +1,154 @@
+package com.order.challenge.ranking;
+
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import com.order.challenge.enums.TopBarcodeRanking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// A ring of per-slice sketches; a window query merges the most recent slices, so old traffic ages out slice by slice.
+class SlidingTopBarcodes {
+
+    record Ranked(String barCode, long estimate, long error, boolean guaranteed) {
+    }
+
+    private final long sliceMillis;
+    private final int capacity;
+    private final AtomicReferenceArray<Slice> ring;
+
+    SlidingTopBarcodes(long sliceMillis, int slices, int capacity) {
+        this.sliceMillis = sliceMillis;
+        this.capacity = capacity;
+        this.ring = new AtomicReferenceArray<>(slices);
+    }
+
+    long sliceMillis() {
+        return sliceMillis;
+    }
+
+    long sliceStart(long nowMillis, int windowSlices) {
+        return (nowMillis / sliceMillis - windowSlices + 1) * sliceMillis;
+    }
+
+    void record(long nowMillis, String barCode, long revenueCents, long quantity) {
+        Slice slice = sliceFor(nowMillis / sliceMillis);
+        slice.revenue.offer(barCode, revenueCents);
+        slice.quantity.offer(barCode, quantity);
+    }
+
+    List<Ranked> top(TopBarcodeRanking ranking, int limit, int windowSlices, long nowMillis) {
+        long newest = nowMillis / sliceMillis;
+        long oldest = newest - Math.min(windowSlices, ring.length()) + 1;
+
+        List<SpaceSaving.View> views = new ArrayList<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Slice slice = ring.get(i);
+            if (slice != null && slice.id >= oldest && slice.id <= newest) {
+                views.add((ranking == TopBarcodeRanking.REVENUE ? slice.revenue : slice.quantity).view());
+            }
+        }
+
+        // A slice that does not track a key may still have seen it up to its floor, so that floor counts as error.
+        long unseenBound = 0;
+        Map<String, long[]> merged = new HashMap<>();
+        for (SpaceSaving.View view : views) {
+            unseenBound += view.floor();
+            view.counters().keySet().forEach(key -> merged.computeIfAbsent(key, unused -> new long[2]));
+        }
+        for (Map.Entry<String, long[]> entry : merged.entrySet()) {
+            long[] estimateAndError = entry.getValue();
+            for (SpaceSaving.View view : views) {
+                SpaceSaving.Counter counter = view.counters().get(entry.getKey());
+                estimateAndError[0] += counter == null ? view.floor() : counter.count();
+                estimateAndError[1] += counter == null ? view.floor() : counter.error();
+            }
+        }
+
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(merged.entrySet());
+        sorted.sort(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        // An entry is certainly in the top `limit` when its lower bound beats every estimate ranked below it.
+        long cutoff = sorted.size() > limit ? Math.max(sorted.get(limit).getValue()[0], unseenBound) : unseenBound;
+        List<Ranked> top = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (Map.Entry<String, long[]> entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            long estimate = entry.getValue()[0];
+            long error = entry.getValue()[1];
+            top.add(new Ranked(entry.getKey(), estimate, error, estimate - error >= cutoff));
+        }
+        return top;
+    }
+
+    List<TopBarcodesSnapshotEntity.Slice> snapshot() {
+        List<TopBarcodesSnapshotEntity.Slice> slices = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            Slice slice = ring.get(i);
+            if (slice != null) {
+                slices.add(new TopBarcodesSnapshotEntity.Slice(slice.id,
+                        toSnapshot(slice.revenue.view()), toSnapshot(slice.quantity.view())));
+            }
+        }
+        return slices;
+    }
+
+    // Merges rather than replaces, so orders recorded before the snapshot finished loading still count.
+    void restore(List<TopBarcodesSnapshotEntity.Slice> slices, long nowMillis) {
+        long newest = nowMillis / sliceMillis;
+        long oldest = newest - ring.length() + 1;
+        for (TopBarcodesSnapshotEntity.Slice snapshot : slices) {
+            if (snapshot.getSliceId() < oldest || snapshot.getSliceId() > newest) {
+                continue;
+            }
+            Slice slice = sliceFor(snapshot.getSliceId());
+            slice.revenue.merge(fromSnapshot(snapshot.getRevenue()));
+            slice.quantity.merge(fromSnapshot(snapshot.getQuantity()));
+        }
+    }
+
+    private Slice sliceFor(long sliceId) {
+        int index = (int) Math.floorMod(sliceId, (long) ring.length());
+        while (true) {
+            Slice current = ring.get(index);
+            // A late writer whose slot has already moved on is folded into the newer slice rather than rewinding it.
+            if (current != null && current.id >= sliceId) {
+                return current;
+            }
+            Slice fresh = new Slice(sliceId, capacity);
+            if (ring.compareAndSet(index, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static List<TopBarcodesSnapshotEntity.Counter> toSnapshot(SpaceSaving.View view) {
+        return view.counters().values().stream()
+                .map(counter -> new TopBarcodesSnapshotEntity.Counter(counter.key(), counter.count(), counter.error()))
+                .toList();
+    }
+
+    private static List<SpaceSaving.Counter> fromSnapshot(List<TopBarcodesSnapshotEntity.Counter> counters) {
+        if (counters == null) {
+            return List.of();
+        }
+        return counters.stream()
+                .map(counter -> new SpaceSaving.Counter(counter.getBarCode(), counter.getCount(), counter.getError()))
+                .toList();
+    }
+
+    private static final class Slice {
+
+        private final long id;
+        private final SpaceSaving revenue;
+        private final SpaceSaving quantity;
+
+        private Slice(long id, int capacity) {
+            this.id = id;
+            this.revenue = new SpaceSaving(capacity);
+            this.quantity = new SpaceSaving(capacity);
+        }
+    }
+}
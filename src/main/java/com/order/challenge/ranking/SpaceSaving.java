@@ -0,0 +1,80 @@
+package com.order.challenge.ranking;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Weighted Space-Saving: at most `capacity` counters, each estimate overshoots the true weight by at most its error.
+class SpaceSaving {
+
+    record Counter(String key, long count, long error) {
+    }
+
+    record View(Map<String, Counter> counters, long floor) {
+    }
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong(Counter::count)
+            .thenComparing(Counter::key);
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(String key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        Counter current = counters.get(key);
+        if (current != null) {
+            byCount.remove(current);
+            put(new Counter(key, current.count() + weight, current.error()));
+        } else if (counters.size() < capacity) {
+            put(new Counter(key, weight, 0));
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key());
+            put(new Counter(key, evicted.count() + weight, evicted.count()));
+        }
+    }
+
+    // Any key not being tracked has a true weight of at most the floor.
+    synchronized View view() {
+        long floor = counters.size() < capacity ? 0 : byCount.first().count();
+        return new View(new HashMap<>(counters), floor);
+    }
+
+    // Folds another sketch into this one: a key the other side does not track may have reached its floor there,
+    // so that floor is added to both the estimate and the error, the same way window queries merge slices.
+    synchronized void merge(List<Counter> other) {
+        long floor = counters.size() < capacity ? 0 : byCount.first().count();
+        long otherFloor = other.size() < capacity ? 0 : other.stream().mapToLong(Counter::count).min().orElse(0);
+        Map<String, Counter> merged = new HashMap<>();
+        for (Counter counter : other) {
+            Counter current = counters.get(counter.key());
+            merged.put(counter.key(), current == null
+                    ? new Counter(counter.key(), counter.count() + floor, counter.error() + floor)
+                    : new Counter(counter.key(), counter.count() + current.count(), counter.error() + current.error()));
+        }
+        for (Counter current : counters.values()) {
+            merged.putIfAbsent(current.key(),
+                    new Counter(current.key(), current.count() + otherFloor, current.error() + otherFloor));
+        }
+        counters.clear();
+        byCount.clear();
+        merged.values().stream()
+                .sorted(BY_COUNT.reversed())
+                .limit(capacity)
+                .forEach(this::put);
+    }
+
+    private void put(Counter counter) {
+        counters.put(counter.key(), counter);
+        byCount.add(counter);
+    }
+}
@@ -0,0 +1,207 @@
+package com.order.challenge.ranking;
+
+import com.order.challenge.config.TopBarcodesProperties;
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import com.order.challenge.enums.TopBarcodeRanking;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.TopBarcodesSnapshotRepositoryCustom;
+import com.order.challenge.response.TopBarcodeEntry;
+import com.order.challenge.response.TopBarcodesResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class TopBarcodeTracker {
+
+    static final String SNAPSHOT_ID = "top-barcodes";
+
+    private static final int CENTS_SCALE = 2;
+
+    private final TopBarcodesProperties properties;
+    private final TopBarcodesSnapshotRepositoryCustom snapshotRepository;
+    private final Clock clock;
+    private final String snapshotId;
+    private final SlidingTopBarcodes sketch;
+    private final Mono<List<TopBarcodesSnapshotEntity>> peerSnapshots;
+    private Disposable snapshots;
+
+    @Autowired
+    public TopBarcodeTracker(TopBarcodesProperties properties, TopBarcodesSnapshotRepositoryCustom snapshotRepository) {
+        this(properties, snapshotRepository, Clock.systemDefaultZone());
+    }
+
+    TopBarcodeTracker(TopBarcodesProperties properties, TopBarcodesSnapshotRepositoryCustom snapshotRepository,
+                      Clock clock) {
+        this.properties = properties;
+        this.snapshotRepository = snapshotRepository;
+        this.clock = clock;
+        this.snapshotId = snapshotId(properties);
+        this.sketch = new SlidingTopBarcodes(properties.getSlice().toMillis(), properties.sliceCount(),
+                properties.getCapacity());
+        // Peers only rewrite their snapshot once per interval, so re-reading them more often gains nothing.
+        this.peerSnapshots = Mono.defer(this::findPeerSnapshots)
+                .cache(peers -> properties.getSnapshot().getInterval(), error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || !properties.getSnapshot().isEnabled()) {
+            return;
+        }
+        snapshots = restoreSnapshot()
+                .thenMany(Flux.interval(properties.getSnapshot().getInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> saveSnapshot().then(expireSnapshots()).onErrorResume(error -> {
+                    log.warn("Failed to persist top barcodes snapshot. Error: {}", error.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (snapshots == null) {
+            return;
+        }
+        snapshots.dispose();
+        try {
+            saveSnapshot().block(properties.getSnapshot().getShutdownTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist top barcodes snapshot on shutdown. Error: {}", e.getMessage());
+        }
+    }
+
+    public void record(String barCode, Integer quantity, Money totalValue) {
+        if (!properties.isEnabled() || barCode == null || quantity == null || totalValue == null) {
+            return;
+        }
+        long revenueCents;
+        try {
+            revenueCents = totalValue.toCents(RoundingMode.HALF_UP);
+        } catch (ArithmeticException beyondLongCents) {
+            return;
+        }
+        sketch.record(clock.millis(), barCode, revenueCents, quantity);
+    }
+
+    // Each instance only counts the orders it created, so the answer folds in every other instance's latest snapshot.
+    public Mono<TopBarcodesResponse> top(TopBarcodeRanking ranking, int limit, Duration window) {
+        if (!properties.isEnabled() || !properties.getSnapshot().isEnabled()) {
+            return Mono.fromSupplier(() -> top(sketch, ranking, limit, window));
+        }
+        return peerSnapshots
+                .onErrorResume(error -> {
+                    log.warn("Failed to read other instances' top barcodes snapshots, answering from this instance only. Error: {}", error.getMessage());
+                    return Mono.just(List.of());
+                })
+                .map(peers -> top(peers.isEmpty() ? sketch : merged(peers), ranking, limit, window));
+    }
+
+    private TopBarcodesResponse top(SlidingTopBarcodes source, TopBarcodeRanking ranking, int limit, Duration window) {
+        long now = clock.millis();
+        int windowSlices = (int) Math.min(properties.sliceCount(),
+                Math.max(1, Math.ceilDiv(window.toMillis(), source.sliceMillis())));
+        int boundedLimit = Math.max(1, Math.min(limit, properties.getCapacity()));
+
+        return TopBarcodesResponse.builder()
+                .ranking(ranking)
+                .from(toDateTime(source.sliceStart(now, windowSlices)))
+                .to(toDateTime(now))
+                .entries(source.top(ranking, boundedLimit, windowSlices, now).stream()
+                        .map(ranked -> TopBarcodeEntry.builder()
+                                .barCode(ranked.barCode())
+                                .estimate(toValue(ranking, ranked.estimate()))
+                                .maxError(toValue(ranking, ranked.error()))
+                                .guaranteed(ranked.guaranteed())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    Mono<Void> restoreSnapshot() {
+        return snapshotRepository.findSnapshot(snapshotId)
+                .filter(snapshot -> snapshot.getSliceMillis() == sketch.sliceMillis() && snapshot.getSlices() != null)
+                .doOnNext(snapshot -> {
+                    sketch.restore(snapshot.getSlices(), clock.millis());
+                    log.info("Restored top barcodes from snapshot taken at {}.", snapshot.getTakenAt());
+                })
+                .onErrorResume(error -> {
+                    log.warn("Failed to restore top barcodes snapshot, counting from live traffic only. Error: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    Mono<Void> saveSnapshot() {
+        return Mono.defer(() -> snapshotRepository.saveSnapshot(TopBarcodesSnapshotEntity.builder()
+                        .id(snapshotId)
+                        .takenAt(LocalDateTime.now(clock))
+                        .sliceMillis(sketch.sliceMillis())
+                        .slices(sketch.snapshot())
+                        .build()))
+                .then();
+    }
+
+    // Snapshots taken before the window started hold nothing the ranking can still use, which is also how the
+    // snapshots of instances that are gone for good eventually disappear.
+    Mono<Void> expireSnapshots() {
+        return Mono.defer(() -> snapshotRepository.deleteSnapshotsTakenBefore(windowStart()));
+    }
+
+    private Mono<List<TopBarcodesSnapshotEntity>> findPeerSnapshots() {
+        return snapshotRepository.findSnapshotsTakenAfter(windowStart())
+                .filter(snapshot -> !snapshotId.equals(snapshot.getId()))
+                .filter(snapshot -> snapshot.getSliceMillis() == sketch.sliceMillis() && snapshot.getSlices() != null)
+                .collectList();
+    }
+
+    private SlidingTopBarcodes merged(List<TopBarcodesSnapshotEntity> peers) {
+        long now = clock.millis();
+        SlidingTopBarcodes merged = new SlidingTopBarcodes(sketch.sliceMillis(), properties.sliceCount(),
+                properties.getCapacity());
+        merged.restore(sketch.snapshot(), now);
+        peers.forEach(peer -> merged.restore(peer.getSlices(), now));
+        return merged;
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now(clock).minus(properties.getWindow());
+    }
+
+    // Instances merge each other's snapshots, so a shared or host-derived id would overwrite or strand them.
+    static String snapshotId(TopBarcodesProperties properties) {
+        String instanceId = properties.getSnapshot().getInstanceId();
+        if (instanceId == null || instanceId.isBlank()) {
+            if (properties.isEnabled() && properties.getSnapshot().isEnabled()) {
+                throw new IllegalStateException(
+                        "orders.top-barcodes.snapshot.instance-id must be set when top barcodes snapshots are enabled");
+            }
+            return SNAPSHOT_ID;
+        }
+        return SNAPSHOT_ID + ":" + instanceId;
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+    }
+
+    private static BigDecimal toValue(TopBarcodeRanking ranking, long value) {
+        return ranking == TopBarcodeRanking.REVENUE ? BigDecimal.valueOf(value, CENTS_SCALE) : BigDecimal.valueOf(value);
+    }
+}
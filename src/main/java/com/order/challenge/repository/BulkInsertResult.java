@@ -0,0 +1,39 @@
+package com.order.challenge.repository;
+
+import com.order.challenge.entities.OrderEntity;
+import lombok.Value;
+import org.bson.BsonTimestamp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Value
+public class BulkInsertResult {
+
+    List<OrderEntity> inserted;
+
+    // Keyed by position in the submitted list, since one bulk may carry the same orderId more than once.
+    Map<Integer, String> failures;
+
+    BsonTimestamp operationTime;
+
+    // The failed positions that were rejected only because an order with that ID is already stored.
+    Set<Integer> duplicates;
+
+    public BulkInsertResult(List<OrderEntity> inserted, Map<Integer, String> failures) {
+        this(inserted, failures, null, Set.of());
+    }
+
+    public BulkInsertResult(List<OrderEntity> inserted, Map<Integer, String> failures, Set<Integer> duplicates) {
+        this(inserted, failures, null, duplicates);
+    }
+
+    public BulkInsertResult(List<OrderEntity> inserted, Map<Integer, String> failures, BsonTimestamp operationTime,
+                            Set<Integer> duplicates) {
+        this.inserted = inserted;
+        this.failures = failures;
+        this.operationTime = operationTime;
+        this.duplicates = duplicates;
+    }
+}
@@ -0,0 +1,43 @@
+package com.order.challenge.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.OrderEntity;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderAccountingRepositoryCustom {
+
+    Flux<ChangeStreamEvent<OrderEntity>> watchInserts(BsonValue resumeToken);
+
+    // Inserts from the given cluster time on, even those committed before the stream's cursor opens.
+    Flux<ChangeStreamEvent<OrderEntity>> watchInsertsFrom(BsonTimestamp operationTime);
+
+    // The primary's latest operation time; empty where there is none to read.
+    Mono<BsonTimestamp> currentOperationTime();
+
+    Flux<OrderEntity> findNotAccounted(LocalDateTime createdFrom);
+
+    Flux<OrderEntity> findNotAccounted(Collection<UUID> orderIds);
+
+    Mono<UpdateResult> markAccounted(Collection<UUID> orderIds);
+
+    // Flips the given orders from NOT_ACCOUNTED to ACCOUNTED and returns the ones this call flipped.
+    Mono<List<UUID>> claim(Collection<UUID> orderIds);
+
+    Mono<UpdateResult> release(Collection<UUID> orderIds);
+
+    // The earliest time any instance started keeping order status; returns the recorded value.
+    Mono<LocalDateTime> recordCutover(String pipelineId);
+
+    Mono<BsonValue> findResumeToken(String pipelineId);
+
+    Mono<Void> saveResumeToken(String pipelineId, BsonValue resumeToken);
+}
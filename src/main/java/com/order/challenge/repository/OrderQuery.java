@@ -0,0 +1,25 @@
+package com.order.challenge.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Value
+@Builder
+public class OrderQuery {
+
+    LocalDateTime from;
+
+    LocalDateTime to;
+
+    String barCode;
+
+    // Keyset position of the last order already delivered; the stream resumes strictly after it.
+    LocalDateTime afterCreatedAt;
+
+    UUID afterOrderId;
+
+    Integer limit;
+}
@@ -1,13 +1,28 @@
 package com.order.challenge.repository;
 
 import com.order.challenge.entities.OrderEntity;
+import org.bson.BsonTimestamp;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface OrderRepositoryCustom {
 
     Mono<OrderEntity> findByOrderId(UUID orderId);
 
-    Mono<OrderEntity> save(OrderEntity orderEntity);
-}
\ No newline at end of file
+    Mono<OrderEntity> findByOrderId(UUID orderId, BsonTimestamp afterOperationTime);
+
+    // Reads from wherever the latest acknowledged write is guaranteed to be visible.
+    Mono<OrderEntity> findByOrderIdOnPrimary(UUID orderId);
+
+    // Never overwrites: an orderId that is already stored fails with DuplicateKeyException.
+    Mono<OrderEntity> insert(OrderEntity orderEntity);
+
+    Mono<BulkInsertResult> insertAll(List<OrderEntity> orderEntities);
+
+    Flux<UUID> findAllOrderIds();
+
+    Flux<OrderEntity> findOrders(OrderQuery query);
+}
@@ -0,0 +1,18 @@
+package com.order.challenge.repository;
+
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface TopBarcodesSnapshotRepositoryCustom {
+
+    Mono<TopBarcodesSnapshotEntity> findSnapshot(String id);
+
+    Mono<TopBarcodesSnapshotEntity> saveSnapshot(TopBarcodesSnapshotEntity snapshot);
+
+    Flux<TopBarcodesSnapshotEntity> findSnapshotsTakenAfter(LocalDateTime takenAfter);
+
+    Mono<Void> deleteSnapshotsTakenBefore(LocalDateTime takenBefore);
+}
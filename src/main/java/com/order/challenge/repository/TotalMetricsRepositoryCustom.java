@@ -1,13 +1,20 @@
 package com.order.challenge.repository;
 
 import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.OrderEntity;
 import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.RollupGranularity;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 public interface TotalMetricsRepositoryCustom {
-    Mono<UpdateResult> incrementTotalValue(BigDecimal amount);
+    Mono<UpdateResult> recordOrders(Collection<OrderEntity> orders);
 
     Mono<TotalMetricsEntity> findTotalMetrics();
-}
\ No newline at end of file
+
+    Flux<MetricsRollupEntity> findRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
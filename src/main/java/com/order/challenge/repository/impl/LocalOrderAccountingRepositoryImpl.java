@@ -0,0 +1,91 @@
+package com.order.challenge.repository.impl;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@Profile(LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class LocalOrderAccountingRepositoryImpl implements OrderAccountingRepositoryCustom {
+
+    private final LocalOrderStore store;
+
+    // Only this process writes the store, and it records its own inserts, so there is no one else to listen for.
+    @Override
+    public Flux<ChangeStreamEvent<OrderEntity>> watchInserts(BsonValue resumeToken) {
+        return Flux.never();
+    }
+
+    @Override
+    public Flux<ChangeStreamEvent<OrderEntity>> watchInsertsFrom(BsonTimestamp operationTime) {
+        return Flux.never();
+    }
+
+    @Override
+    public Mono<BsonTimestamp> currentOperationTime() {
+        return Mono.empty();
+    }
+
+    @Override
+    public Flux<OrderEntity> findNotAccounted(LocalDateTime createdFrom) {
+        return Flux.defer(() -> Flux.fromIterable(store.orders(order -> order.getStatus() != OrderStatus.ACCOUNTED
+                && !order.getCreatedAt().isBefore(createdFrom))));
+    }
+
+    @Override
+    public Flux<OrderEntity> findNotAccounted(Collection<UUID> orderIds) {
+        return Flux.fromIterable(orderIds)
+                .mapNotNull(store::find)
+                .filter(order -> order.getStatus() != OrderStatus.ACCOUNTED);
+    }
+
+    @Override
+    public Mono<UpdateResult> markAccounted(Collection<UUID> orderIds) {
+        return store.onWriteScheduler(() -> UpdateResult.acknowledged(orderIds.size(), (long) store.account(orderIds), null));
+    }
+
+    // The store's own marker is the guard: recordOrders counts only orders it has not marked yet.
+    @Override
+    public Mono<List<UUID>> claim(Collection<UUID> orderIds) {
+        return Flux.fromIterable(orderIds)
+                .filter(orderId -> store.find(orderId) != null && !store.isAccounted(orderId))
+                .collectList();
+    }
+
+    @Override
+    public Mono<UpdateResult> release(Collection<UUID> orderIds) {
+        return Mono.just(UpdateResult.acknowledged(0, 0L, null));
+    }
+
+    // Every order in the store was written by this code, so there is nothing from before a cutover.
+    @Override
+    public Mono<LocalDateTime> recordCutover(String pipelineId) {
+        return Mono.just(LocalDateTime.MIN);
+    }
+
+    @Override
+    public Mono<BsonValue> findResumeToken(String pipelineId) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> saveResumeToken(String pipelineId, BsonValue resumeToken) {
+        return Mono.empty();
+    }
+}
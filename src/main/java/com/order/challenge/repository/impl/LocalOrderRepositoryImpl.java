@@ -0,0 +1,122 @@
+package com.order.challenge.repository.impl;
+
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.observation.OrderEvents;
+import com.order.challenge.repository.BulkInsertResult;
+import com.order.challenge.repository.OrderQuery;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonTimestamp;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Repository
+@Profile(LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class LocalOrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private static final Comparator<OrderEntity> KEYSET_ORDER = Comparator
+            .comparing(OrderEntity::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(OrderEntity::getOrderId);
+
+    private final LocalOrderStore store;
+
+    @Override
+    public Mono<OrderEntity> findByOrderId(UUID orderId) {
+        return OrderEvents.lookup(orderId, Mono.fromSupplier(() -> store.find(orderId)));
+    }
+
+    // A single process owns the store, so every read already sees every acknowledged write.
+    @Override
+    public Mono<OrderEntity> findByOrderId(UUID orderId, BsonTimestamp afterOperationTime) {
+        return findByOrderId(orderId);
+    }
+
+    @Override
+    public Mono<OrderEntity> findByOrderIdOnPrimary(UUID orderId) {
+        return findByOrderId(orderId);
+    }
+
+    @Override
+    public Mono<OrderEntity> insert(OrderEntity orderEntity) {
+        return OrderEvents.persist(orderEntity.getOrderId(), 1, write(() -> store.insert(orderEntity))
+                .flatMap(inserted -> inserted
+                        ? Mono.just(orderEntity)
+                        : Mono.error(new DuplicateKeyException(duplicateMessage(orderEntity)))));
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<OrderEntity> orderEntities) {
+        return OrderEvents.persist(null, orderEntities.size(), write(() -> {
+            List<OrderEntity> inserted = new ArrayList<>(orderEntities.size());
+            Map<Integer, String> failures = new HashMap<>();
+            for (int i = 0; i < orderEntities.size(); i++) {
+                OrderEntity orderEntity = orderEntities.get(i);
+                if (store.insert(orderEntity)) {
+                    inserted.add(orderEntity);
+                } else {
+                    failures.put(i, duplicateMessage(orderEntity));
+                }
+            }
+            return new BulkInsertResult(inserted, failures, failures.keySet());
+        }));
+    }
+
+    @Override
+    public Flux<UUID> findAllOrderIds() {
+        return Flux.defer(() -> Flux.fromIterable(store.orderIds()));
+    }
+
+    @Override
+    public Flux<OrderEntity> findOrders(OrderQuery query) {
+        return Flux.defer(() -> {
+            Stream<OrderEntity> matches = store.orders(order -> matches(order, query)).stream()
+                    .sorted(KEYSET_ORDER);
+            if (query.getLimit() != null) {
+                matches = matches.limit(query.getLimit());
+            }
+            return Flux.fromStream(matches);
+        });
+    }
+
+    private <T> Mono<T> write(Supplier<T> action) {
+        return store.onWriteScheduler(action);
+    }
+
+    private static String duplicateMessage(OrderEntity orderEntity) {
+        return "Duplicate key: order " + orderEntity.getOrderId() + " already exists.";
+    }
+
+    private static boolean matches(OrderEntity order, OrderQuery query) {
+        if (query.getBarCode() != null && !query.getBarCode().equals(order.getBarCode())) {
+            return false;
+        }
+        if (order.getCreatedAt() == null) {
+            return query.getFrom() == null && query.getTo() == null && query.getAfterCreatedAt() == null;
+        }
+        if (query.getFrom() != null && order.getCreatedAt().isBefore(query.getFrom())) {
+            return false;
+        }
+        if (query.getTo() != null && !order.getCreatedAt().isBefore(query.getTo())) {
+            return false;
+        }
+        if (query.getAfterCreatedAt() != null && query.getAfterOrderId() != null) {
+            int byCreatedAt = order.getCreatedAt().compareTo(query.getAfterCreatedAt());
+            return byCreatedAt > 0 || byCreatedAt == 0 && order.getOrderId().compareTo(query.getAfterOrderId()) > 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package com.order.challenge.repository.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.challenge.config.LocalStoreProperties;
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import com.order.challenge.repository.TopBarcodesSnapshotRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+
+// Snapshots are small and rewritten whole, so they sit next to the segments as JSON, replaced by an atomic rename.
+@Repository
+@Profile(LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class LocalTopBarcodesSnapshotRepositoryImpl implements TopBarcodesSnapshotRepositoryCustom {
+
+    private final LocalStoreProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<TopBarcodesSnapshotEntity> findSnapshot(String id) {
+        return Mono.fromCallable(() -> {
+                    Path file = fileOf(id);
+                    return Files.exists(file) ? objectMapper.readValue(file.toFile(), TopBarcodesSnapshotEntity.class) : null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<TopBarcodesSnapshotEntity> saveSnapshot(TopBarcodesSnapshotEntity snapshot) {
+        return Mono.fromCallable(() -> {
+                    Path file = fileOf(snapshot.getId());
+                    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+                    Files.createDirectories(file.getParent());
+                    objectMapper.writeValue(temporary.toFile(), snapshot);
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return snapshot;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // One process owns the directory, so there is never another instance's snapshot to merge or expire.
+    @Override
+    public Flux<TopBarcodesSnapshotEntity> findSnapshotsTakenAfter(LocalDateTime takenAfter) {
+        return Flux.empty();
+    }
+
+    @Override
+    public Mono<Void> deleteSnapshotsTakenBefore(LocalDateTime takenBefore) {
+        return Mono.empty();
+    }
+
+    private Path fileOf(String id) {
+        return properties.getDirectory().resolve(id + ".json");
+    }
+}
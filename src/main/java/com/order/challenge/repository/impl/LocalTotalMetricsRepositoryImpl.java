@@ -0,0 +1,58 @@
+package com.order.challenge.repository.impl;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.observation.OrderEvents;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// The store folds accounted orders into its totals as it appends their markers, and rebuilds them on replay.
+@Repository
+@Profile(LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class LocalTotalMetricsRepositoryImpl implements TotalMetricsRepositoryCustom {
+
+    private final LocalOrderStore store;
+
+    @Override
+    public Mono<UpdateResult> recordOrders(Collection<OrderEntity> orders) {
+        return OrderEvents.metricsIncrement(orders, store.onWriteScheduler(() -> {
+            int accounted = store.account(orders.stream().map(OrderEntity::getOrderId).toList());
+            return UpdateResult.acknowledged(orders.size(), (long) accounted, null);
+        }));
+    }
+
+    @Override
+    public Mono<TotalMetricsEntity> findTotalMetrics() {
+        return Mono.fromSupplier(store::total)
+                .filter(stats -> !stats.isEmpty())
+                .map(stats -> TotalMetricsEntity.builder()
+                        .id(TotalMetricsRepositoryImpl.GLOBAL_ID)
+                        .totalValue(stats.sum().toBigDecimal())
+                        .orderCount(stats.count())
+                        .minValue(TotalMetricsRepositoryImpl.decimalOrNull(stats.min()))
+                        .maxValue(TotalMetricsRepositoryImpl.decimalOrNull(stats.max()))
+                        .build());
+    }
+
+    @Override
+    public Flux<MetricsRollupEntity> findRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return Flux.defer(() -> {
+            MetricsDelta delta = new MetricsDelta();
+            store.minutes(granularity.truncate(from), granularity.next(granularity.truncate(to)))
+                    .forEach(delta::addMinute);
+            return Flux.fromIterable(delta.buckets(granularity).entrySet());
+        }).map(bucket -> TotalMetricsRepositoryImpl.toEntity(granularity, bucket.getKey(), bucket.getValue()));
+    }
+}
@@ -0,0 +1,188 @@
+package com.order.challenge.repository.impl;
+
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.money.Money;
+
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+class MetricsAccumulator {
+
+    // Orders older than this are written directly; idle buckets are only dropped well past it, so a late add never
+    // lands in a bucket that has already been discarded.
+    private static final Duration ACCEPT_WINDOW = Duration.ofHours(1);
+    private static final Duration RETAIN_WINDOW = ACCEPT_WINDOW.multipliedBy(2);
+
+    private final Clock clock;
+    private final CentsStats total = new CentsStats();
+    private final ConcurrentMap<LocalDateTime, CentsStats> minutes = new ConcurrentHashMap<>();
+    private final LongAdder pendingOrders = new LongAdder();
+    private final Set<MetricsDelta> inFlight = ConcurrentHashMap.newKeySet();
+    // Deltas already in the counter whose rollups still have to be written, in the order they must be written.
+    private final Queue<MetricsDelta> rollupsPending = new ConcurrentLinkedQueue<>();
+    private long rollupSequence;
+
+    MetricsAccumulator() {
+        this(Clock.systemDefaultZone());
+    }
+
+    MetricsAccumulator(Clock clock) {
+        this.clock = clock;
+    }
+
+    boolean add(OrderEntity order) {
+        LocalDateTime createdAt = order.getCreatedAt();
+        if (createdAt == null || createdAt.isBefore(LocalDateTime.now(clock).minus(ACCEPT_WINDOW))) {
+            return false;
+        }
+        long cents;
+        try {
+            cents = order.getTotalValue().toCents(RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException notRepresentableInCents) {
+            return false;
+        }
+        total.add(cents);
+        minutes.computeIfAbsent(RollupGranularity.MINUTE.truncate(createdAt), minute -> new CentsStats()).add(cents);
+        pendingOrders.increment();
+        return true;
+    }
+
+    // Orders already in the counter; only their minutes are held, for the next flush to write as rollups.
+    void addRollups(MetricsDelta delta) {
+        delta.minutes().forEach((minute, stats) ->
+                minutes.computeIfAbsent(minute, key -> new CentsStats()).restore(stats));
+    }
+
+    long pendingOrders() {
+        return pendingOrders.sum();
+    }
+
+    MetricsDelta drain() {
+        pendingOrders.reset();
+        MetricsDelta delta = new MetricsDelta();
+        delta.addTotal(total.drain());
+
+        LocalDateTime retainFrom = LocalDateTime.now(clock).minus(RETAIN_WINDOW);
+        Iterator<Map.Entry<LocalDateTime, CentsStats>> buckets = minutes.entrySet().iterator();
+        while (buckets.hasNext()) {
+            Map.Entry<LocalDateTime, CentsStats> bucket = buckets.next();
+            MetricsStats stats = bucket.getValue().drain();
+            if (!stats.isEmpty()) {
+                delta.addMinute(bucket.getKey(), stats);
+            } else if (bucket.getKey().isBefore(retainFrom)) {
+                buckets.remove();
+            }
+        }
+        inFlight.add(delta);
+        return delta;
+    }
+
+    synchronized void counted(MetricsDelta delta) {
+        if (!delta.minutes().isEmpty()) {
+            delta.sequence(++rollupSequence);
+            rollupsPending.add(delta);
+        }
+        inFlight.remove(delta);
+    }
+
+    void rollupsWritten(MetricsDelta delta) {
+        rollupsPending.remove(delta);
+    }
+
+    List<MetricsDelta> rollupsPending() {
+        return List.copyOf(rollupsPending);
+    }
+
+    int rollupsPendingCount() {
+        return rollupsPending.size();
+    }
+
+    void restore(MetricsDelta delta) {
+        total.restore(delta.total());
+        delta.minutes().forEach((minute, stats) ->
+                minutes.computeIfAbsent(minute, key -> new CentsStats()).restore(stats));
+        inFlight.remove(delta);
+    }
+
+    MetricsStats unflushedTotal() {
+        MetricsStats unflushed = total.snapshot();
+        for (MetricsDelta delta : inFlight) {
+            unflushed = unflushed.merge(delta.total());
+        }
+        return unflushed;
+    }
+
+    MetricsDelta unflushedBuckets() {
+        MetricsDelta unflushed = new MetricsDelta();
+        minutes.forEach((minute, stats) -> {
+            MetricsStats snapshot = stats.snapshot();
+            if (!snapshot.isEmpty()) {
+                unflushed.addMinute(minute, snapshot);
+            }
+        });
+        inFlight.forEach(delta -> delta.minutes().forEach(unflushed::addMinute));
+        rollupsPending.forEach(delta -> delta.minutes().forEach(unflushed::addMinute));
+        return unflushed;
+    }
+
+    private static Money toAmount(long cents) {
+        return Money.ofCents(cents);
+    }
+
+    private static long toCents(Money amount) {
+        return amount.toCents(RoundingMode.UNNECESSARY);
+    }
+
+    private static final class CentsStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void add(long cents) {
+            count.increment();
+            sum.add(cents);
+            min.accumulate(cents);
+            max.accumulate(cents);
+        }
+
+        void restore(MetricsStats stats) {
+            count.add(stats.count());
+            sum.add(toCents(stats.sum()));
+            if (stats.min() != null) {
+                min.accumulate(toCents(stats.min()));
+            }
+            if (stats.max() != null) {
+                max.accumulate(toCents(stats.max()));
+            }
+        }
+
+        MetricsStats drain() {
+            return toStats(count.sumThenReset(), sum.sumThenReset(), min.getThenReset(), max.getThenReset());
+        }
+
+        MetricsStats snapshot() {
+            return toStats(count.sum(), sum.sum(), min.get(), max.get());
+        }
+
+        private static MetricsStats toStats(long count, long sumCents, long minCents, long maxCents) {
+            return new MetricsStats(count, toAmount(sumCents),
+                    minCents == Long.MAX_VALUE ? null : toAmount(minCents),
+                    maxCents == Long.MIN_VALUE ? null : toAmount(maxCents));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.order.challenge.repository.impl;
+
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Changes to the global counter plus the minute buckets they fall into; hour buckets are derived from the minutes.
+final class MetricsDelta {
+
+    // Position among this writer's rollup writes; a bucket that has taken it, or a later one, skips it on a retry.
+    private long sequence;
+    private MetricsStats total = MetricsStats.EMPTY;
+    private final Map<LocalDateTime, MetricsStats> minutes = new TreeMap<>();
+
+    static MetricsDelta of(Collection<OrderEntity> orders) {
+        MetricsDelta delta = new MetricsDelta();
+        orders.forEach(order -> delta.add(order.getCreatedAt(), order.getTotalValue()));
+        return delta;
+    }
+
+    void add(LocalDateTime createdAt, Money value) {
+        MetricsStats stats = MetricsStats.of(value);
+        total = total.merge(stats);
+        if (createdAt != null) {
+            minutes.merge(RollupGranularity.MINUTE.truncate(createdAt), stats, MetricsStats::merge);
+        }
+    }
+
+    void addTotal(MetricsStats stats) {
+        total = total.merge(stats);
+    }
+
+    void addMinute(LocalDateTime minute, MetricsStats stats) {
+        minutes.merge(minute, stats, MetricsStats::merge);
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    void sequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    boolean isSequenced() {
+        return sequence > 0;
+    }
+
+    MetricsStats total() {
+        return total;
+    }
+
+    Map<LocalDateTime, MetricsStats> minutes() {
+        return minutes;
+    }
+
+    Map<LocalDateTime, MetricsStats> buckets(RollupGranularity granularity) {
+        if (granularity == RollupGranularity.MINUTE) {
+            return minutes;
+        }
+        Map<LocalDateTime, MetricsStats> buckets = new TreeMap<>();
+        minutes.forEach((minute, stats) -> buckets.merge(granularity.truncate(minute), stats, MetricsStats::merge));
+        return buckets;
+    }
+
+    boolean isEmpty() {
+        return total.isEmpty() && minutes.isEmpty();
+    }
+}
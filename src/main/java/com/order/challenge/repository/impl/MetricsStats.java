@@ -0,0 +1,39 @@
+package com.order.challenge.repository.impl;
+
+import com.order.challenge.money.Money;
+
+public record MetricsStats(long count, Money sum, Money min, Money max) {
+
+    public static final MetricsStats EMPTY = new MetricsStats(0, Money.ZERO, null, null);
+
+    public static MetricsStats of(Money value) {
+        return new MetricsStats(1, value, value, value);
+    }
+
+    // Takes a value back out of count and sum; min and max cannot be retracted and keep their extremes.
+    public static MetricsStats removalOf(Money value) {
+        return new MetricsStats(-1, value.negate(), null, null);
+    }
+
+    public MetricsStats merge(MetricsStats other) {
+        return new MetricsStats(count + other.count, sum.plus(other.sum), min(min, other.min), max(max, other.max));
+    }
+
+    public boolean isEmpty() {
+        return count == 0 && sum.signum() == 0 && min == null && max == null;
+    }
+
+    private static Money min(Money left, Money right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        return left.min(right);
+    }
+
+    private static Money max(Money left, Money right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        return left.max(right);
+    }
+}
@@ -0,0 +1,167 @@
+package com.order.challenge.repository.impl;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.AccountingCheckpointEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@Profile("!" + LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class OrderAccountingRepositoryImpl implements OrderAccountingRepositoryCustom {
+
+    private static final Update ACCOUNTED = Update.update("status", OrderStatus.ACCOUNTED);
+    private static final int WRITE_CONFLICT = 112;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Flux<ChangeStreamEvent<OrderEntity>> watchInserts(BsonValue resumeToken) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = insertsOnly();
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        return mongoTemplate.changeStream(mongoTemplate.getCollectionName(OrderEntity.class), options.build(), OrderEntity.class);
+    }
+
+    @Override
+    public Flux<ChangeStreamEvent<OrderEntity>> watchInsertsFrom(BsonTimestamp operationTime) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = insertsOnly();
+        if (operationTime != null) {
+            options.resumeAt(operationTime);
+        }
+        return mongoTemplate.changeStream(mongoTemplate.getCollectionName(OrderEntity.class), options.build(), OrderEntity.class);
+    }
+
+    // Every reply from a replica set member carries the optime it had applied when it answered.
+    @Override
+    public Mono<BsonTimestamp> currentOperationTime() {
+        return mongoTemplate.executeCommand(new Document("ping", 1))
+                .mapNotNull(reply -> reply.get("operationTime", BsonTimestamp.class));
+    }
+
+    // Served by the partial status index, which only holds NOT_ACCOUNTED orders.
+    @Override
+    public Flux<OrderEntity> findNotAccounted(LocalDateTime createdFrom) {
+        Query query = new Query(Criteria.where("status").is(OrderStatus.NOT_ACCOUNTED)
+                .and("createdAt").gte(createdFrom));
+        return mongoTemplate.find(query, OrderEntity.class);
+    }
+
+    @Override
+    public Flux<OrderEntity> findNotAccounted(Collection<UUID> orderIds) {
+        return mongoTemplate.find(notAccounted(orderIds), OrderEntity.class);
+    }
+
+    @Override
+    public Mono<UpdateResult> markAccounted(Collection<UUID> orderIds) {
+        return mongoTemplate.updateMulti(notAccounted(orderIds), ACCOUNTED, OrderEntity.class);
+    }
+
+    @Override
+    public Mono<List<UUID>> claim(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        if (orderIds.size() == 1) {
+            return mongoTemplate.updateFirst(notAccounted(orderIds), ACCOUNTED, OrderEntity.class)
+                    .map(result -> result.getModifiedCount() == 1 ? List.copyOf(orderIds) : List.of());
+        }
+
+        // An update does not say which documents it changed, so the pending ones are read and flipped in one
+        // transaction; a concurrent claim on any of them aborts it with a write conflict, and only that is retried.
+        Query pending = notAccounted(orderIds);
+        pending.fields().include("orderId");
+        Mono<List<UUID>> claim = mongoTemplate.find(pending, OrderEntity.class)
+                .map(OrderEntity::getOrderId)
+                .collectList()
+                .flatMap(pendingIds -> pendingIds.isEmpty()
+                        ? Mono.just(pendingIds)
+                        : mongoTemplate.updateMulti(notAccounted(pendingIds), ACCOUNTED, OrderEntity.class)
+                                .thenReturn(pendingIds));
+        return transactionalOperator.transactional(claim)
+                .retryWhen(Retry.backoff(5, Duration.ofMillis(50)).filter(OrderAccountingRepositoryImpl::isTransient));
+    }
+
+    @Override
+    public Mono<UpdateResult> release(Collection<UUID> orderIds) {
+        Query claimed = new Query(Criteria.where("orderId").in(orderIds)
+                .and("status").is(OrderStatus.ACCOUNTED));
+        return mongoTemplate.updateMulti(claimed, Update.update("status", OrderStatus.NOT_ACCOUNTED), OrderEntity.class);
+    }
+
+    // $min keeps the first instance's time, and sets it on a checkpoint written before the cutover was tracked.
+    @Override
+    public Mono<LocalDateTime> recordCutover(String pipelineId) {
+        Query query = new Query(Criteria.where("_id").is(pipelineId));
+        Update update = new Update().min("cutoverAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        AccountingCheckpointEntity.class)
+                .mapNotNull(AccountingCheckpointEntity::getCutoverAt);
+    }
+
+    @Override
+    public Mono<BsonValue> findResumeToken(String pipelineId) {
+        return mongoTemplate.findById(pipelineId, AccountingCheckpointEntity.class)
+                .mapNotNull(AccountingCheckpointEntity::getResumeToken)
+                .map(Document::toBsonDocument);
+    }
+
+    @Override
+    public Mono<Void> saveResumeToken(String pipelineId, BsonValue resumeToken) {
+        Query query = new Query(Criteria.where("_id").is(pipelineId));
+        Update update = new Update()
+                .set("resumeToken", Document.parse(resumeToken.asDocument().toJson()))
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.upsert(query, update, AccountingCheckpointEntity.class).then();
+    }
+
+    private static ChangeStreamOptions.ChangeStreamOptionsBuilder insertsOnly() {
+        return ChangeStreamOptions.builder()
+                .filter(Aggregation.newAggregation(Aggregation.match(Criteria.where("operationType").is("insert"))));
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && (mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)
+                    || mongoException.getCode() == WRITE_CONFLICT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Query notAccounted(Collection<UUID> orderIds) {
+        return new Query(Criteria.where("orderId").in(orderIds)
+                .and("status").is(OrderStatus.NOT_ACCOUNTED));
+    }
+}
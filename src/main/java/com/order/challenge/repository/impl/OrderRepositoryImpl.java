@@ -1,30 +1,256 @@
 package com.order.challenge.repository.impl;
 
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoServerException;
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.order.challenge.bulkhead.MongoBulkhead;
+import com.order.challenge.bulkhead.MongoBulkheads;
+import com.order.challenge.config.ConsistencyProperties;
+import com.order.challenge.config.QueryProperties;
+import com.order.challenge.consistency.OperationTimeHolder;
 import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.hedge.HedgedReads;
+import com.order.challenge.observation.OrderEvents;
+import com.order.challenge.repository.BulkInsertResult;
+import com.order.challenge.repository.OrderQuery;
 import com.order.challenge.repository.OrderRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
 
+@Slf4j
 @Repository
+@Profile("!" + LocalOrderStore.PROFILE)
 @RequiredArgsConstructor
 public class OrderRepositoryImpl implements OrderRepositoryCustom {
 
-    private final ReactiveMongoTemplate mongoTemplate;
+    private static final int ID_SCAN_BATCH_SIZE = 10_000;
+
+    private static final ClientSessionOptions CAUSAL_SESSION = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+
+    private final MongoBulkheads mongoBulkheads;
+    private final ConsistencyProperties consistencyProperties;
+    private final QueryProperties queryProperties;
+    private final HedgedReads hedgedReads;
 
     @Override
     public Mono<OrderEntity> findByOrderId(UUID orderId) {
-        Query query = new Query(Criteria.where("orderId").is(orderId));
-        return mongoTemplate.findOne(query, OrderEntity.class);
+        MongoBulkhead read = mongoBulkheads.read();
+        Mono<OrderEntity> lookup = hedgedReads.hedge(
+                read.template().findOne(byOrderId(orderId), OrderEntity.class),
+                () -> read.template().findOne(byOrderId(orderId).withReadPreference(hedgedReads.readPreference()),
+                        OrderEntity.class));
+        return OrderEvents.lookup(orderId, read.isolate(lookup));
+    }
+
+    @Override
+    public Mono<OrderEntity> findByOrderId(UUID orderId, BsonTimestamp afterOperationTime) {
+        if (afterOperationTime == null || !consistencyProperties.isReadYourWrites()) {
+            return findByOrderId(orderId);
+        }
+
+        // The secondary waits until it has applied the caller's write. If it cannot catch up in time, or rejects the
+        // token outright (the token carries no signed cluster time, so a member that has not heard of that time yet
+        // may refuse it), the primary answers instead.
+        MongoBulkhead read = mongoBulkheads.read();
+        Query query = byOrderId(orderId).maxTime(consistencyProperties.getCatchUpTimeout());
+        return OrderEvents.lookup(orderId, read.isolate(inCausalSession(read, (session, operations) -> {
+                    session.advanceOperationTime(afterOperationTime);
+                    return operations.findOne(query, OrderEntity.class);
+                })
+                .map(Result::value)
+                .onErrorResume(OrderRepositoryImpl::isCausalReadRejected, error -> {
+                    log.debug("Secondary did not serve operation time {} for order {}, reading from primary. Error: {}",
+                            afterOperationTime, orderId, error.getMessage());
+                    return read.template().findOne(byOrderId(orderId).withReadPreference(ReadPreference.primary()),
+                            OrderEntity.class);
+                })));
+    }
+
+    // Replays belong to a write, so they stay on the write pool and never take a connection from GETs.
+    @Override
+    public Mono<OrderEntity> findByOrderIdOnPrimary(UUID orderId) {
+        MongoBulkhead write = mongoBulkheads.write();
+        return OrderEvents.lookup(orderId, write.isolate(
+                write.template().findOne(byOrderId(orderId).withReadPreference(ReadPreference.primary()), OrderEntity.class)));
+    }
+
+    @Override
+    public Mono<OrderEntity> insert(OrderEntity orderEntity) {
+        return OrderEvents.persist(orderEntity.getOrderId(), 1, mongoBulkheads.write().isolate(write(orderEntity)));
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<OrderEntity> orderEntities) {
+        if (orderEntities.isEmpty()) {
+            return Mono.just(new BulkInsertResult(List.of(), Map.of()));
+        }
+        return OrderEvents.persist(null, orderEntities.size(), mongoBulkheads.write().isolate(writeAll(orderEntities)));
+    }
+
+    private Mono<OrderEntity> write(OrderEntity orderEntity) {
+        MongoBulkhead write = mongoBulkheads.write();
+        if (!consistencyProperties.isReadYourWrites()) {
+            return write.template().insert(orderEntity);
+        }
+        return Mono.deferContextual(context -> {
+            Optional<OperationTimeHolder> holder = context.getOrEmpty(OperationTimeHolder.class);
+            if (holder.isEmpty()) {
+                return write.template().insert(orderEntity);
+            }
+            return inCausalSession(write, (session, operations) -> operations.insert(orderEntity))
+                    .doOnNext(result -> holder.get().advance(result.operationTime()))
+                    .map(Result::value);
+        });
+    }
+
+    private Mono<BulkInsertResult> writeAll(List<OrderEntity> orderEntities) {
+        MongoBulkhead write = mongoBulkheads.write();
+        if (!consistencyProperties.isReadYourWrites()) {
+            return bulkInsert(write.template(), orderEntities, null);
+        }
+        return inCausalSession(write, (session, operations) -> bulkInsert(operations, orderEntities, session))
+                .map(Result::value);
+    }
+
+    // A lagging secondary could miss orders the existence filter's change stream started after, so this reads the primary.
+    @Override
+    public Flux<UUID> findAllOrderIds() {
+        Query query = new Query().cursorBatchSize(ID_SCAN_BATCH_SIZE).withReadPreference(ReadPreference.primary());
+        query.fields().include("orderId");
+        MongoBulkhead read = mongoBulkheads.read();
+        return read.isolate(read.template().find(query, OrderEntity.class))
+                .map(OrderEntity::getOrderId);
     }
 
     @Override
-    public Mono<OrderEntity> save(OrderEntity orderEntity) {
-        return mongoTemplate.save(orderEntity);
+    public Flux<OrderEntity> findOrders(OrderQuery orderQuery) {
+        List<Criteria> filters = new ArrayList<>();
+        if (orderQuery.getBarCode() != null) {
+            filters.add(Criteria.where("barCode").is(orderQuery.getBarCode()));
+        }
+        if (orderQuery.getFrom() != null) {
+            filters.add(Criteria.where("createdAt").gte(orderQuery.getFrom()));
+        }
+        if (orderQuery.getTo() != null) {
+            filters.add(Criteria.where("createdAt").lt(orderQuery.getTo()));
+        }
+        if (orderQuery.getAfterCreatedAt() != null && orderQuery.getAfterOrderId() != null) {
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").gt(orderQuery.getAfterCreatedAt()),
+                    new Criteria().andOperator(
+                            Criteria.where("createdAt").is(orderQuery.getAfterCreatedAt()),
+                            Criteria.where("orderId").gt(orderQuery.getAfterOrderId()))));
+        }
+
+        // Sorting on the keyset lets the (barCode,) createdAt, _id indexes serve the scan without an in-memory sort.
+        Query query = new Query(filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters))
+                .with(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("orderId")))
+                .cursorBatchSize(queryProperties.getCursorBatchSize());
+        if (orderQuery.getLimit() != null) {
+            query.limit(orderQuery.getLimit());
+        }
+        MongoBulkhead read = mongoBulkheads.read();
+        return read.isolate(read.template().find(query, OrderEntity.class));
+    }
+
+    private Mono<BulkInsertResult> bulkInsert(ReactiveMongoOperations operations, List<OrderEntity> orderEntities,
+                                              ClientSession session) {
+        return operations.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderEntity.class)
+                .insert(orderEntities)
+                .execute()
+                .map(result -> new BulkInsertResult(orderEntities, Map.of(), operationTime(session), Set.of()))
+                .onErrorResume(error -> bulkWriteFailure(error) != null,
+                        error -> Mono.just(partialResult(orderEntities, bulkWriteFailure(error).getWriteErrors(), session)));
+    }
+
+    // The template translates a failed bulk into DuplicateKeyException or DataIntegrityViolationException; the
+    // per-document errors are only on the driver exception underneath.
+    private static MongoBulkWriteException bulkWriteFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+        }
+        return null;
+    }
+
+    private BulkInsertResult partialResult(List<OrderEntity> orderEntities, List<BulkWriteError> errors,
+                                           ClientSession session) {
+        Map<Integer, String> errorsByIndex = new HashMap<>();
+        Set<Integer> duplicateIndexes = new HashSet<>();
+        errors.forEach(error -> {
+            errorsByIndex.put(error.getIndex(), error.getMessage());
+            if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                duplicateIndexes.add(error.getIndex());
+            }
+        });
+
+        List<OrderEntity> inserted = new ArrayList<>(orderEntities.size() - errorsByIndex.size());
+        for (int i = 0; i < orderEntities.size(); i++) {
+            if (!errorsByIndex.containsKey(i)) {
+                inserted.add(orderEntities.get(i));
+            }
+        }
+        return new BulkInsertResult(inserted, errorsByIndex, operationTime(session), duplicateIndexes);
+    }
+
+    // A session belongs to the client that started it, so it is opened on the pool the operation runs on.
+    private static <T> Mono<Result<T>> inCausalSession(MongoBulkhead bulkhead,
+                                                       BiFunction<ClientSession, ReactiveMongoOperations, Mono<T>> action) {
+        ReactiveMongoTemplate template = bulkhead.template();
+        return Mono.usingWhen(
+                template.getMongoDatabaseFactory().getSession(CAUSAL_SESSION),
+                session -> action.apply(session, template.withSession(session))
+                        .map(value -> new Result<>(value, session.getOperationTime())),
+                session -> Mono.fromRunnable(session::close));
+    }
+
+    private static BsonTimestamp operationTime(ClientSession session) {
+        return session == null ? null : session.getOperationTime();
+    }
+
+    private static Query byOrderId(UUID orderId) {
+        return new Query(Criteria.where("orderId").is(orderId));
+    }
+
+    // Any answer from the server, a catch-up timeout included; a network error would fail on the primary as well.
+    private static boolean isCausalReadRejected(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoServerException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Result<T>(T value, BsonTimestamp operationTime) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.order.challenge.repository.impl;
+
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import com.order.challenge.repository.TopBarcodesSnapshotRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+@Profile("!" + LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class TopBarcodesSnapshotRepositoryImpl implements TopBarcodesSnapshotRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<TopBarcodesSnapshotEntity> findSnapshot(String id) {
+        return mongoTemplate.findById(id, TopBarcodesSnapshotEntity.class);
+    }
+
+    @Override
+    public Mono<TopBarcodesSnapshotEntity> saveSnapshot(TopBarcodesSnapshotEntity snapshot) {
+        return mongoTemplate.save(snapshot);
+    }
+
+    // One small document per instance, so these scan the collection rather than keep an index up to date.
+    @Override
+    public Flux<TopBarcodesSnapshotEntity> findSnapshotsTakenAfter(LocalDateTime takenAfter) {
+        return mongoTemplate.find(new Query(Criteria.where("takenAt").gt(takenAfter)), TopBarcodesSnapshotEntity.class);
+    }
+
+    @Override
+    public Mono<Void> deleteSnapshotsTakenBefore(LocalDateTime takenBefore) {
+        return mongoTemplate.remove(new Query(Criteria.where("takenAt").lt(takenBefore)), TopBarcodesSnapshotEntity.class)
+                .then();
+    }
+}
@@ -1,37 +1,378 @@
 package com.order.challenge.repository.impl;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.bulkhead.MongoBulkhead;
+import com.order.challenge.bulkhead.MongoBulkheads;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.OrderEntity;
 import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.CounterLayout;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.money.Money;
+import com.order.challenge.money.MoneyConverters;
+import com.order.challenge.observation.OrderEvents;
 import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+@Slf4j
 @Repository
+@Profile("!" + LocalOrderStore.PROFILE)
 @RequiredArgsConstructor
 public class TotalMetricsRepositoryImpl implements TotalMetricsRepositoryCustom {
 
-    private final ReactiveMongoTemplate mongoTemplate;
+    private final MongoBulkheads mongoBulkheads;
+    private final MetricsProperties metricsProperties;
+    private final MeterRegistry meterRegistry;
     public static final String GLOBAL_ID = "GLOBAL_TOTAL";
+    public static final String SHARD_SEPARATOR = "#";
+
+    // Matches the single-document counter and every slot, so switching layouts never drops a partial total.
+    private static final String COUNTER_ID_PATTERN = "^" + GLOBAL_ID + "(" + SHARD_SEPARATOR + "\\d+)?$";
+
+    private static final UpdateResult DEFERRED_RESULT = UpdateResult.acknowledged(0, 0L, null);
+
+    // Each bucket keeps, per writer, the highest rollup sequence it has taken; a fresh id per process keeps
+    // a restarted writer's sequence from colliding with the one it had before.
+    private static final String APPLIED_SEQUENCE = "appliedSequence";
+
+    private final String writerId = UUID.randomUUID().toString();
+    private final MetricsAccumulator accumulator = new MetricsAccumulator();
+    private final AtomicBoolean thresholdFlushRunning = new AtomicBoolean();
+    private final AtomicBoolean rollupsWriting = new AtomicBoolean();
+    private Disposable periodicFlush;
+
+    @PostConstruct
+    void startPeriodicFlush() {
+        Gauge.builder("orders.metrics.rollups.pending", accumulator, MetricsAccumulator::rollupsPendingCount)
+                .description("Flushed metrics deltas already in the total whose rollups are not written yet")
+                .register(meterRegistry);
+        if (!isDeferringRollups()) {
+            return;
+        }
+        MetricsProperties.Accumulator settings = metricsProperties.getAccumulator();
+        periodicFlush = Flux.interval(settings.getFlushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (periodicFlush != null) {
+            periodicFlush.dispose();
+        }
+        if (!isDeferringRollups()) {
+            return;
+        }
+        try {
+            flush().block(metricsProperties.getAccumulator().getShutdownTimeout());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush accumulated metrics on shutdown. Unflushed total: {}",
+                    accumulator.unflushedTotal(), e);
+        }
+        // Logged bucket by bucket, so the rollups can be reconciled by hand with the counter that already has them.
+        accumulator.rollupsPending().forEach(delta -> delta.minutes().forEach((minute, stats) ->
+                log.error("Shutting down without writing the {} rollup: {} orders totalling {}.",
+                        MetricsRollupEntity.idOf(RollupGranularity.MINUTE, minute), stats.count(), stats.sum())));
+    }
 
     @Override
-    public Mono<UpdateResult> incrementTotalValue(BigDecimal amount) {
-        Query query = new Query(Criteria.where("_id").is(GLOBAL_ID));
+    public Mono<UpdateResult> recordOrders(Collection<OrderEntity> orders) {
+        if (orders.isEmpty()) {
+            return Mono.just(DEFERRED_RESULT);
+        }
+        return OrderEvents.metricsIncrement(orders, increment(orders));
+    }
 
-        Update update = new Update().inc("totalValue", amount);
+    private Mono<UpdateResult> increment(Collection<OrderEntity> orders) {
+        if (!isAccumulating()) {
+            return write(MetricsDelta.of(orders));
+        }
 
-        return mongoTemplate.upsert(query, update, TotalMetricsEntity.class);
+        List<OrderEntity> rejected = new ArrayList<>(0);
+        for (OrderEntity order : orders) {
+            if (!accumulator.add(order)) {
+                rejected.add(order);
+            }
+        }
+        if (accumulator.pendingOrders() >= metricsProperties.getAccumulator().getFlushThreshold()) {
+            flushAboveThreshold();
+        }
+        return rejected.isEmpty() ? Mono.just(DEFERRED_RESULT) : write(MetricsDelta.of(rejected));
     }
 
     @Override
     public Mono<TotalMetricsEntity> findTotalMetrics() {
-        Query query = new Query(Criteria.where("_id").is(GLOBAL_ID));
-        return mongoTemplate.findOne(query, TotalMetricsEntity.class);
+        Query query = new Query(Criteria.where("_id").regex(COUNTER_ID_PATTERN));
+        MongoBulkhead read = mongoBulkheads.read();
+        return read.isolate(read.template().find(query, TotalMetricsEntity.class))
+                .filter(counter -> counter.getTotalValue() != null)
+                .collectList()
+                .flatMap(counters -> {
+                    MetricsStats stats = MetricsStats.EMPTY;
+                    for (TotalMetricsEntity counter : counters) {
+                        stats = stats.merge(new MetricsStats(valueOrZero(counter.getOrderCount()),
+                                Money.of(counter.getTotalValue()), moneyOrNull(counter.getMinValue()),
+                                moneyOrNull(counter.getMaxValue())));
+                    }
+                    MetricsStats unflushed = isAccumulating() ? accumulator.unflushedTotal() : MetricsStats.EMPTY;
+                    if (counters.isEmpty() && unflushed.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    // A counter written before orders were counted holds a total whose orders are only partly in orderCount.
+                    boolean countComplete = counters.stream()
+                            .allMatch(counter -> Boolean.TRUE.equals(counter.getCountComplete()));
+                    MetricsStats total = stats.merge(unflushed);
+                    return Mono.just(TotalMetricsEntity.builder()
+                            .id(GLOBAL_ID)
+                            .totalValue(total.sum().toBigDecimal())
+                            .orderCount(total.count())
+                            .minValue(decimalOrNull(total.min()))
+                            .maxValue(decimalOrNull(total.max()))
+                            .countComplete(countComplete)
+                            .build());
+                });
+    }
+
+    @Override
+    public Flux<MetricsRollupEntity> findRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        Query query = new Query(Criteria.where("_id")
+                .gte(MetricsRollupEntity.idOf(granularity, from))
+                .lte(MetricsRollupEntity.idOf(granularity, to)))
+                .with(Sort.by(Sort.Direction.ASC, "_id"));
+        MongoBulkhead read = mongoBulkheads.read();
+        Flux<MetricsRollupEntity> persisted = read.isolate(read.template().find(query, MetricsRollupEntity.class));
+        if (!isDeferringRollups()) {
+            return persisted;
+        }
+
+        LocalDateTime firstBucket = granularity.truncate(from);
+        LocalDateTime lastBucket = granularity.truncate(to);
+        Map<LocalDateTime, MetricsStats> unflushed = new TreeMap<>(accumulator.unflushedBuckets().buckets(granularity));
+        unflushed.keySet().removeIf(bucket -> bucket.isBefore(firstBucket) || bucket.isAfter(lastBucket));
+        if (unflushed.isEmpty()) {
+            return persisted;
+        }
+
+        return persisted
+                .collectMap(MetricsRollupEntity::getBucketStart, TotalMetricsRepositoryImpl::toStats, TreeMap::new)
+                .flatMapIterable(buckets -> {
+                    unflushed.forEach((bucket, stats) -> buckets.merge(bucket, stats, MetricsStats::merge));
+                    return buckets.entrySet();
+                })
+                .map(bucket -> toEntity(granularity, bucket.getKey(), bucket.getValue()));
+    }
+
+    // A delta whose counter increment failed goes back into the accumulator; once counted, it joins the rollups
+    // queue under the next sequence and stays there, and in the rollup reads, until its rollups are written.
+    Mono<Void> flush() {
+        return Mono.defer(() -> {
+            MetricsDelta delta = accumulator.drain();
+            if (delta.total().isEmpty()) {
+                accumulator.counted(delta);
+                return writePendingRollups();
+            }
+            return incrementCounter(delta)
+                    .doOnError(error -> {
+                        accumulator.restore(delta);
+                        log.warn("Failed to flush accumulated metrics, will retry. Error: {}", error.getMessage());
+                    })
+                    .doOnSuccess(result -> accumulator.counted(delta))
+                    .then(writePendingRollups());
+        });
+    }
+
+    // One writer at a time, oldest first, stopping at the first failure: a bucket skips any sequence up to the
+    // highest it has taken, so a later delta must not reach a bucket before an earlier one has.
+    private Mono<Void> writePendingRollups() {
+        return Mono.defer(() -> {
+            if (!rollupsWriting.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            return Flux.fromIterable(accumulator.rollupsPending())
+                    .concatMap(delta -> writeRollups(delta).doOnSuccess(written -> accumulator.rollupsWritten(delta)))
+                    .doOnError(error -> log.warn("Failed to write metrics rollups, will retry {} pending deltas. Error: {}",
+                            accumulator.rollupsPendingCount(), error.getMessage()))
+                    .doFinally(signal -> rollupsWriting.set(false))
+                    .then();
+        });
+    }
+
+    // The change-stream pipeline commits increments transactionally, so buffering only applies inline.
+    private boolean isAccumulating() {
+        return metricsProperties.getAccumulator().isEnabled() && metricsProperties.isInlineAccounting();
+    }
+
+    // Inline, even an unbuffered counter leaves its rollups to the flush: one bucket write per flush and writer,
+    // not one per order on the same two hot documents.
+    private boolean isDeferringRollups() {
+        return metricsProperties.isInlineAccounting();
+    }
+
+    private void flushAboveThreshold() {
+        if (!thresholdFlushRunning.compareAndSet(false, true)) {
+            return;
+        }
+        flush().doFinally(signal -> thresholdFlushRunning.set(false))
+                .subscribe(null, error -> { });
+    }
+
+    // Once the counter has the increment the call succeeds, so a caller's retry never counts the orders again. The
+    // change-stream pipeline writes the rollups in the same transaction; inline they wait for the next flush.
+    private Mono<UpdateResult> write(MetricsDelta delta) {
+        if (!isDeferringRollups()) {
+            return incrementCounter(delta).flatMap(result -> writeRollups(delta).thenReturn(result));
+        }
+        return incrementCounter(delta).doOnSuccess(result -> accumulator.addRollups(delta));
+    }
+
+    // Not shed when the pool is saturated: the orders behind this delta are already stored and must still be counted.
+    private Mono<UpdateResult> incrementCounter(MetricsDelta delta) {
+        Query counter = new Query(Criteria.where("_id").is(nextCounterId()));
+        Update update = statsUpdate(delta.total()).setOnInsert("countComplete", true);
+        return mongoBulkheads.write().template().upsert(counter, update, TotalMetricsEntity.class);
+    }
+
+    private Mono<Void> writeRollups(MetricsDelta delta) {
+        if (delta.minutes().isEmpty()) {
+            return Mono.empty();
+        }
+        Mono<Void> write = Mono.defer(() -> {
+                    ReactiveBulkOperations rollups = mongoBulkheads.write().template()
+                            .bulkOps(BulkOperations.BulkMode.UNORDERED, MetricsRollupEntity.class);
+                    for (RollupGranularity granularity : RollupGranularity.values()) {
+                        delta.buckets(granularity).forEach((bucketStart, stats) -> rollups.upsert(
+                                rollupQuery(MetricsRollupEntity.idOf(granularity, bucketStart), delta),
+                                rollupUpdate(stats, delta)
+                                        .setOnInsert("granularity", granularity)
+                                        .setOnInsert("bucketStart", bucketStart)));
+                    }
+                    return rollups.execute();
+                })
+                .then();
+        if (!delta.isSequenced()) {
+            return write;
+        }
+        // A bucket that already has this sequence fails its upsert with a duplicate _id. So does one another
+        // writer created at the same moment, so the bulk runs once more: that one now matches and applies.
+        return write.retryWhen(Retry.max(1).filter(TotalMetricsRepositoryImpl::onlyDuplicateKeys))
+                .onErrorResume(error -> Exceptions.isRetryExhausted(error) && onlyDuplicateKeys(error.getCause()),
+                        error -> Mono.empty());
+    }
+
+    private Query rollupQuery(String bucketId, MetricsDelta delta) {
+        Criteria bucket = Criteria.where("_id").is(bucketId);
+        if (delta.isSequenced()) {
+            bucket.and(APPLIED_SEQUENCE + "." + writerId).not().gte(delta.sequence());
+        }
+        return new Query(bucket);
+    }
+
+    private Update rollupUpdate(MetricsStats stats, MetricsDelta delta) {
+        Update update = statsUpdate(stats);
+        if (delta.isSequenced()) {
+            update.max(APPLIED_SEQUENCE + "." + writerId, delta.sequence());
+        }
+        return update;
+    }
+
+    private static boolean onlyDuplicateKeys(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException.getWriteConcernError() == null && bulkWriteException.getWriteErrors().stream()
+                        .allMatch(writeError -> ErrorCategory.fromErrorCode(writeError.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            }
+        }
+        return false;
+    }
+
+    // Encoded here rather than by the mapper, since $inc only takes numbers; it is the Decimal128 the field holds anyway.
+    private static Update statsUpdate(MetricsStats stats) {
+        Update update = new Update()
+                .inc("totalValue", toDecimal128(stats.sum()))
+                .inc("orderCount", stats.count());
+        if (stats.min() != null) {
+            update.min("minValue", toDecimal128(stats.min()));
+        }
+        if (stats.max() != null) {
+            update.max("maxValue", toDecimal128(stats.max()));
+        }
+        return update;
+    }
+
+    private static Decimal128 toDecimal128(Money value) {
+        return MoneyConverters.MoneyToDecimal128Converter.INSTANCE.convert(value);
+    }
+
+    private String nextCounterId() {
+        int shards = metricsProperties.getShards();
+        if (metricsProperties.getLayout() != CounterLayout.SHARDED || shards <= 1) {
+            return GLOBAL_ID;
+        }
+        return GLOBAL_ID + SHARD_SEPARATOR + ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    private static MetricsStats toStats(MetricsRollupEntity rollup) {
+        return new MetricsStats(valueOrZero(rollup.getOrderCount()), Money.of(rollup.getTotalValue()),
+                moneyOrNull(rollup.getMinValue()), moneyOrNull(rollup.getMaxValue()));
+    }
+
+    static MetricsRollupEntity toEntity(RollupGranularity granularity, LocalDateTime bucketStart,
+                                                MetricsStats stats) {
+        return MetricsRollupEntity.builder()
+                .id(MetricsRollupEntity.idOf(granularity, bucketStart))
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .orderCount(stats.count())
+                .totalValue(stats.sum().toBigDecimal())
+                .minValue(decimalOrNull(stats.min()))
+                .maxValue(decimalOrNull(stats.max()))
+                .build();
+    }
+
+    static BigDecimal decimalOrNull(Money value) {
+        return value == null ? null : value.toBigDecimal();
+    }
+
+    private static Money moneyOrNull(BigDecimal value) {
+        return value == null ? null : Money.of(value);
+    }
+
+    private static long valueOrZero(Long value) {
+        return value == null ? 0 : value;
     }
-}
\ No newline at end of file
+}
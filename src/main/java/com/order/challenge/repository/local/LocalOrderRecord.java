@@ -0,0 +1,187 @@
+package com.order.challenge.repository.local;
+
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+// Fixed 128-byte slot, big-endian:
+//   0 int magic | 4 int crc32c of bytes 8..127 | 8 long sequence | 16 long id msb | 24 long id lsb
+//  32 long createdAt epoch second (UTC) | 40 int createdAt nano | 44 int quantity
+//  48 long price unscaled | 56 long totalValue unscaled | 64 byte price scale | 65 byte totalValue scale
+//  66 byte type | 67 byte status | 68 byte barCode length | 69..127 barCode UTF-8
+final class LocalOrderRecord {
+
+    static final int SIZE = 128;
+
+    static final byte ORDER = 1;
+    static final byte ACCOUNTED = 2;
+
+    private static final int MAGIC = 0x4F524431;
+
+    private static final int CRC = 4;
+    private static final int SEQUENCE = 8;
+    private static final int ID_MSB = 16;
+    private static final int ID_LSB = 24;
+    private static final int CREATED_SECONDS = 32;
+    private static final int CREATED_NANOS = 40;
+    private static final int QUANTITY = 44;
+    private static final int PRICE = 48;
+    private static final int TOTAL_VALUE = 56;
+    private static final int PRICE_SCALE = 64;
+    private static final int TOTAL_VALUE_SCALE = 65;
+    private static final int TYPE = 66;
+    private static final int STATUS = 67;
+    private static final int BARCODE_LENGTH = 68;
+    private static final int BARCODE = 69;
+
+    static final int MAX_BARCODE_BYTES = SIZE - BARCODE;
+
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+    private static final byte NULL_LENGTH = -1;
+    private static final long NULL_SECONDS = Long.MIN_VALUE;
+    private static final int NULL_QUANTITY = Integer.MIN_VALUE;
+
+    private static final BigInteger MIN_UNSCALED = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_UNSCALED = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private LocalOrderRecord() {
+    }
+
+    static ByteBuffer encode(byte type, long sequence, OrderEntity order) {
+        ByteBuffer record = ByteBuffer.allocate(SIZE);
+        record.putInt(0, MAGIC);
+        record.putLong(SEQUENCE, sequence);
+        record.putLong(ID_MSB, order.getOrderId().getMostSignificantBits());
+        record.putLong(ID_LSB, order.getOrderId().getLeastSignificantBits());
+
+        LocalDateTime createdAt = order.getCreatedAt();
+        record.putLong(CREATED_SECONDS, createdAt == null ? NULL_SECONDS : createdAt.toEpochSecond(ZoneOffset.UTC));
+        record.putInt(CREATED_NANOS, createdAt == null ? 0 : createdAt.getNano());
+        record.putInt(QUANTITY, order.getQuantity() == null ? NULL_QUANTITY : order.getQuantity());
+        putDecimal(record, PRICE, PRICE_SCALE, order.getPrice(), "price");
+        putDecimal(record, TOTAL_VALUE, TOTAL_VALUE_SCALE, order.getTotalValue(), "totalValue");
+        record.put(TYPE, type);
+        record.put(STATUS, (byte) (order.getStatus() == null ? -1 : order.getStatus().ordinal()));
+
+        if (order.getBarCode() == null) {
+            record.put(BARCODE_LENGTH, NULL_LENGTH);
+        } else {
+            byte[] barCode = order.getBarCode().getBytes(StandardCharsets.UTF_8);
+            if (barCode.length > MAX_BARCODE_BYTES) {
+                throw new IllegalArgumentException("The barCode of order " + order.getOrderId() + " is longer than "
+                        + MAX_BARCODE_BYTES + " bytes.");
+            }
+            record.put(BARCODE_LENGTH, (byte) barCode.length);
+            record.put(BARCODE, barCode);
+        }
+
+        record.putInt(CRC, checksum(record, 0));
+        return record.clear();
+    }
+
+    // Unwritten slots are zero, so a bad magic marks the end of the log and a bad checksum marks a torn write.
+    static boolean isValid(ByteBuffer segment, int offset) {
+        return segment.getInt(offset) == MAGIC && segment.getInt(offset + CRC) == checksum(segment, offset);
+    }
+
+    static boolean isEmpty(ByteBuffer segment, int offset) {
+        return segment.getInt(offset) == 0;
+    }
+
+    static byte type(ByteBuffer segment, int offset) {
+        return segment.get(offset + TYPE);
+    }
+
+    static long sequence(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + SEQUENCE);
+    }
+
+    static long idMsb(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + ID_MSB);
+    }
+
+    static long idLsb(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + ID_LSB);
+    }
+
+    static boolean isAccounted(ByteBuffer segment, int offset) {
+        return segment.get(offset + STATUS) == OrderStatus.ACCOUNTED.ordinal();
+    }
+
+    static LocalDateTime createdAt(ByteBuffer segment, int offset) {
+        long seconds = segment.getLong(offset + CREATED_SECONDS);
+        return seconds == NULL_SECONDS
+                ? null
+                : LocalDateTime.ofEpochSecond(seconds, segment.getInt(offset + CREATED_NANOS), ZoneOffset.UTC);
+    }
+
+    static Money totalValue(ByteBuffer segment, int offset) {
+        return getDecimal(segment, offset + TOTAL_VALUE, offset + TOTAL_VALUE_SCALE);
+    }
+
+    static OrderEntity decode(ByteBuffer segment, int offset) {
+        int quantity = segment.getInt(offset + QUANTITY);
+        byte status = segment.get(offset + STATUS);
+        OrderEntity order = OrderEntity.builder()
+                .orderId(new UUID(idMsb(segment, offset), idLsb(segment, offset)))
+                .barCode(barCode(segment, offset))
+                .quantity(quantity == NULL_QUANTITY ? null : quantity)
+                .price(getDecimal(segment, offset + PRICE, offset + PRICE_SCALE))
+                .totalValue(totalValue(segment, offset))
+                .createdAt(createdAt(segment, offset))
+                .build();
+        order.setStatus(status < 0 ? null : OrderStatus.values()[status]);
+        return order;
+    }
+
+    // Only used on copies that are not visible yet, so the rewrite does not race readers.
+    static void markAccounted(ByteBuffer segment, int offset) {
+        segment.put(offset + STATUS, (byte) OrderStatus.ACCOUNTED.ordinal());
+        segment.putInt(offset + CRC, checksum(segment, offset));
+    }
+
+    private static String barCode(ByteBuffer segment, int offset) {
+        byte length = segment.get(offset + BARCODE_LENGTH);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] barCode = new byte[length];
+        segment.get(offset + BARCODE, barCode);
+        return new String(barCode, StandardCharsets.UTF_8);
+    }
+
+    private static void putDecimal(ByteBuffer record, int valueAt, int scaleAt, Money money, String field) {
+        if (money == null) {
+            record.put(scaleAt, NULL_SCALE);
+            return;
+        }
+        BigDecimal value = money.toBigDecimal();
+        BigInteger unscaled = value.unscaledValue();
+        if (value.scale() <= NULL_SCALE || value.scale() > Byte.MAX_VALUE
+                || unscaled.compareTo(MIN_UNSCALED) < 0 || unscaled.compareTo(MAX_UNSCALED) > 0) {
+            throw new IllegalArgumentException("The " + field + " " + value + " does not fit the local store's record layout.");
+        }
+        record.putLong(valueAt, unscaled.longValue());
+        record.put(scaleAt, (byte) value.scale());
+    }
+
+    private static Money getDecimal(ByteBuffer segment, int valueAt, int scaleAt) {
+        byte scale = segment.get(scaleAt);
+        return scale == NULL_SCALE ? null : Money.of(segment.getLong(valueAt), scale);
+    }
+
+    private static int checksum(ByteBuffer segment, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + SEQUENCE, SIZE - SEQUENCE));
+        return (int) crc.getValue();
+    }
+}
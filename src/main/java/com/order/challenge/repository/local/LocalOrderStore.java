@@ -0,0 +1,497 @@
+package com.order.challenge.repository.local;
+
+import com.order.challenge.config.LocalStoreProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.impl.MetricsStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Append-only order log in memory-mapped segments. Every save appends a new version with a higher sequence number
+// and repoints the off-heap index; accounting appends a marker instead of rewriting the order. On startup the index
+// is rebuilt by replaying the segments, the log tail is cut at the first torn record, and compaction later copies the
+// live versions out of mostly-dead segments so they can be deleted.
+@Slf4j
+@Component
+@Profile(LocalOrderStore.PROFILE)
+public class LocalOrderStore {
+
+    public static final String PROFILE = "local-store";
+
+    // Index values are (segment id << 32 | slot), with the top bit set once the order has been accounted.
+    private static final long ACCOUNTED_FLAG = 1L << 63;
+
+    private final LocalStoreProperties properties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, LocalSegment> segments = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> garbage = new HashMap<>();
+    private final AtomicInteger nextSegmentId = new AtomicInteger(1);
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private OffHeapOrderIndex index;
+    private LocalSegment active;
+    private long nextSequence = 1;
+
+    private MetricsStats total = MetricsStats.EMPTY;
+    private final NavigableMap<LocalDateTime, MetricsStats> minutes = new TreeMap<>();
+
+    private Disposable periodicCompaction;
+
+    public LocalOrderStore(LocalStoreProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void open() {
+        Path directory = properties.getDirectory();
+        index = new OffHeapOrderIndex(properties.getInitialIndexCapacity());
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> leftovers = Files.list(directory)) {
+                for (Path leftover : leftovers.filter(path -> path.toString().endsWith(LocalSegment.COMPACTING_SUFFIX)).toList()) {
+                    log.warn("Discarding unfinished compaction output {}.", leftover);
+                    Files.delete(leftover);
+                }
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.toString().endsWith(LocalSegment.SUFFIX))
+                        .map(LocalSegment::open)
+                        .forEach(segment -> segments.put(segment.id(), segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open local order store at " + directory, e);
+        }
+
+        replay();
+        int lastId = segments.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        nextSegmentId.set(lastId + 1);
+        active = lastId > 0 && !segments.get(lastId).isFull() ? segments.get(lastId) : roll();
+        log.info("Local order store opened at {} with {} orders in {} segments.", directory, index.size(), segments.size());
+
+        LocalStoreProperties.Compaction compaction = properties.getCompaction();
+        if (compaction.isEnabled()) {
+            periodicCompaction = Flux.interval(compaction.getInterval())
+                    .onBackpressureDrop()
+                    .concatMap(tick -> Mono.fromCallable(this::compact)
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorResume(error -> {
+                                log.warn("Local order store compaction failed. Error: {}", error.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (periodicCompaction != null) {
+            periodicCompaction.dispose();
+        }
+        withLock(lock.writeLock(), () -> {
+            if (active != null) {
+                active.force();
+            }
+            return null;
+        });
+    }
+
+    public OrderEntity find(UUID orderId) {
+        return withLock(lock.readLock(), () -> {
+            long location = index.get(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+            return location == 0 ? null : read(location);
+        });
+    }
+
+    // Replaces any previous version, like a Mongo save; a replaced order leaves the metrics until it is accounted again.
+    public OrderEntity save(OrderEntity order) {
+        return write(() -> {
+            long previous = index.get(order.getOrderId().getMostSignificantBits(), order.getOrderId().getLeastSignificantBits());
+            appendOrder(order, previous);
+            if ((previous & ACCOUNTED_FLAG) != 0) {
+                unfold(previous);
+            }
+            return order;
+        });
+    }
+
+    // Returns false without writing when the order already exists, like an insert hitting the unique _id index.
+    public boolean insert(OrderEntity order) {
+        return write(() -> {
+            if (index.get(order.getOrderId().getMostSignificantBits(), order.getOrderId().getLeastSignificantBits()) != 0) {
+                return false;
+            }
+            appendOrder(order, 0);
+            return true;
+        });
+    }
+
+    // Counts each stored order once; orders already accounted or never stored are skipped. Returns how many counted.
+    public int account(Collection<UUID> orderIds) {
+        return write(() -> {
+            int accounted = 0;
+            for (UUID orderId : orderIds) {
+                long msb = orderId.getMostSignificantBits();
+                long lsb = orderId.getLeastSignificantBits();
+                long location = index.get(msb, lsb);
+                if (location == 0 || (location & ACCOUNTED_FLAG) != 0) {
+                    continue;
+                }
+                long marker = appendRecord(LocalOrderRecord.encode(LocalOrderRecord.ACCOUNTED, nextSequence++, read(location)));
+                addGarbage(segmentOf(marker));
+                index.put(msb, lsb, location | ACCOUNTED_FLAG);
+                fold(location);
+                accounted++;
+            }
+            return accounted;
+        });
+    }
+
+    // Appends only reach the page cache unless fsync is on; only then can a write block on the device, so only then
+    // does it leave the caller's thread.
+    public <T> Mono<T> onWriteScheduler(Supplier<T> action) {
+        Mono<T> write = Mono.fromSupplier(action);
+        return properties.isFsync() ? write.subscribeOn(Schedulers.boundedElastic()) : write;
+    }
+
+    public boolean isAccounted(UUID orderId) {
+        return withLock(lock.readLock(),
+                () -> (index.get(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits()) & ACCOUNTED_FLAG) != 0);
+    }
+
+    public List<UUID> orderIds() {
+        return withLock(lock.readLock(), () -> {
+            List<UUID> ids = new ArrayList<>(index.size());
+            index.forEach((msb, lsb, location) -> ids.add(new UUID(msb, lsb)));
+            return ids;
+        });
+    }
+
+    // A full scan of the live versions; there is no secondary index.
+    public List<OrderEntity> orders(Predicate<OrderEntity> filter) {
+        return withLock(lock.readLock(), () -> {
+            List<OrderEntity> orders = new ArrayList<>();
+            index.forEach((msb, lsb, location) -> {
+                OrderEntity order = read(location);
+                if (filter.test(order)) {
+                    orders.add(order);
+                }
+            });
+            return orders;
+        });
+    }
+
+    public MetricsStats total() {
+        return withLock(lock.readLock(), () -> total);
+    }
+
+    // Minute buckets starting in [from, until).
+    public Map<LocalDateTime, MetricsStats> minutes(LocalDateTime from, LocalDateTime until) {
+        return withLock(lock.readLock(), () -> new TreeMap<>(minutes.subMap(from, true, until, false)));
+    }
+
+    // Copies the live order versions out of sealed segments that are mostly garbage, then deletes those segments.
+    boolean compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            List<LocalSegment> candidates = withLock(lock.readLock(), () -> segments.values().stream()
+                    .filter(segment -> segment != active)
+                    .filter(segment -> garbageRatio(segment) >= properties.getCompaction().getMinGarbageRatio())
+                    .toList());
+            if (candidates.isEmpty()) {
+                return false;
+            }
+
+            // Sealed segments never change, so copying only needs the lock to check that a version is still current.
+            List<Copy> copies = new ArrayList<>();
+            List<LocalSegment> outputs = new ArrayList<>();
+            LocalSegment output = null;
+            for (LocalSegment candidate : candidates) {
+                ByteBuffer buffer = candidate.buffer();
+                for (int slot = 1; slot < candidate.recordCount(); slot++) {
+                    int offset = LocalSegment.offsetOf(slot);
+                    if (LocalOrderRecord.type(buffer, offset) != LocalOrderRecord.ORDER) {
+                        continue;
+                    }
+                    long msb = LocalOrderRecord.idMsb(buffer, offset);
+                    long lsb = LocalOrderRecord.idLsb(buffer, offset);
+                    long from = locationOf(candidate.id(), slot);
+                    long current = withLock(lock.readLock(), () -> index.get(msb, lsb));
+                    if ((current & ~ACCOUNTED_FLAG) != from) {
+                        continue;
+                    }
+                    if (output == null || output.isFull()) {
+                        output = newSegment(LocalSegment.COMPACTING_SUFFIX);
+                        outputs.add(output);
+                    }
+                    int copied = output.append(buffer.slice(offset, LocalOrderRecord.SIZE));
+                    copies.add(new Copy(msb, lsb, from, output, copied));
+                }
+            }
+            outputs.forEach(LocalSegment::force);
+
+            withLock(lock.writeLock(), () -> {
+                for (Copy copy : copies) {
+                    long current = index.get(copy.msb(), copy.lsb());
+                    if ((current & ~ACCOUNTED_FLAG) != copy.from()) {
+                        addGarbage(copy.segment().id());
+                        continue;
+                    }
+                    // The copy carries the accounted status itself, since the markers go away with the old segments.
+                    if ((current & ACCOUNTED_FLAG) != 0) {
+                        LocalOrderRecord.markAccounted(copy.segment().buffer(), LocalSegment.offsetOf(copy.slot()));
+                    }
+                    index.put(copy.msb(), copy.lsb(), locationOf(copy.segment().id(), copy.slot()) | (current & ACCOUNTED_FLAG));
+                }
+                for (LocalSegment compacted : outputs) {
+                    compacted.force();
+                    compacted.rename(LocalSegment.SUFFIX);
+                    segments.put(compacted.id(), compacted);
+                }
+                for (LocalSegment candidate : candidates) {
+                    segments.remove(candidate.id());
+                    garbage.remove(candidate.id());
+                }
+                return null;
+            });
+            candidates.forEach(LocalSegment::delete);
+
+            log.info("Compacted {} local order segments into {}, keeping {} live orders.",
+                    candidates.size(), outputs.size(), copies.size());
+            return true;
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    // Pass one finds each order's newest version, pass two applies accounting markers to it, and pass three rebuilds
+    // the metrics from the accounted versions, so the result does not depend on the order segments are read in.
+    private void replay() {
+        List<LocalSegment> ordered = segments.values().stream()
+                .sorted((left, right) -> Integer.compare(left.id(), right.id()))
+                .toList();
+        for (LocalSegment segment : ordered) {
+            int torn = segment.recover();
+            if (torn > 0) {
+                log.warn("Discarded {} torn records at the tail of {}.", torn, segment.path());
+            }
+        }
+
+        long lastSequence = 0;
+        for (LocalSegment segment : ordered) {
+            ByteBuffer buffer = segment.buffer();
+            for (int slot = 1; slot < segment.recordCount(); slot++) {
+                int offset = LocalSegment.offsetOf(slot);
+                long sequence = LocalOrderRecord.sequence(buffer, offset);
+                lastSequence = Math.max(lastSequence, sequence);
+                if (LocalOrderRecord.type(buffer, offset) != LocalOrderRecord.ORDER) {
+                    continue;
+                }
+                long msb = LocalOrderRecord.idMsb(buffer, offset);
+                long lsb = LocalOrderRecord.idLsb(buffer, offset);
+                long location = locationOf(segment.id(), slot)
+                        | (LocalOrderRecord.isAccounted(buffer, offset) ? ACCOUNTED_FLAG : 0);
+                long existing = index.get(msb, lsb);
+                if (existing == 0) {
+                    index.put(msb, lsb, location);
+                    continue;
+                }
+                long existingSequence = sequenceAt(existing);
+                if (existingSequence < sequence) {
+                    index.put(msb, lsb, location);
+                    addGarbage(segmentOf(existing));
+                } else if (existingSequence == sequence) {
+                    // Both halves of an interrupted compaction survived; either copy will do, but keep any accounting.
+                    index.put(msb, lsb, existing | (location & ACCOUNTED_FLAG));
+                    addGarbage(segment.id());
+                } else {
+                    addGarbage(segment.id());
+                }
+            }
+        }
+        nextSequence = lastSequence + 1;
+
+        for (LocalSegment segment : ordered) {
+            ByteBuffer buffer = segment.buffer();
+            for (int slot = 1; slot < segment.recordCount(); slot++) {
+                int offset = LocalSegment.offsetOf(slot);
+                if (LocalOrderRecord.type(buffer, offset) != LocalOrderRecord.ACCOUNTED) {
+                    continue;
+                }
+                addGarbage(segment.id());
+                long msb = LocalOrderRecord.idMsb(buffer, offset);
+                long lsb = LocalOrderRecord.idLsb(buffer, offset);
+                long location = index.get(msb, lsb);
+                if (location != 0 && sequenceAt(location) < LocalOrderRecord.sequence(buffer, offset)) {
+                    index.put(msb, lsb, location | ACCOUNTED_FLAG);
+                }
+            }
+        }
+
+        index.forEach((msb, lsb, location) -> {
+            if ((location & ACCOUNTED_FLAG) != 0) {
+                fold(location);
+            }
+        });
+    }
+
+    // A version saved as already accounted counts straight away, which is also how replay reads it back.
+    private void appendOrder(OrderEntity order, long previous) {
+        long location = appendRecord(LocalOrderRecord.encode(LocalOrderRecord.ORDER, nextSequence++, order));
+        if (order.getStatus() == OrderStatus.ACCOUNTED) {
+            location |= ACCOUNTED_FLAG;
+            fold(location);
+        }
+        index.put(order.getOrderId().getMostSignificantBits(), order.getOrderId().getLeastSignificantBits(), location);
+        if (previous != 0) {
+            addGarbage(segmentOf(previous));
+        }
+    }
+
+    // Appends under the write lock but waits for the device only after releasing it, so readers and the next writer
+    // never queue behind an fsync. A roll forces the sealed segment, so the active one holds everything still pending.
+    private <T> T write(Supplier<T> action) {
+        T result;
+        LocalSegment written;
+        int slot;
+        lock.writeLock().lock();
+        try {
+            result = action.get();
+            written = active;
+            slot = active.recordCount() - 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (properties.isFsync() && slot > 0) {
+            written.forceThrough(slot);
+        }
+        return result;
+    }
+
+    private long appendRecord(ByteBuffer record) {
+        if (active.isFull()) {
+            active.force();
+            active = roll();
+        }
+        return locationOf(active.id(), active.append(record));
+    }
+
+    private LocalSegment roll() {
+        LocalSegment segment = newSegment(LocalSegment.SUFFIX);
+        segments.put(segment.id(), segment);
+        return segment;
+    }
+
+    private LocalSegment newSegment(String suffix) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE / LocalOrderRecord.SIZE,
+                properties.getSegmentSize().toBytes() / LocalOrderRecord.SIZE);
+        return LocalSegment.create(properties.getDirectory(), nextSegmentId.getAndIncrement(), Math.max(2, capacity), suffix);
+    }
+
+    private OrderEntity read(long location) {
+        LocalSegment segment = segments.get(segmentOf(location));
+        OrderEntity order = LocalOrderRecord.decode(segment.buffer(), LocalSegment.offsetOf(slotOf(location)));
+        if ((location & ACCOUNTED_FLAG) != 0) {
+            order.setStatus(OrderStatus.ACCOUNTED);
+        }
+        return order;
+    }
+
+    private long sequenceAt(long location) {
+        return LocalOrderRecord.sequence(segments.get(segmentOf(location)).buffer(), LocalSegment.offsetOf(slotOf(location)));
+    }
+
+    private void fold(long location) {
+        foldStats(location, false);
+    }
+
+    private void unfold(long location) {
+        foldStats(location, true);
+    }
+
+    private void foldStats(long location, boolean removal) {
+        ByteBuffer buffer = segments.get(segmentOf(location)).buffer();
+        int offset = LocalSegment.offsetOf(slotOf(location));
+        Money value = LocalOrderRecord.totalValue(buffer, offset);
+        if (value == null) {
+            return;
+        }
+        MetricsStats stats = removal ? MetricsStats.removalOf(value) : MetricsStats.of(value);
+        total = total.merge(stats);
+        LocalDateTime createdAt = LocalOrderRecord.createdAt(buffer, offset);
+        if (createdAt != null) {
+            MetricsStats bucket = minutes.merge(RollupGranularity.MINUTE.truncate(createdAt), stats, MetricsStats::merge);
+            if (bucket.count() == 0) {
+                minutes.remove(RollupGranularity.MINUTE.truncate(createdAt));
+            }
+        }
+    }
+
+    private void addGarbage(int segmentId) {
+        garbage.merge(segmentId, 1, Integer::sum);
+    }
+
+    private double garbageRatio(LocalSegment segment) {
+        int records = segment.recordCount() - 1;
+        return records == 0 ? 0 : (double) garbage.getOrDefault(segment.id(), 0) / records;
+    }
+
+    private static long locationOf(int segmentId, int slot) {
+        return (long) segmentId << 32 | slot;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) ((location & ~ACCOUNTED_FLAG) >>> 32);
+    }
+
+    private static int slotOf(long location) {
+        return (int) location;
+    }
+
+    private static <T> T withLock(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Copy(long msb, long lsb, long from, LocalSegment segment, int slot) {
+    }
+}
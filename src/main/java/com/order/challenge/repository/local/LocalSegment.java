@@ -0,0 +1,154 @@
+package com.order.challenge.repository.local;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// A preallocated, memory-mapped file of fixed-width slots. Slot 0 is the header; records are appended from slot 1.
+final class LocalSegment {
+
+    static final String SUFFIX = ".seg";
+    static final String COMPACTING_SUFFIX = ".compacting";
+
+    private static final long HEADER_MAGIC = 0x4F5244455253454CL;
+    private static final int FORMAT_VERSION = 1;
+
+    private final int id;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private Path path;
+    private int next = 1;
+    private int forcedThrough;
+
+    private LocalSegment(int id, Path path, int capacity, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+
+    static LocalSegment create(Path directory, int id, int capacity, String suffix) {
+        Path path = directory.resolve(fileName(id, suffix));
+        LocalSegment segment = new LocalSegment(id, path, capacity, map(path, capacity, true));
+        segment.buffer.putLong(0, HEADER_MAGIC);
+        segment.buffer.putInt(8, FORMAT_VERSION);
+        segment.buffer.putInt(12, LocalOrderRecord.SIZE);
+        segment.buffer.putInt(16, id);
+        return segment;
+    }
+
+    static LocalSegment open(Path path) {
+        try {
+            int capacity = (int) (Files.size(path) / LocalOrderRecord.SIZE);
+            MappedByteBuffer buffer = map(path, capacity, false);
+            if (buffer.getLong(0) != HEADER_MAGIC || buffer.getInt(8) != FORMAT_VERSION
+                    || buffer.getInt(12) != LocalOrderRecord.SIZE) {
+                throw new IllegalStateException("Unsupported segment file " + path);
+            }
+            return new LocalSegment(buffer.getInt(16), path, capacity, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open segment " + path, e);
+        }
+    }
+
+    static String fileName(int id, String suffix) {
+        return String.format("orders-%08d%s", id, suffix);
+    }
+
+    int id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    // Slots [1, recordCount) have been written.
+    int recordCount() {
+        return next;
+    }
+
+    boolean isFull() {
+        return next >= capacity;
+    }
+
+    static int offsetOf(int slot) {
+        return slot * LocalOrderRecord.SIZE;
+    }
+
+    int append(ByteBuffer record) {
+        int slot = next++;
+        buffer.put(offsetOf(slot), record, 0, LocalOrderRecord.SIZE);
+        return slot;
+    }
+
+    // Scans forward from slot 1 and stops at the first slot that is unwritten or torn; anything after it is wiped,
+    // since with the page cache flushed out of order a later slot may have reached the disk before the torn one.
+    int recover() {
+        int slot = 1;
+        while (slot < capacity && LocalOrderRecord.isValid(buffer, offsetOf(slot))) {
+            slot++;
+        }
+        next = slot;
+        int torn = 0;
+        for (int wipe = slot; wipe < capacity && !LocalOrderRecord.isEmpty(buffer, offsetOf(wipe)); wipe++) {
+            buffer.put(offsetOf(wipe), new byte[LocalOrderRecord.SIZE]);
+            torn++;
+        }
+        return torn;
+    }
+
+    synchronized void force() {
+        buffer.force();
+        forcedThrough = next - 1;
+    }
+
+    // Group commit: one force covers every slot appended before it, so writers queued behind it find their slot
+    // already on the device and return without forcing again.
+    synchronized void forceThrough(int slot) {
+        if (slot <= forcedThrough) {
+            return;
+        }
+        int from = forcedThrough + 1;
+        buffer.force(offsetOf(from), (slot - from + 1) * LocalOrderRecord.SIZE);
+        forcedThrough = slot;
+    }
+
+    void rename(String suffix) {
+        try {
+            path = Files.move(path, path.resolveSibling(fileName(id, suffix)), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rename segment " + path, e);
+        }
+    }
+
+    // The mapping stays valid until it is garbage collected; on POSIX systems deleting the file does not disturb it.
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete segment " + path, e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity, boolean create) {
+        StandardOpenOption[] options = create
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * LocalOrderRecord.SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment " + path, e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.order.challenge.repository.local;
+
+import java.nio.ByteBuffer;
+
+// Open-addressing hash table in a direct buffer: 24-byte entries of (id msb, id lsb, location), linear probing.
+// A zero location marks a free slot, which is why locations are never zero. Callers serialize writes.
+final class OffHeapOrderIndex {
+
+    private static final int ENTRY_SIZE = 24;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / ENTRY_SIZE;
+    private static final double MAX_LOAD = 0.7;
+
+    private ByteBuffer table;
+    private int mask;
+    private int size;
+
+    OffHeapOrderIndex(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+    }
+
+    long get(long msb, long lsb) {
+        for (int slot = slotOf(msb, lsb); ; slot = (slot + 1) & mask) {
+            int offset = slot * ENTRY_SIZE;
+            long location = table.getLong(offset + 16);
+            if (location == 0) {
+                return 0;
+            }
+            if (table.getLong(offset) == msb && table.getLong(offset + 8) == lsb) {
+                return location;
+            }
+        }
+    }
+
+    // Returns the previous location, or zero when the id is new.
+    long put(long msb, long lsb, long location) {
+        if (location == 0) {
+            throw new IllegalArgumentException("A location of zero is reserved for free slots.");
+        }
+        if (size + 1 > (mask + 1) * MAX_LOAD) {
+            grow();
+        }
+        for (int slot = slotOf(msb, lsb); ; slot = (slot + 1) & mask) {
+            int offset = slot * ENTRY_SIZE;
+            long previous = table.getLong(offset + 16);
+            if (previous == 0) {
+                table.putLong(offset, msb);
+                table.putLong(offset + 8, lsb);
+                table.putLong(offset + 16, location);
+                size++;
+                return 0;
+            }
+            if (table.getLong(offset) == msb && table.getLong(offset + 8) == lsb) {
+                table.putLong(offset + 16, location);
+                return previous;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            int offset = slot * ENTRY_SIZE;
+            long location = table.getLong(offset + 16);
+            if (location != 0) {
+                consumer.accept(table.getLong(offset), table.getLong(offset + 8), location);
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = (mask + 1) << 1;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("The order index cannot grow beyond " + MAX_CAPACITY + " slots.");
+        }
+        ByteBuffer previous = table;
+        int previousSlots = mask + 1;
+        allocate(capacity);
+        for (int slot = 0; slot < previousSlots; slot++) {
+            int offset = slot * ENTRY_SIZE;
+            long location = previous.getLong(offset + 16);
+            if (location != 0) {
+                put(previous.getLong(offset), previous.getLong(offset + 8), location);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = ByteBuffer.allocateDirect(capacity * ENTRY_SIZE);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    // Random UUIDs are already uniform, but a mix keeps time-ordered ones from clustering.
+    private int slotOf(long msb, long lsb) {
+        long hash = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long msb, long lsb, long location);
+    }
+}
@@ -0,0 +1,42 @@
+package com.order.challenge.request;
+
+import com.order.challenge.pagination.OrderCursorToken;
+import com.order.challenge.repository.OrderQuery;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderListRequest {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String barCode;
+
+    private String after;
+
+    private Integer limit;
+
+    public OrderQuery toQuery(String continuationToken) {
+        OrderCursorToken.Position position = OrderCursorToken.parse(continuationToken != null ? continuationToken : after);
+        return OrderQuery.builder()
+                .from(from)
+                .to(to)
+                .barCode(barCode)
+                .afterCreatedAt(position == null ? null : position.createdAt())
+                .afterOrderId(position == null ? null : position.orderId())
+                .limit(limit)
+                .build();
+    }
+}
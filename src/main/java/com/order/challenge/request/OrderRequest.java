@@ -1,5 +1,6 @@
 package com.order.challenge.request;
 
+import com.order.challenge.money.Money;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -9,7 +10,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
@@ -30,5 +30,5 @@ public class OrderRequest {
 
     @NotNull(message = "The price must be provided.")
     @DecimalMin(value = "0.01", inclusive = true, message = "The price must be greater than zero.")
-    private BigDecimal price;
+    private Money price;
 }
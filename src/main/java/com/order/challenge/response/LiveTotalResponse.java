@@ -0,0 +1,18 @@
+package com.order.challenge.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveTotalResponse {
+
+    private BigDecimal totalValue;
+    private long orderCount;
+}
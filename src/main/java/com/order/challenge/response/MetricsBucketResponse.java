@@ -0,0 +1,23 @@
+package com.order.challenge.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricsBucketResponse {
+
+    private LocalDateTime bucketStart;
+    private long orderCount;
+    private BigDecimal totalValue;
+    private BigDecimal minValue;
+    private BigDecimal maxValue;
+    private BigDecimal averageValue;
+}
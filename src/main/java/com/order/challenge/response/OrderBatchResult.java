@@ -0,0 +1,23 @@
+package com.order.challenge.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.order.challenge.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderBatchResult {
+
+    private UUID orderId;
+    private BatchItemStatus status;
+    private OrderResponse order;
+    private String error;
+}
@@ -1,12 +1,12 @@
 package com.order.challenge.response;
 
 import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -19,8 +19,8 @@ public class OrderResponse {
     private UUID orderId;
     private String barCode;
     private Integer quantity;
-    private BigDecimal price;
-    private BigDecimal totalValue;
+    private Money price;
+    private Money totalValue;
     private LocalDateTime createdAt;
     private OrderStatus status;
 }
@@ -0,0 +1,20 @@
+package com.order.challenge.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopBarcodeEntry {
+
+    private String barCode;
+    private BigDecimal estimate;
+    private BigDecimal maxError;
+    private boolean guaranteed;
+}
@@ -0,0 +1,22 @@
+package com.order.challenge.response;
+
+import com.order.challenge.enums.TopBarcodeRanking;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopBarcodesResponse {
+
+    private TopBarcodeRanking ranking;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<TopBarcodeEntry> entries;
+}
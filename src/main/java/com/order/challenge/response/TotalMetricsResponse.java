@@ -1,4 +1,30 @@
 package com.order.challenge.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.order.challenge.enums.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TotalMetricsResponse {
+
+    private RollupGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long orderCount;
+    private BigDecimal totalValue;
+    private BigDecimal minValue;
+    private BigDecimal maxValue;
+    private BigDecimal averageValue;
+    private List<MetricsBucketResponse> buckets;
 }
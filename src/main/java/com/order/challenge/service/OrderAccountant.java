@@ -0,0 +1,86 @@
+package com.order.challenge.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Inline accounting: orders are inserted already ACCOUNTED, so the insert is what claims them and counting costs
+// only the counter write. An order handed back as NOT_ACCOUNTED is counted only by the call that flips it again,
+// so a retry, a replay or the change-stream pipeline never counts it twice.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderAccountant {
+
+    private static final UpdateResult NOTHING_TO_COUNT = UpdateResult.acknowledged(0, 0L, null);
+
+    private final OrderAccountingRepositoryCustom accountingRepository;
+    private final TotalMetricsRepositoryCustom totalMetricsRepository;
+
+    // Failed lookups are not cached, so the next caller tries again.
+    private final Mono<LocalDateTime> cutover = Mono.defer(this::recordCutover)
+            .cache(value -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+
+    // If the counter cannot be written the orders are handed back, for a retry, a replay or the backlog to count.
+    public Mono<UpdateResult> accountInserted(Collection<OrderEntity> orders) {
+        if (orders.isEmpty()) {
+            return Mono.just(NOTHING_TO_COUNT);
+        }
+        List<UUID> orderIds = new ArrayList<>(orders.size());
+        orders.forEach(order -> orderIds.add(order.getOrderId()));
+        return recordOrReleaseClaim(orders, orderIds);
+    }
+
+    public Mono<UpdateResult> account(Collection<OrderEntity> orders) {
+        List<UUID> orderIds = new ArrayList<>(orders.size());
+        orders.forEach(order -> orderIds.add(order.getOrderId()));
+
+        return accountingRepository.claim(orderIds)
+                .flatMap(claimedIds -> {
+                    if (claimedIds.isEmpty()) {
+                        return Mono.just(NOTHING_TO_COUNT);
+                    }
+                    Set<UUID> claimed = new HashSet<>(claimedIds);
+                    List<OrderEntity> toCount = orders.stream()
+                            .filter(order -> claimed.contains(order.getOrderId()))
+                            .toList();
+
+                    return recordOrReleaseClaim(toCount, claimedIds);
+                });
+    }
+
+    // Orders created from this time on carry a status that tells whether they were counted.
+    public Mono<LocalDateTime> cutover() {
+        return cutover;
+    }
+
+    // Handing the claim back lets a retry or the pipeline count these orders later.
+    private Mono<UpdateResult> recordOrReleaseClaim(Collection<OrderEntity> orders, List<UUID> claimedIds) {
+        return totalMetricsRepository.recordOrders(orders)
+                .onErrorResume(error -> accountingRepository.release(claimedIds)
+                        .onErrorResume(releaseError -> {
+                            log.error("Failed to release {} orders after a failed metrics update. Error: {}",
+                                    claimedIds.size(), releaseError.getMessage());
+                            return Mono.empty();
+                        })
+                        .then(Mono.error(error)));
+    }
+
+    private Mono<LocalDateTime> recordCutover() {
+        return accountingRepository.recordCutover(OrderAccountingPipeline.PIPELINE_ID);
+    }
+}
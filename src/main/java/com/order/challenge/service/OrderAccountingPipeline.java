@@ -0,0 +1,127 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.repository.local.LocalOrderStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@Profile("!" + LocalOrderStore.PROFILE)
+@RequiredArgsConstructor
+public class OrderAccountingPipeline {
+
+    static final String PIPELINE_ID = "order-accounting";
+
+    private final OrderAccountingRepositoryCustom accountingRepository;
+    private final TotalMetricsRepositoryCustom totalMetricsRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final MetricsProperties metricsProperties;
+    private final OrderAccountant orderAccountant;
+
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (metricsProperties.isInlineAccounting()) {
+            // Recorded up front, so a later switch to the change stream knows which pending orders are really pending.
+            subscription = orderAccountant.cutover()
+                    .subscribe(null, error -> log.warn("Failed to record the accounting cutover. Error: {}", error.getMessage()));
+            return;
+        }
+        log.info("Starting change-stream accounting pipeline.");
+        subscription = Flux.merge(accountBacklog(), accountChanges())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    Mono<Void> account(List<OrderEntity> candidates, BsonValue resumeToken) {
+        List<UUID> candidateIds = new ArrayList<>(candidates.size());
+        candidates.forEach(order -> candidateIds.add(order.getOrderId()));
+
+        // Status flip, metrics update and checkpoint commit together, so a replayed event never counts twice.
+        Mono<Void> work = accountingRepository.findNotAccounted(candidateIds)
+                .collectList()
+                .flatMap(pending -> {
+                    if (pending.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    List<UUID> pendingIds = new ArrayList<>(pending.size());
+                    pending.forEach(order -> pendingIds.add(order.getOrderId()));
+                    log.debug("Accounting {} orders.", pending.size());
+
+                    return accountingRepository.markAccounted(pendingIds)
+                            .then(totalMetricsRepository.recordOrders(pending));
+                })
+                .then(resumeToken == null
+                        ? Mono.empty()
+                        : accountingRepository.saveResumeToken(PIPELINE_ID, resumeToken));
+
+        return transactionalOperator.transactional(work)
+                .retryWhen(Retry.backoff(5, Duration.ofMillis(50)));
+    }
+
+    // Orders from before the cutover were counted inline without their status being flipped, so they are left alone.
+    private Flux<Void> accountBacklog() {
+        MetricsProperties.Accounting accounting = metricsProperties.getAccounting();
+        return orderAccountant.cutover()
+                .flatMapMany(accountingRepository::findNotAccounted)
+                .buffer(accounting.getBatchSize())
+                .concatMap(batch -> account(batch, null))
+                .doOnComplete(() -> log.info("Finished accounting orders left over from previous runs."))
+                .onErrorResume(error -> {
+                    log.error("Failed to account order backlog. Error: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<Void> accountChanges() {
+        MetricsProperties.Accounting accounting = metricsProperties.getAccounting();
+        return Flux.defer(() -> accountingRepository.findResumeToken(PIPELINE_ID)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMapMany(token -> accountingRepository.watchInserts(token.orElse(null))))
+                .bufferTimeout(accounting.getBatchSize(), accounting.getMaxDelay(), true)
+                .concatMap(this::accountEvents)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Accounting change stream failed, resuming from last checkpoint. Error: {}",
+                                signal.failure().getMessage())));
+    }
+
+    private Mono<Void> accountEvents(List<ChangeStreamEvent<OrderEntity>> events) {
+        List<OrderEntity> orders = events.stream()
+                .map(ChangeStreamEvent::getBody)
+                .filter(Objects::nonNull)
+                .toList();
+        return account(orders, events.get(events.size() - 1).getResumeToken());
+    }
+}
@@ -0,0 +1,53 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.repository.BulkInsertResult;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderBulkWriter {
+
+    private final OrderRepositoryCustom orderRepository;
+    private final OrderAccountant orderAccountant;
+    private final MetricsProperties metricsProperties;
+
+    public Mono<BulkInsertResult> write(List<OrderEntity> orderEntities) {
+        return orderRepository.insertAll(orderEntities)
+                .flatMap(result -> {
+                    if (result.getInserted().isEmpty() || !metricsProperties.isInlineAccounting()) {
+                        return Mono.just(result);
+                    }
+                    log.debug("Inserted {} of {} orders. Recording them in total metrics.",
+                            result.getInserted().size(), orderEntities.size());
+
+                    // The orders are stored either way, so a failed metrics update must not report them as failed.
+                    return orderAccountant.accountInserted(result.getInserted())
+                            .thenReturn(result)
+                            .onErrorResume(error -> {
+                                log.warn("Inserted {} orders but failed to record them in total metrics. Retrying in the background. Error: {}",
+                                        result.getInserted().size(), error.getMessage());
+                                accountLater(result.getInserted());
+                                return Mono.just(result);
+                            });
+                });
+    }
+
+    // The failed attempt handed the orders back as NOT_ACCOUNTED, and only a claim that flips them counts them.
+    private void accountLater(List<OrderEntity> inserted) {
+        orderAccountant.account(inserted)
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(1)))
+                .subscribe(null, error -> log.error("Gave up recording {} inserted orders in total metrics. Error: {}",
+                        inserted.size(), error.getMessage()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.enums.TopBarcodeRanking;
+import com.order.challenge.exception.InvalidMetricsRangeException;
+import com.order.challenge.ranking.TopBarcodeTracker;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.response.MetricsBucketResponse;
+import com.order.challenge.response.TopBarcodesResponse;
+import com.order.challenge.response.TotalMetricsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OrderMetricsService {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(24);
+    private static final int AVERAGE_SCALE = 2;
+
+    private final TotalMetricsRepositoryCustom totalMetricsRepository;
+    private final MetricsProperties metricsProperties;
+    private final TopBarcodeTracker topBarcodeTracker;
+
+    public Mono<TotalMetricsResponse> getTotalMetrics() {
+        return totalMetricsRepository.findTotalMetrics()
+                .map(this::toResponse)
+                .defaultIfEmpty(TotalMetricsResponse.builder()
+                        .totalValue(BigDecimal.ZERO)
+                        .build());
+    }
+
+    public Mono<TotalMetricsResponse> getRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime rangeStart = from != null ? from : rangeEnd.minus(DEFAULT_RANGE);
+        if (rangeStart.isAfter(rangeEnd)) {
+            return Mono.error(new InvalidMetricsRangeException("'from' must not be after 'to'"));
+        }
+        if (granularity.bucketsBetween(rangeStart, rangeEnd) > metricsProperties.getMaxRollupBuckets()) {
+            return Mono.error(new InvalidMetricsRangeException(String.format(
+                    "Range covers more than %d %s buckets", metricsProperties.getMaxRollupBuckets(), granularity)));
+        }
+
+        return totalMetricsRepository.findRollups(granularity, rangeStart, rangeEnd)
+                .map(this::toBucket)
+                .collectList()
+                .map(buckets -> summarize(granularity, rangeStart, rangeEnd, buckets));
+    }
+
+    public Mono<TopBarcodesResponse> getTopBarcodes(TopBarcodeRanking ranking, int limit, Duration window) {
+        return topBarcodeTracker.top(ranking, limit, window);
+    }
+
+    private TotalMetricsResponse toResponse(TotalMetricsEntity metrics) {
+        long orderCount = metrics.getOrderCount() == null ? 0 : metrics.getOrderCount();
+        // A legacy total includes orders that were never counted, so it has no meaningful average.
+        boolean countComplete = !Boolean.FALSE.equals(metrics.getCountComplete());
+        return TotalMetricsResponse.builder()
+                .orderCount(orderCount)
+                .totalValue(metrics.getTotalValue())
+                .minValue(metrics.getMinValue())
+                .maxValue(metrics.getMaxValue())
+                .averageValue(countComplete ? average(metrics.getTotalValue(), orderCount) : null)
+                .build();
+    }
+
+    private MetricsBucketResponse toBucket(MetricsRollupEntity rollup) {
+        long orderCount = rollup.getOrderCount() == null ? 0 : rollup.getOrderCount();
+        return MetricsBucketResponse.builder()
+                .bucketStart(rollup.getBucketStart())
+                .orderCount(orderCount)
+                .totalValue(rollup.getTotalValue())
+                .minValue(rollup.getMinValue())
+                .maxValue(rollup.getMaxValue())
+                .averageValue(average(rollup.getTotalValue(), orderCount))
+                .build();
+    }
+
+    private TotalMetricsResponse summarize(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                           List<MetricsBucketResponse> buckets) {
+        long orderCount = 0;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal minValue = null;
+        BigDecimal maxValue = null;
+        for (MetricsBucketResponse bucket : buckets) {
+            orderCount += bucket.getOrderCount();
+            totalValue = totalValue.add(bucket.getTotalValue());
+            if (bucket.getMinValue() != null) {
+                minValue = minValue == null ? bucket.getMinValue() : minValue.min(bucket.getMinValue());
+            }
+            if (bucket.getMaxValue() != null) {
+                maxValue = maxValue == null ? bucket.getMaxValue() : maxValue.max(bucket.getMaxValue());
+            }
+        }
+        return TotalMetricsResponse.builder()
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .orderCount(orderCount)
+                .totalValue(totalValue)
+                .minValue(minValue)
+                .maxValue(maxValue)
+                .averageValue(average(totalValue, orderCount))
+                .buckets(buckets)
+                .build();
+    }
+
+    private static BigDecimal average(BigDecimal totalValue, long orderCount) {
+        if (totalValue == null || orderCount == 0) {
+            return null;
+        }
+        return totalValue.divide(BigDecimal.valueOf(orderCount), AVERAGE_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
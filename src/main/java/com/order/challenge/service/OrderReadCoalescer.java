@@ -0,0 +1,50 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.ReadCoalescingProperties;
+import com.order.challenge.response.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// During flash traffic many clients read the same order or the same total at once; one query answers all of them.
+@Component
+public class OrderReadCoalescer {
+
+    public static final String NAME = "orders.read.coalescing";
+
+    private static final String TOTAL_VALUE = "total-value";
+
+    private final ReadCoalescingProperties properties;
+    private final SingleFlight<UUID, OrderResponse> orders;
+    private final SingleFlight<String, BigDecimal> totalValue;
+
+    public OrderReadCoalescer(ReadCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.orders = singleFlight(meterRegistry, "get");
+        this.totalValue = singleFlight(meterRegistry, "total-value");
+    }
+
+    public Mono<OrderResponse> order(UUID orderId, Supplier<Mono<OrderResponse>> lookup) {
+        return properties.isEnabled() ? orders.execute(orderId, lookup) : Mono.defer(lookup);
+    }
+
+    public Mono<BigDecimal> totalValue(Supplier<Mono<BigDecimal>> lookup) {
+        return properties.isEnabled() ? totalValue.execute(TOTAL_VALUE, lookup) : Mono.defer(lookup);
+    }
+
+    private static <K, V> SingleFlight<K, V> singleFlight(MeterRegistry meterRegistry, String operation) {
+        return new SingleFlight<>(calls(meterRegistry, operation, "executed"), calls(meterRegistry, operation, "merged"));
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Counter.builder(NAME + ".calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,21 +1,44 @@
 package com.order.challenge.service;
 
+import com.order.challenge.cache.OrderExistenceFilter;
+import com.order.challenge.cache.OrderResponseCache;
+import com.order.challenge.config.IngestProperties;
+import com.order.challenge.config.MetricsProperties;
 import com.order.challenge.entities.OrderEntity;
 import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.BatchItemStatus;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.exception.InvalidOrderQueryException;
+import com.order.challenge.exception.OrderConflictException;
+import com.order.challenge.exception.OrderOverloadedException;
 import com.order.challenge.exception.OrderNotFoundException;
 import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.limit.OrderConcurrencyLimiter;
+import com.order.challenge.live.OrderLiveFeed;
 import com.order.challenge.mapper.OrderMapper;
+import com.order.challenge.money.Money;
+import com.order.challenge.observation.OrderEvents;
+import com.order.challenge.observation.OrderStageObserver;
+import com.order.challenge.ranking.TopBarcodeTracker;
+import com.order.challenge.repository.OrderQuery;
 import com.order.challenge.repository.OrderRepositoryCustom;
 import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderBatchResult;
 import com.order.challenge.response.OrderResponse;
 import com.order.challenge.repository.TotalMetricsRepositoryCustom;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Slf4j
@@ -23,34 +46,210 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final String CREATE = "create";
+    private static final String GET = "get";
 
     private final OrderMapper orderMapper;
     private final OrderRepositoryCustom orderRepository;
     private final TotalMetricsRepositoryCustom totalMetricsRepository;
+    private final OrderAccountant orderAccountant;
+    private final OrderBulkWriter orderBulkWriter;
+    private final OrderWriteCoalescer orderWriteCoalescer;
+    private final IngestProperties ingestProperties;
+    private final MetricsProperties metricsProperties;
+    private final OrderResponseCache orderResponseCache;
+    private final OrderExistenceFilter orderExistenceFilter;
+    private final TopBarcodeTracker topBarcodeTracker;
+    private final OrderLiveFeed orderLiveFeed;
+    private final OrderStageObserver orderStageObserver;
+    private final OrderConcurrencyLimiter orderConcurrencyLimiter;
+    private final OrderReadCoalescer orderReadCoalescer;
 
     public Mono<OrderResponse> createOrder(OrderRequest request) {
 
         log.info("Received request to create a new order. BarCode: {}", request.getBarCode());
-        OrderEntity orderEntityToPersist = orderMapper.toEntity(request);
-
-        BigDecimal totalValue = orderEntityToPersist.getPrice().multiply(new BigDecimal(orderEntityToPersist.getQuantity()));
+        // A client retry usually lands within seconds, while the order it created is still cached.
+        OrderResponse recent = request.getOrderId() == null ? null : orderResponseCache.get(request.getOrderId());
+        if (recent != null) {
+            return replay(request, recent);
+        }
 
-        orderEntityToPersist.setOrderId(request.getOrderId());
-        orderEntityToPersist.setTotalValue(totalValue);
-        orderEntityToPersist.setCreatedAt(LocalDateTime.now());
+        OrderEntity orderEntityToPersist = orderStageObserver.observe(CREATE, "prepare", () -> prepareForPersistence(request));
 
         log.info("Total value calculated for the order (BarCode: {}): {}",
-                orderEntityToPersist.getBarCode(), totalValue);
+                orderEntityToPersist.getBarCode(), orderEntityToPersist.getTotalValue());
+
+        return orderConcurrencyLimiter.limit(CREATE, () -> persist(orderEntityToPersist)
+                .map(orderMapper::toResponse)
+                .doOnNext(response -> orderStageObserver.observe(CREATE, "remember", () -> remember(response)))
+                .onErrorResume(DuplicateKeyException.class, duplicate -> replayStored(request))
+                .doOnError(error -> log.error("Persistence failed. BarCode: {}. Error: {}", request.getBarCode(), error.getMessage())));
+    }
+
+    public Flux<OrderBatchResult> createOrders(Flux<OrderRequest> requests) {
+        IngestProperties.Batch batch = ingestProperties.getBatch();
+
+        return requests
+                .buffer(batch.getChunkSize())
+                .flatMapSequential(this::createChunk, batch.getConcurrency());
+    }
+
+    public Mono<OrderResponse> getOrderById(UUID orderId) {
+        return getOrderById(orderId, null);
+    }
+
+    public Mono<OrderResponse> getOrderById(UUID orderId, BsonTimestamp afterOperationTime) {
+        OrderResponse cached = orderResponseCache.get(orderId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        // A caller presenting a write token may have written through another instance the filter has not heard of yet.
+        if (afterOperationTime == null && orderExistenceFilter.isDefinitelyAbsent(orderId)) {
+            OrderEvents.notFound(orderId, true);
+            return Mono.error(new OrderNotFoundException("Order not found with ID: " + orderId));
+        }
+
+        // A causal read must see the caller's own write, which a lookup already in flight may have started before.
+        return afterOperationTime == null
+                ? orderReadCoalescer.order(orderId, () -> findOrder(orderId, orderRepository.findByOrderId(orderId)))
+                : findOrder(orderId, orderRepository.findByOrderId(orderId, afterOperationTime));
+    }
 
-        return orderRepository.save(orderEntityToPersist)
-                .onErrorMap(throwable -> {
-                    String errorMessage = String.format("Failed to save order with BarCode: %s", request.getBarCode());
-                    return new OrderPersistenceException(errorMessage, throwable);
+    private Mono<OrderResponse> findOrder(UUID orderId, Mono<OrderEntity> stored) {
+        return orderConcurrencyLimiter.limit(GET, () -> orderStageObserver.observe(GET, "find", stored))
+                .switchIfEmpty(Mono.error(() -> {
+                    OrderEvents.notFound(orderId, false);
+                    return new OrderNotFoundException("Order not found with ID: " + orderId);
+                }))
+                .map(orderMapper::toResponse)
+                .doOnNext(orderResponseCache::put);
+    }
+
+    public Flux<OrderResponse> findOrders(OrderQuery query) {
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            return Flux.error(new InvalidOrderQueryException("'from' must be before 'to'"));
+        }
+        if (query.getLimit() != null && query.getLimit() < 1) {
+            return Flux.error(new InvalidOrderQueryException("'limit' must be positive"));
+        }
+        return orderRepository.findOrders(query)
+                .map(orderMapper::toResponse);
+    }
+
+    public Mono<BigDecimal> getTotalOrderValue() {
+        return orderReadCoalescer.totalValue(() -> totalMetricsRepository.findTotalMetrics()
+                .map(TotalMetricsEntity::getTotalValue)
+                .defaultIfEmpty(BigDecimal.ZERO));
+    }
+
+    private Flux<OrderBatchResult> createChunk(List<OrderRequest> chunk) {
+        List<OrderEntity> orderEntitiesToPersist = new ArrayList<>(chunk.size());
+        List<OrderBatchResult> rejected = new ArrayList<>();
+        for (OrderRequest request : chunk) {
+            if (isIncomplete(request)) {
+                rejected.add(failed(request.getOrderId(), "The orderId, quantity and price must be provided."));
+            } else {
+                orderEntitiesToPersist.add(prepareForPersistence(request));
+            }
+        }
+
+        log.info("Received batch chunk with {} orders ({} rejected before persistence).", chunk.size(), rejected.size());
+
+        return orderBulkWriter.write(orderEntitiesToPersist)
+                .flatMapIterable(result -> {
+                    List<OrderBatchResult> results = new ArrayList<>(chunk.size());
+                    result.getInserted().forEach(saved -> {
+                        OrderResponse response = orderMapper.toResponse(saved);
+                        remember(response);
+                        results.add(OrderBatchResult.builder()
+                                .orderId(saved.getOrderId())
+                                .status(BatchItemStatus.CREATED)
+                                .order(response)
+                                .build());
+                    });
+                    result.getFailures().forEach((index, error) ->
+                            results.add(failed(orderEntitiesToPersist.get(index).getOrderId(), error)));
+                    results.addAll(rejected);
+                    return results;
                 })
+                .onErrorResume(error -> {
+                    log.error("Batch chunk persistence failed. Orders: {}. Error: {}", chunk.size(), error.getMessage());
+                    List<OrderBatchResult> results = new ArrayList<>(chunk.size());
+                    orderEntitiesToPersist.forEach(order -> results.add(failed(order.getOrderId(), error.getMessage())));
+                    results.addAll(rejected);
+                    return Flux.fromIterable(results);
+                });
+    }
+
+    // The insert lost to an earlier attempt with the same orderId.
+    private Mono<OrderResponse> replayStored(OrderRequest request) {
+        log.info("Order {} already exists. Replaying the stored order.", request.getOrderId());
+        return orderRepository.findByOrderIdOnPrimary(request.getOrderId())
+                .switchIfEmpty(Mono.error(() -> new OrderPersistenceException(
+                        "Order " + request.getOrderId() + " was reported as a duplicate but could not be read back.")))
+                .flatMap(stored -> finishAccounting(stored).thenReturn(stored))
+                .map(orderMapper::toResponse)
+                .doOnNext(orderResponseCache::put)
+                .flatMap(stored -> replay(request, stored));
+    }
+
+    // The earlier attempt may have stored the order and then failed to count it. Only the claim that flips the
+    // status counts, and orders from before the cutover were counted without it being flipped.
+    private Mono<Void> finishAccounting(OrderEntity stored) {
+        if (!metricsProperties.isInlineAccounting() || stored.getStatus() != OrderStatus.NOT_ACCOUNTED) {
+            return Mono.empty();
+        }
+        return orderAccountant.cutover()
+                .filter(cutover -> !stored.getCreatedAt().isBefore(cutover))
+                .flatMap(cutover -> {
+                    log.info("Order {} was stored but not counted. Finishing its accounting.", stored.getOrderId());
+                    return orderStageObserver.observe(CREATE, "account", orderAccountant.account(List.of(stored)));
+                })
+                .then();
+    }
+
+    private static Mono<OrderResponse> replay(OrderRequest request, OrderResponse stored) {
+        if (!isSameOrder(request, stored)) {
+            return Mono.error(new OrderConflictException(
+                    "Order " + request.getOrderId() + " already exists with a different barCode, quantity or price."));
+        }
+        return Mono.just(stored);
+    }
+
+    private static boolean isSameOrder(OrderRequest request, OrderResponse stored) {
+        return Objects.equals(request.getBarCode(), stored.getBarCode())
+                && Objects.equals(request.getQuantity(), stored.getQuantity())
+                && request.getPrice() != null && stored.getPrice() != null
+                && request.getPrice().compareTo(stored.getPrice()) == 0;
+    }
+
+    private void remember(OrderResponse response) {
+        orderResponseCache.put(response);
+        orderExistenceFilter.record(response.getOrderId());
+        topBarcodeTracker.record(response.getBarCode(), response.getQuantity(), response.getTotalValue());
+        orderLiveFeed.publish(response);
+    }
+
+    private Mono<OrderEntity> persist(OrderEntity orderEntityToPersist) {
+        if (orderWriteCoalescer.isEnabled()) {
+            return orderStageObserver.observe(CREATE, "save", orderWriteCoalescer.submit(orderEntityToPersist))
+                    .onErrorMap(OrderService::isPersistenceFailure,
+                            throwable -> persistenceFailure(orderEntityToPersist, throwable));
+        }
+
+        Mono<OrderEntity> saved = orderStageObserver.observe(CREATE, "save", orderRepository.insert(orderEntityToPersist))
+                .onErrorMap(OrderService::isPersistenceFailure,
+                        throwable -> persistenceFailure(orderEntityToPersist, throwable));
+
+        if (!metricsProperties.isInlineAccounting()) {
+            return saved;
+        }
+
+        return saved
                 .flatMap(savedOrder -> {
                     log.info("Order successfully saved. Starting total metrics update.");
 
-                    return totalMetricsRepository.incrementTotalValue(savedOrder.getTotalValue())
+                    return orderStageObserver.observe(CREATE, "account", orderAccountant.accountInserted(List.of(savedOrder)))
                             .doOnNext(updateResult -> {
                                 if (updateResult != null) {
                                     log.debug("Metrics updated. Matched: {}, Modified: {}",
@@ -61,20 +260,44 @@ public class OrderService {
                                 }
                             })
                             .thenReturn(savedOrder);
-                })
-                .map(orderMapper::toResponse)
-                .doOnError(error -> log.error("Persistence failed. BarCode: {}. Error: {}", request.getBarCode(), error.getMessage()));
+                });
     }
 
-    public Mono<OrderResponse> getOrderById(UUID orderId) {
-        return orderRepository.findByOrderId(orderId)
-                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException("Order not found with ID: " + orderId)))
-                .map(orderMapper::toResponse);
+    // Duplicates are replayed and shed writes already carry their 503, so neither becomes a 500.
+    private static boolean isPersistenceFailure(Throwable throwable) {
+        return !(throwable instanceof DuplicateKeyException) && !(throwable instanceof OrderOverloadedException);
     }
 
-    public Mono<BigDecimal> getTotalOrderValue() {
-        return totalMetricsRepository.findTotalMetrics()
-                .map(TotalMetricsEntity::getTotalValue)
-                .defaultIfEmpty(BigDecimal.ZERO);
+    private static OrderPersistenceException persistenceFailure(OrderEntity orderEntity, Throwable throwable) {
+        String errorMessage = String.format("Failed to save order with BarCode: %s", orderEntity.getBarCode());
+        return new OrderPersistenceException(errorMessage, throwable);
+    }
+
+    private OrderEntity prepareForPersistence(OrderRequest request) {
+        OrderEntity orderEntityToPersist = orderMapper.toEntity(request);
+
+        orderEntityToPersist.setOrderId(request.getOrderId());
+        orderEntityToPersist.setTotalValue(totalValueOf(orderEntityToPersist));
+        orderEntityToPersist.setCreatedAt(LocalDateTime.now());
+        // Inline, the insert itself claims the order; the pipeline looks for NOT_ACCOUNTED orders to count.
+        orderEntityToPersist.setStatus(metricsProperties.isInlineAccounting()
+                ? OrderStatus.ACCOUNTED : OrderStatus.NOT_ACCOUNTED);
+        return orderEntityToPersist;
+    }
+
+    static Money totalValueOf(OrderEntity orderEntity) {
+        return orderEntity.getPrice().times(orderEntity.getQuantity());
+    }
+
+    private static boolean isIncomplete(OrderRequest request) {
+        return request.getOrderId() == null || request.getQuantity() == null || request.getPrice() == null;
+    }
+
+    private static OrderBatchResult failed(UUID orderId, String error) {
+        return OrderBatchResult.builder()
+                .orderId(orderId)
+                .status(BatchItemStatus.FAILED)
+                .error(error)
+                .build();
     }
 }
\ No newline at end of file
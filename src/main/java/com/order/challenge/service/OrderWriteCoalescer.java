@@ -0,0 +1,150 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.IngestProperties;
+import com.order.challenge.consistency.OperationTimeHolder;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.exception.OrderOverloadedException;
+import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.repository.BulkInsertResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderWriteCoalescer {
+
+    private final OrderBulkWriter orderBulkWriter;
+    private final IngestProperties ingestProperties;
+
+    // Guards the sink, so nothing is handed to it once stop() has completed it.
+    private final Object submissions = new Object();
+
+    private FluxSink<PendingWrite> pendingWrites;
+    private boolean stopped;
+    private Disposable pipeline;
+    private CompletableFuture<Void> drained;
+
+    public boolean isEnabled() {
+        return ingestProperties.getCoalescing().isEnabled();
+    }
+
+    @PostConstruct
+    void start() {
+        IngestProperties.Coalescing coalescing = ingestProperties.getCoalescing();
+        if (!coalescing.isEnabled()) {
+            return;
+        }
+        drained = new CompletableFuture<>();
+        pipeline = Flux.<PendingWrite>create(sink -> {
+                    synchronized (submissions) {
+                        pendingWrites = sink;
+                    }
+                })
+                .bufferTimeout(coalescing.getMaxBatchSize(), coalescing.getMaxDelay(), true)
+                .flatMap(this::writeBatch, coalescing.getConcurrency())
+                // Writes still buffered or in flight when the pipeline is cancelled would otherwise never complete.
+                .doOnDiscard(PendingWrite.class, pendingWrite -> pendingWrite.sink().error(stoppedFailure()))
+                .doFinally(signal -> drained.complete(null))
+                .subscribe();
+    }
+
+    // Completing the source flushes the partial buffer; whatever has not been written by the timeout is failed.
+    @PreDestroy
+    void stop() {
+        synchronized (submissions) {
+            stopped = true;
+            if (pendingWrites != null) {
+                pendingWrites.complete();
+            }
+        }
+        if (pipeline == null) {
+            return;
+        }
+        try {
+            drained.get(ingestProperties.getCoalescing().getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Coalesced order writes did not finish before shutdown. Failing the rest.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pipeline.dispose();
+        }
+    }
+
+    public Mono<OrderEntity> submit(OrderEntity orderEntity) {
+        return Mono.create(sink -> {
+            synchronized (submissions) {
+                if (stopped || pendingWrites == null) {
+                    sink.error(stoppedFailure());
+                    return;
+                }
+                pendingWrites.next(new PendingWrite(orderEntity, sink));
+            }
+        });
+    }
+
+    private static OrderPersistenceException stoppedFailure() {
+        return new OrderPersistenceException("The order write coalescer is stopped.");
+    }
+
+    private Mono<Void> writeBatch(List<PendingWrite> batch) {
+        List<OrderEntity> orderEntities = new ArrayList<>(batch.size());
+        batch.forEach(pendingWrite -> orderEntities.add(pendingWrite.orderEntity()));
+
+        log.debug("Coalesced {} order writes into one bulk insert.", batch.size());
+
+        return orderBulkWriter.write(orderEntities)
+                .doOnNext(result -> complete(batch, result))
+                .onErrorResume(error -> {
+                    Throwable failure = error instanceof OrderOverloadedException ? error : new OrderPersistenceException(error);
+                    batch.forEach(pendingWrite -> pendingWrite.sink().error(failure));
+                    return Mono.empty();
+                })
+                .doOnCancel(() -> batch.forEach(pendingWrite -> pendingWrite.sink().error(stoppedFailure())))
+                .then();
+    }
+
+    private void complete(List<PendingWrite> batch, BulkInsertResult result) {
+        // Identity matters: the same orderId may be coalesced twice and only one copy gets inserted.
+        Set<OrderEntity> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        inserted.addAll(result.getInserted());
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite pendingWrite = batch.get(i);
+            OrderEntity orderEntity = pendingWrite.orderEntity();
+            if (inserted.contains(orderEntity)) {
+                pendingWrite.sink().contextView().<OperationTimeHolder>getOrEmpty(OperationTimeHolder.class)
+                        .ifPresent(holder -> holder.advance(result.getOperationTime()));
+                pendingWrite.sink().success(orderEntity);
+            } else {
+                String error = result.getFailures().getOrDefault(i, "Bulk insert failed.");
+                pendingWrite.sink().error(result.getDuplicates().contains(i)
+                        ? new DuplicateKeyException(error)
+                        : new OrderPersistenceException(error));
+            }
+        }
+    }
+
+    private record PendingWrite(OrderEntity orderEntity, MonoSink<OrderEntity> sink) {
+    }
+}
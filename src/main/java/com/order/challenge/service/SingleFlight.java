@@ -0,0 +1,53 @@
+package com.order.challenge.service;
+
+import io.micrometer.core.instrument.Counter;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Callers asking for a key while its call is running join that call instead of starting their own.
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter merged;
+
+    SingleFlight(Counter executed, Counter merged) {
+        this.executed = executed;
+        this.merged = merged;
+    }
+
+    Mono<V> execute(K key, Supplier<Mono<V>> work) {
+        return Mono.defer(() -> {
+            Mono<V> flight = flight(key, work);
+            Mono<V> running = inFlight.putIfAbsent(key, flight);
+            if (running != null) {
+                merged.increment();
+                return running;
+            }
+            executed.increment();
+            return flight;
+        });
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    // One caller cancelling leaves the others attached; the last one out cancels the call. Either way the entry
+    // is removed when the call ends, and only if it still belongs to this call.
+    private Mono<V> flight(K key, Supplier<Mono<V>> work) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> flight = Mono.defer(work)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .flux()
+                .publish()
+                .refCount()
+                .singleOrEmpty();
+        self.set(flight);
+        return flight;
+    }
+}
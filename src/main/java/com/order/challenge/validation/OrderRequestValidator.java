@@ -0,0 +1,55 @@
+package com.order.challenge.validation;
+
+import com.order.challenge.money.Money;
+import com.order.challenge.request.OrderRequest;
+import org.springframework.stereotype.Component;
+
+// The same rules as the annotations on OrderRequest plus the EAN-13 check digit, written out so that no
+// descriptor lookup or reflective read happens per request.
+@Component
+public class OrderRequestValidator {
+
+    private static final Money MIN_PRICE = Money.of("0.01");
+
+    public OrderViolation validate(OrderRequest request) {
+        if (request.getOrderId() == null) {
+            return OrderViolation.ORDER_ID_MISSING;
+        }
+        String barCode = request.getBarCode();
+        if (barCode == null || barCode.isBlank()) {
+            return OrderViolation.BAR_CODE_MISSING;
+        }
+        if (!isEan13(barCode)) {
+            return OrderViolation.BAR_CODE_NOT_EAN13;
+        }
+        if (request.getQuantity() == null) {
+            return OrderViolation.QUANTITY_MISSING;
+        }
+        if (request.getQuantity() < 1) {
+            return OrderViolation.QUANTITY_TOO_SMALL;
+        }
+        if (request.getPrice() == null) {
+            return OrderViolation.PRICE_MISSING;
+        }
+        if (request.getPrice().compareTo(MIN_PRICE) < 0) {
+            return OrderViolation.PRICE_TOO_SMALL;
+        }
+        return null;
+    }
+
+    // Digits in odd positions weigh 1 and in even positions 3, counting from the left; the 13th makes the sum a multiple of 10.
+    static boolean isEan13(String barCode) {
+        if (barCode.length() != 13) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 13; i++) {
+            int digit = barCode.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += (i & 1) == 0 ? digit : digit * 3;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.order.challenge.validation;
+
+import com.order.challenge.exception.OrderValidationException;
+
+// Messages match the Jakarta constraints on OrderRequest, so both paths reject with the same text.
+public enum OrderViolation {
+
+    BODY_MISSING("The request body must be provided."),
+    ORDER_ID_MISSING("The orderId must be provided."),
+    BAR_CODE_MISSING("The barCode must be provided."),
+    BAR_CODE_NOT_EAN13("The barCode must be a valid EAN-13 code."),
+    QUANTITY_MISSING("The quantity must be provided."),
+    QUANTITY_TOO_SMALL("The quantity must be at least 1."),
+    PRICE_MISSING("The price must be provided."),
+    PRICE_TOO_SMALL("The price must be greater than zero.");
+
+    private final String message;
+    private final OrderValidationException exception;
+
+    OrderViolation(String message) {
+        this.message = message;
+        this.exception = new OrderValidationException(this);
+    }
+
+    public String message() {
+        return message;
+    }
+
+    // The exception carries no stack trace and no mutable state, so one instance per violation is shared.
+    public OrderValidationException exception() {
+        return exception;
+    }
+}
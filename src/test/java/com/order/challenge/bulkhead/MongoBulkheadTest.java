@@ -0,0 +1,67 @@
+package com.order.challenge.bulkhead;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.order.challenge.exception.OrderOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class MongoBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoPoolSaturation saturation = new MongoPoolSaturation(meterRegistry);
+
+    @Test
+    void isolate_ShouldShedWithRetryAfter_WhenWaitQueueIsFull() {
+        ConnectionPoolListener listener = saturation.listener(MongoBulkheads.READ);
+        Counter rejected = meterRegistry.counter("orders.bulkhead.rejected", "pool", MongoBulkheads.READ);
+        MongoBulkhead read = new MongoBulkhead(MongoBulkheads.READ, mock(ReactiveMongoTemplate.class),
+                () -> saturation.waiting(MongoBulkheads.READ), 2, Duration.ofSeconds(1), rejected, null);
+
+        listener.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId(), 1));
+        StepVerifier.create(read.isolate(Mono.just("order"))).expectNext("order").verifyComplete();
+
+        listener.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId(), 2));
+        StepVerifier.create(read.isolate(Mono.just("order")))
+                .expectError(OrderOverloadedException.class)
+                .verify();
+        assertEquals(1, rejected.count());
+        assertEquals(2, meterRegistry.get("orders.bulkhead.waiting").tag("pool", "read").gauge().value());
+
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId(), 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, 0));
+        StepVerifier.create(read.isolate(Mono.just("order"))).expectNext("order").verifyComplete();
+    }
+
+    @Test
+    void isolate_ShouldDeliverOnThePoolScheduler_WhenOneIsConfigured() {
+        MongoBulkhead write = new MongoBulkhead(MongoBulkheads.WRITE, mock(ReactiveMongoTemplate.class), () -> 0, 0,
+                Duration.ofSeconds(1), null, Schedulers.newParallel("orders-write", 1));
+        try {
+            StepVerifier.create(write.isolate(Mono.fromSupplier(() -> "order")).map(order -> Thread.currentThread().getName()))
+                    .assertNext(thread -> assertTrue(thread.startsWith("orders-write")))
+                    .verifyComplete();
+        } finally {
+            write.dispose();
+        }
+    }
+
+    private static ServerId serverId() {
+        return new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+    }
+}
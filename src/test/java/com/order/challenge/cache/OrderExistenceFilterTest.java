@@ -0,0 +1,113 @@
+package com.order.challenge.cache;
+
+import com.order.challenge.config.ExistenceFilterProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExistenceFilterTest {
+
+    @Mock
+    private OrderRepositoryCustom orderRepository;
+
+    @Mock
+    private OrderAccountingRepositoryCustom accountingRepository;
+
+    private ExistenceFilterProperties properties;
+    private OrderExistenceFilter existenceFilter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExistenceFilterProperties();
+        properties.setExpectedInsertions(1_000);
+        existenceFilter = new OrderExistenceFilter(orderRepository, accountingRepository, properties);
+    }
+
+    @Test
+    void isDefinitelyAbsent_ShouldNotShortCircuit_BeforeFilterIsBuilt() {
+        assertFalse(existenceFilter.isDefinitelyAbsent(UUID.randomUUID()));
+    }
+
+    @Test
+    void isDefinitelyAbsent_ShouldShortCircuitUnknownIds_AfterBuild() {
+        UUID stored = UUID.randomUUID();
+        UUID recorded = UUID.randomUUID();
+        when(orderRepository.findAllOrderIds()).thenReturn(Flux.just(stored));
+
+        StepVerifier.create(existenceFilter.rebuild(properties.getExpectedInsertions())).verifyComplete();
+        existenceFilter.record(recorded);
+
+        assertFalse(existenceFilter.isDefinitelyAbsent(stored));
+        assertFalse(existenceFilter.isDefinitelyAbsent(recorded));
+        assertTrue(existenceFilter.isDefinitelyAbsent(UUID.randomUUID()));
+    }
+
+    @Test
+    void record_ShouldKeepIdsInsertedDuringRebuild() {
+        UUID recordedDuringBuild = UUID.randomUUID();
+        when(orderRepository.findAllOrderIds())
+                .thenReturn(Flux.defer(() -> {
+                    existenceFilter.record(recordedDuringBuild);
+                    return Flux.just(UUID.randomUUID());
+                }));
+
+        StepVerifier.create(existenceFilter.rebuild(properties.getExpectedInsertions())).verifyComplete();
+
+        assertFalse(existenceFilter.isDefinitelyAbsent(recordedDuringBuild));
+    }
+
+    @Test
+    void start_ShouldFollowInsertsFromOperationTimeReadBeforeTheScan() {
+        BsonTimestamp startAt = new BsonTimestamp(1_760_000_000, 1);
+        UUID insertedDuringScan = UUID.randomUUID();
+        when(accountingRepository.currentOperationTime()).thenReturn(Mono.just(startAt));
+        ChangeStreamEvent<OrderEntity> insert = insertEvent(insertedDuringScan);
+        when(accountingRepository.watchInsertsFrom(startAt)).thenReturn(Flux.just(insert).concatWith(Flux.never()));
+        when(orderRepository.findAllOrderIds()).thenReturn(Flux.just(UUID.randomUUID()));
+
+        existenceFilter.start();
+        existenceFilter.stop();
+
+        assertFalse(existenceFilter.isDefinitelyAbsent(insertedDuringScan));
+        InOrder inOrder = inOrder(accountingRepository, orderRepository);
+        inOrder.verify(accountingRepository).currentOperationTime();
+        inOrder.verify(orderRepository).findAllOrderIds();
+    }
+
+    @Test
+    void record_ShouldResizeFilter_WhenCapacityIsExceeded() {
+        properties.setExpectedInsertions(2);
+        when(orderRepository.findAllOrderIds()).thenReturn(Flux.empty());
+        StepVerifier.create(existenceFilter.rebuild(2)).verifyComplete();
+
+        for (int i = 0; i < 3; i++) {
+            existenceFilter.record(UUID.randomUUID());
+        }
+
+        verify(orderRepository, times(2)).findAllOrderIds();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamEvent<OrderEntity> insertEvent(UUID orderId) {
+        ChangeStreamEvent<OrderEntity> event = mock(ChangeStreamEvent.class);
+        when(event.getBody()).thenReturn(OrderEntity.builder().orderId(orderId).build());
+        return event;
+    }
+}
@@ -0,0 +1,53 @@
+package com.order.challenge.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIdBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverReturnFalseNegatives() {
+        OrderIdBloomFilter filter = OrderIdBloomFilter.create(10_000, 0.01);
+        List<UUID> inserted = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID orderId = UUID.randomUUID();
+            inserted.add(orderId);
+            filter.put(orderId);
+        }
+
+        inserted.forEach(orderId -> assertTrue(filter.mightContain(orderId)));
+    }
+
+    @Test
+    void mightContain_ShouldStayCloseToConfiguredFalsePositiveRate() {
+        OrderIdBloomFilter filter = OrderIdBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void isSaturated_ShouldReportWhenCapacityIsExceeded() {
+        OrderIdBloomFilter filter = OrderIdBloomFilter.create(2, 0.01);
+        filter.put(UUID.randomUUID());
+        filter.put(UUID.randomUUID());
+        assertFalse(filter.isSaturated());
+
+        filter.put(UUID.randomUUID());
+        assertTrue(filter.isSaturated());
+    }
+}
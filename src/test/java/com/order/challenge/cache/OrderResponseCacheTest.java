@@ -0,0 +1,82 @@
+package com.order.challenge.cache;
+
+import com.order.challenge.config.OrderCacheProperties;
+import com.order.challenge.response.OrderResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderResponseCacheTest {
+
+    private OrderCacheProperties properties;
+    private AtomicLong nanos;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderCacheProperties();
+        nanos = new AtomicLong();
+    }
+
+    @Test
+    void get_ShouldReturnCachedResponse_AndRecordHitsAndMisses() {
+        OrderResponseCache cache = new OrderResponseCache(properties, nanos::get);
+        OrderResponse response = response();
+
+        assertNull(cache.get(response.getOrderId()));
+        cache.put(response);
+
+        assertSame(response, cache.get(response.getOrderId()));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void get_ShouldExpireEntries_AfterTtl() {
+        properties.setTtl(Duration.ofMinutes(1));
+        OrderResponseCache cache = new OrderResponseCache(properties, nanos::get);
+        OrderResponse response = response();
+        cache.put(response);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertNull(cache.get(response.getOrderId()));
+    }
+
+    @Test
+    void put_ShouldEvictBySize_WhenMaxSizeIsExceeded() {
+        properties.setMaxSize(DataSize.ofKilobytes(4));
+        OrderResponseCache cache = new OrderResponseCache(properties, nanos::get);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(response());
+        }
+        cache.nativeCache().cleanUp();
+
+        assertTrue(cache.estimatedSize() < 100);
+        assertTrue(cache.stats().evictionCount() > 0);
+    }
+
+    @Test
+    void get_ShouldAlwaysMiss_WhenCacheIsDisabled() {
+        properties.setEnabled(false);
+        OrderResponseCache cache = new OrderResponseCache(properties, nanos::get);
+        OrderResponse response = response();
+        cache.put(response);
+
+        assertNull(cache.get(response.getOrderId()));
+    }
+
+    private static OrderResponse response() {
+        return OrderResponse.builder()
+                .orderId(UUID.randomUUID())
+                .barCode("7891234567895")
+                .build();
+    }
+}
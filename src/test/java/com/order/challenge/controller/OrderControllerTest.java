@@ -1,25 +1,50 @@
 package com.order.challenge.controller;
 
+import com.order.challenge.consistency.OperationTimeHolder;
+import com.order.challenge.consistency.OperationTimeToken;
+import com.order.challenge.live.OrderLiveFeed;
+import com.order.challenge.money.Money;
+import com.order.challenge.pagination.OrderCursorToken;
+import com.order.challenge.repository.OrderQuery;
 import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderBatchResult;
 import com.order.challenge.response.OrderResponse;
+import com.order.challenge.response.TopBarcodeEntry;
+import com.order.challenge.response.TopBarcodesResponse;
+import com.order.challenge.response.TotalMetricsResponse;
+import com.order.challenge.service.OrderMetricsService;
 import com.order.challenge.service.OrderService;
+import com.order.challenge.enums.BatchItemStatus;
 import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.enums.TopBarcodeRanking;
+import com.order.challenge.exception.InvalidMetricsRangeException;
 
+import org.bson.BsonTimestamp;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -32,19 +57,25 @@ class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderMetricsService orderMetricsService;
+
+    @MockitoBean
+    private OrderLiveFeed orderLiveFeed;
+
 
     private final UUID ORDER_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
     private final OrderRequest mockOrderRequest = OrderRequest.builder()
             .barCode("4567890")
             .quantity(2)
-            .price(new BigDecimal("10.50"))
+            .price(Money.of("10.50"))
             .build();
     private final OrderResponse mockOrderResponse = OrderResponse.builder()
             .orderId(ORDER_ID)
             .barCode("4567890")
             .quantity(2)
-            .price(new BigDecimal("10.50"))
-            .totalValue(new BigDecimal("21.00"))
+            .price(Money.of("10.50"))
+            .totalValue(Money.of("21.00"))
             .createdAt(LocalDateTime.now())
             .status(OrderStatus.NOT_ACCOUNTED)
             .build();
@@ -69,7 +100,7 @@ class OrderControllerTest {
 
     @Test
     void getOrderById_ShouldReturnOrder_AndStatus200() {
-        when(orderService.getOrderById(ORDER_ID))
+        when(orderService.getOrderById(ORDER_ID, null))
                 .thenReturn(Mono.just(mockOrderResponse));
 
         webTestClient.get().uri("/v1/api/orders/{orderId}", ORDER_ID)
@@ -94,4 +125,169 @@ class OrderControllerTest {
                 .expectBody(BigDecimal.class) // Espera que o corpo seja um BigDecimal
                 .isEqualTo(TOTAL_VALUE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void createOrders_ShouldStreamPerOrderResults_WhenBodyIsNdjson() {
+        OrderBatchResult result = OrderBatchResult.builder()
+                .orderId(ORDER_ID)
+                .status(BatchItemStatus.CREATED)
+                .order(mockOrderResponse)
+                .build();
+        when(orderService.createOrders(any()))
+                .thenReturn(Flux.just(result));
+
+        webTestClient.post().uri("/v1/api/orders/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(mockOrderRequest, mockOrderRequest), OrderRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(OrderBatchResult.class)
+                .contains(result);
+    }
+
+    @Test
+    void getOrderById_ShouldPassOperationTimeToken_WhenHeaderIsPresent() {
+        BsonTimestamp operationTime = new BsonTimestamp(1_700_000_000, 7);
+        when(orderService.getOrderById(ORDER_ID, operationTime))
+                .thenReturn(Mono.just(mockOrderResponse));
+
+        webTestClient.get().uri("/v1/api/orders/{orderId}", ORDER_ID)
+                .header(OperationTimeToken.HEADER, OperationTimeToken.format(operationTime))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OrderResponse.class)
+                .isEqualTo(mockOrderResponse);
+    }
+
+    @Test
+    void createOrder_ShouldReturnOperationTimeHeader_WhenWriteRecordedIt() {
+        BsonTimestamp operationTime = new BsonTimestamp(1_700_000_000, 3);
+        when(orderService.createOrder(any(OrderRequest.class)))
+                .thenReturn(Mono.deferContextual(context -> {
+                    context.<OperationTimeHolder>get(OperationTimeHolder.class).advance(operationTime);
+                    return Mono.just(mockOrderResponse);
+                }));
+
+        webTestClient.post().uri("/v1/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(mockOrderRequest), OrderRequest.class)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(OperationTimeToken.HEADER, OperationTimeToken.format(operationTime));
+    }
+
+    @Test
+    void getMetricsRollups_ShouldPassGranularityAndRange_AndStatus200() {
+        LocalDateTime from = LocalDateTime.of(2026, 10, 18, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 18, 23, 59);
+        when(orderMetricsService.getRollups(RollupGranularity.HOUR, from, to))
+                .thenReturn(Mono.just(TotalMetricsResponse.builder()
+                        .granularity(RollupGranularity.HOUR)
+                        .orderCount(2)
+                        .totalValue(new BigDecimal("30.00"))
+                        .averageValue(new BigDecimal("15.00"))
+                        .build()));
+
+        webTestClient.get().uri("/v1/api/orders/metrics/rollups?granularity=HOUR&from=2026-10-18T00:00&to=2026-10-18T23:59")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.orderCount").isEqualTo(2)
+                .jsonPath("$.averageValue").isEqualTo(15.00);
+    }
+
+    @Test
+    void getMetricsRollups_ShouldReturn400_WhenRangeIsInvalid() {
+        when(orderMetricsService.getRollups(any(), any(), any()))
+                .thenReturn(Mono.error(new InvalidMetricsRangeException("'from' must not be after 'to'")));
+
+        webTestClient.get().uri("/v1/api/orders/metrics/rollups?granularity=MINUTE")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTopBarcodes_ShouldReturnRankingWithErrorBounds_AndStatus200() {
+        when(orderMetricsService.getTopBarcodes(TopBarcodeRanking.QUANTITY, 10, Duration.ofMinutes(15)))
+                .thenReturn(Mono.just(TopBarcodesResponse.builder()
+                        .ranking(TopBarcodeRanking.QUANTITY)
+                        .entries(List.of(TopBarcodeEntry.builder()
+                                .barCode("4567890")
+                                .estimate(new BigDecimal("42"))
+                                .maxError(new BigDecimal("3"))
+                                .guaranteed(true)
+                                .build()))
+                        .build()));
+
+        webTestClient.get().uri("/v1/api/orders/top-barcodes?by=QUANTITY&limit=10&window=PT15M")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.entries[0].barCode").isEqualTo("4567890")
+                .jsonPath("$.entries[0].maxError").isEqualTo(3)
+                .jsonPath("$.entries[0].guaranteed").isEqualTo(true);
+    }
+
+    @Test
+    void findOrders_ShouldStreamNdjson_FilteredByBarCodeAndRange() {
+        when(orderService.findOrders(argThat(query -> "4567890".equals(query.getBarCode())
+                && LocalDateTime.of(2026, 10, 1, 0, 0).equals(query.getFrom())
+                && query.getAfterOrderId() == null)))
+                .thenReturn(Flux.just(mockOrderResponse));
+
+        List<Map> lines = webTestClient.get().uri("/v1/api/orders?barCode=4567890&from=2026-10-01T00:00")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Map.class)
+                .hasSize(2)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(ORDER_ID.toString(), lines.get(0).get("orderId"));
+        assertEquals(OrderCursorToken.format(mockOrderResponse.getCreatedAt(), ORDER_ID), lines.get(1).get("nextCursor"));
+    }
+
+    @Test
+    void findOrders_ShouldOmitCursorLine_WhenNoOrderMatches() {
+        when(orderService.findOrders(any(OrderQuery.class))).thenReturn(Flux.empty());
+
+        webTestClient.get().uri("/v1/api/orders")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Map.class)
+                .hasSize(0);
+    }
+
+    @Test
+    void streamOrders_ShouldUseContinuationTokenAsEventId_AndResumeFromLastEventId() {
+        LocalDateTime lastCreatedAt = LocalDateTime.of(2026, 10, 18, 9, 0, 0, 123_000_000);
+        UUID lastOrderId = UUID.randomUUID();
+        when(orderService.findOrders(any(OrderQuery.class))).thenReturn(Flux.just(mockOrderResponse));
+
+        List<ServerSentEvent<OrderResponse>> events = webTestClient.get().uri("/v1/api/orders")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", OrderCursorToken.format(lastCreatedAt, lastOrderId))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<OrderResponse>>() { })
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(OrderCursorToken.format(mockOrderResponse.getCreatedAt(), ORDER_ID), events.get(0).id());
+        verify(orderService).findOrders(argThat(query -> lastCreatedAt.equals(query.getAfterCreatedAt())
+                && lastOrderId.equals(query.getAfterOrderId())));
+    }
+
+    @Test
+    void findOrders_ShouldReturn400_WhenContinuationTokenIsMalformed() {
+        webTestClient.get().uri("/v1/api/orders?after=not-a-token")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
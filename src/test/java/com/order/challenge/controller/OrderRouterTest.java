@@ -0,0 +1,116 @@
+package com.order.challenge.controller;
+
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.exception.handler.GlobalExceptionHandler;
+import com.order.challenge.money.Money;
+import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderResponse;
+import com.order.challenge.service.OrderService;
+import com.order.challenge.validation.OrderRequestValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRouterTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
+
+    @Mock
+    private OrderService orderService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        OrderHandler orderHandler = new OrderHandler(orderService, new OrderRequestValidator());
+        GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler(Jackson2ObjectMapperBuilder.json().build());
+        webTestClient = WebTestClient.bindToRouterFunction(OrderRouter.routes(orderHandler, exceptionHandler)).build();
+    }
+
+    @Test
+    void createOrder_ShouldReturnCreated_WhenRequestIsValid() {
+        OrderRequest request = request("7891234567895");
+        when(orderService.createOrder(request)).thenReturn(Mono.just(OrderResponse.builder()
+                .orderId(ORDER_ID)
+                .barCode("7891234567895")
+                .quantity(2)
+                .price(Money.of("10.50"))
+                .totalValue(Money.of("21.00"))
+                .createdAt(LocalDateTime.now())
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build()));
+
+        webTestClient.post().uri("/v1/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.orderId").isEqualTo(ORDER_ID.toString())
+                .jsonPath("$.totalValue").isEqualTo(21.00);
+    }
+
+    @Test
+    void createOrder_ShouldReturnBadRequestWithoutCallingService_WhenCheckDigitIsWrong() {
+        webTestClient.post().uri("/v1/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("7891234567890"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("The barCode must be a valid EAN-13 code.")
+                .jsonPath("$.timestamp").exists();
+
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrder_ShouldReturnBadRequest_WhenBodyIsMissing() {
+        webTestClient.post().uri("/v1/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("The request body must be provided.");
+    }
+
+    @Test
+    void createOrder_ShouldReturnInternalServerError_WhenPersistenceFails() {
+        when(orderService.createOrder(any())).thenReturn(Mono.error(new OrderPersistenceException("Failed to save order")));
+
+        webTestClient.post().uri("/v1/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("7891234567895"))
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Database Persistence Error: Failed to save order");
+    }
+
+    private static OrderRequest request(String barCode) {
+        return OrderRequest.builder()
+                .orderId(ORDER_ID)
+                .barCode(barCode)
+                .quantity(2)
+                .price(Money.of("10.50"))
+                .build();
+    }
+}
@@ -1,25 +1,43 @@
 package com.order.challenge.exception.handler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.order.challenge.exception.ErrorResponse;
 import com.order.challenge.exception.OrderNotFoundException;
+import com.order.challenge.exception.OrderOverloadedException;
 import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.validation.OrderViolation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class GlobalExceptionHandlerTest {
 
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-10-18T09:35:10.100Z"));
+
     private GlobalExceptionHandler exceptionHandler;
 
     @BeforeEach
     void setUp() {
-        exceptionHandler = new GlobalExceptionHandler();
+        exceptionHandler = new GlobalExceptionHandler(objectMapper, clock);
     }
 
     @Test
@@ -59,4 +77,62 @@ class GlobalExceptionHandlerTest {
                 })
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleOrderOverloadedException_ShouldReturnServiceUnavailableWithRetryAfter() {
+        OrderOverloadedException exception =
+                new OrderOverloadedException("Too many concurrent 'create' requests. Retry later.", Duration.ofSeconds(2));
+
+        StepVerifier.create(exceptionHandler.handleOrderOverloadedException(exception))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+                    assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getBody().getStatus());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void handleOrderValidationException_ShouldReuseBody_WhileTheSecondIsUnchanged() throws IOException {
+        byte[] first = exceptionHandler.handleOrderValidationException(OrderViolation.BAR_CODE_NOT_EAN13.exception())
+                .block().getBody();
+        clock.instant = clock.instant.plusMillis(800);
+        byte[] sameSecond = exceptionHandler.handleOrderValidationException(OrderViolation.BAR_CODE_NOT_EAN13.exception())
+                .block().getBody();
+        clock.instant = clock.instant.plusMillis(200);
+        ResponseEntity<byte[]> nextSecond = exceptionHandler.handleOrderValidationException(OrderViolation.BAR_CODE_NOT_EAN13.exception())
+                .block();
+
+        assertSame(first, sameSecond);
+        assertNotSame(first, nextSecond.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, nextSecond.getStatusCode());
+        ErrorResponse errorResponse = objectMapper.readValue(nextSecond.getBody(), ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), errorResponse.getStatus());
+        assertEquals("The barCode must be a valid EAN-13 code.", errorResponse.getMessage());
+        assertEquals(LocalDateTime.of(2026, 10, 18, 9, 35, 11), errorResponse.getTimestamp());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
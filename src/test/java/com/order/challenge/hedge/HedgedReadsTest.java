@@ -0,0 +1,136 @@
+package com.order.challenge.hedge;
+
+import com.order.challenge.config.HedgedReadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedReadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HedgedReadProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HedgedReadProperties();
+        properties.setEnabled(true);
+        properties.setMinDelay(Duration.ofMillis(10));
+        properties.setMaxDelay(Duration.ofMillis(10));
+    }
+
+    @Test
+    void hedge_ShouldTakeSecondReadAndCancelFirst_WhenFirstIsSlowerThanDelay() {
+        HedgedReads hedgedReads = new HedgedReads(properties, meterRegistry);
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+
+        StepVerifier.create(hedgedReads.hedge(Mono.<String>never().doOnCancel(() -> firstCancelled.set(true)),
+                        () -> Mono.just("secondary")))
+                .expectNext("secondary")
+                .verifyComplete();
+
+        assertTrue(firstCancelled.get());
+        assertEquals(1, outcome("won"));
+    }
+
+    @Test
+    void hedge_ShouldKeepCancelledFirstReadsInTheDelay_WhenHedgesWin() {
+        properties.setBudgetPercent(100);
+        HedgedReads hedgedReads = new HedgedReads(properties, meterRegistry);
+
+        for (int lookup = 0; lookup < LatencyPercentile.RECOMPUTE_EVERY; lookup++) {
+            StepVerifier.create(hedgedReads.hedge(Mono.never(), () -> Mono.just("secondary")))
+                    .expectNext("secondary")
+                    .verifyComplete();
+        }
+
+        properties.setMinDelay(Duration.ofMillis(1));
+        properties.setMaxDelay(Duration.ofSeconds(1));
+        Duration delay = hedgedReads.delay();
+        assertTrue(delay.compareTo(Duration.ofMillis(10)) >= 0 && delay.compareTo(Duration.ofSeconds(1)) < 0,
+                "delay was " + delay);
+    }
+
+    @Test
+    void hedge_ShouldNotSendSecondRead_WhenFirstAnswersInTime() {
+        HedgedReads hedgedReads = new HedgedReads(properties, meterRegistry);
+        AtomicInteger secondReads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.hedge(Mono.just("first"), () -> {
+                    secondReads.incrementAndGet();
+                    return Mono.just("second");
+                }))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertEquals(0, secondReads.get());
+    }
+
+    @Test
+    void hedge_ShouldWaitForFirstRead_WhenBudgetIsSpent() {
+        properties.setBudgetPercent(0);
+        properties.setBudgetBurst(0);
+        HedgedReads hedgedReads = new HedgedReads(properties, meterRegistry);
+        AtomicInteger secondReads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.hedge(Mono.delay(Duration.ofMillis(50)).thenReturn("first"), () -> {
+                    secondReads.incrementAndGet();
+                    return Mono.just("second");
+                }))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertEquals(0, secondReads.get());
+        assertEquals(1, outcome("throttled"));
+    }
+
+    @Test
+    void delay_ShouldFollowRecentPercentile_WithinBounds() {
+        properties.setMinDelay(Duration.ofMillis(1));
+        properties.setMaxDelay(Duration.ofMillis(200));
+        HedgedReads hedgedReads = new HedgedReads(properties, meterRegistry);
+        assertEquals(Duration.ofMillis(200), hedgedReads.delay());
+
+        LatencyPercentile latency = new LatencyPercentile(0.95);
+        for (int millis = 1; millis <= 100; millis++) {
+            latency.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(95), latency.currentNanos());
+    }
+
+    @Test
+    void tryWithdraw_ShouldAllowOneHedgePerTwentyLookups_AtFivePercent() {
+        HedgeBudget budget = new HedgeBudget(5, 0);
+        int hedges = 0;
+        for (int lookup = 0; lookup < 100; lookup++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+        assertEquals(0, hedges);
+
+        budget = new HedgeBudget(5, 1);
+        budget.tryWithdraw();
+        for (int lookup = 0; lookup < 100; lookup++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+        assertEquals(5, hedges);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("orders.hedge.requests").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,83 @@
+package com.order.challenge.limit;
+
+import com.order.challenge.config.ConcurrencyLimitProperties;
+import com.order.challenge.exception.OrderOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderConcurrencyLimiterTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void limit_ShouldRejectWithRetryAfter_WhenInFlightReachesTheLimit() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrderConcurrencyLimiter limiter = new OrderConcurrencyLimiter(properties, meterRegistry);
+
+        Disposable stuck = limiter.limit("create", Mono::never).subscribe();
+
+        StepVerifier.create(limiter.limit("create", () -> Mono.just("order")))
+                .expectErrorMatches(error -> error instanceof OrderOverloadedException overloaded
+                        && overloaded.getRetryAfter().equals(Duration.ofSeconds(3)))
+                .verify();
+        assertEquals(1, meterRegistry.get("orders.concurrency.rejected").tag("operation", "create").functionCounter().count());
+        assertEquals(1, meterRegistry.get("orders.concurrency.in.flight").tag("operation", "create").gauge().value());
+
+        stuck.dispose();
+
+        StepVerifier.create(limiter.limit("create", () -> Mono.just("order")))
+                .expectNext("order")
+                .verifyComplete();
+        assertEquals(0, meterRegistry.get("orders.concurrency.in.flight").tag("operation", "create").gauge().value());
+    }
+
+    @Test
+    void onSample_ShouldGrowLimit_WhileLatencyStaysAtBaselineUnderLoad() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 30);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(BASELINE, limit.limit(), false);
+        }
+
+        assertTrue(limit.limit() > 200);
+    }
+
+    @Test
+    void onSample_ShouldShrinkLimit_WhenLatencyBuildsUpOrRequestsFail() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 30);
+        limit.onSample(BASELINE, 100, false);
+        int beforeQueueing = limit.limit();
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(4 * BASELINE, limit.limit(), false);
+        }
+        int afterQueueing = limit.limit();
+        limit.onSample(BASELINE, afterQueueing, true);
+
+        assertTrue(afterQueueing < beforeQueueing);
+        assertTrue(limit.limit() < afterQueueing);
+    }
+
+    @Test
+    void onSample_ShouldKeepLimit_WhenFarBelowIt() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 30);
+
+        limit.onSample(BASELINE, 5, false);
+        limit.onSample(10 * BASELINE, 5, false);
+
+        assertEquals(100, limit.limit());
+    }
+}
@@ -0,0 +1,140 @@
+package com.order.challenge.live;
+
+import com.order.challenge.config.LiveFeedProperties;
+import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.response.LiveTotalResponse;
+import com.order.challenge.response.OrderResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderLiveFeedTest {
+
+    @Mock
+    private TotalMetricsRepositoryCustom totalMetricsRepository;
+
+    @Test
+    void events_ShouldEmitLatestTotalAndPublishedOrders() {
+        when(totalMetricsRepository.findTotalMetrics())
+                .thenReturn(Mono.just(TotalMetricsEntity.builder().totalValue(new BigDecimal("21.00")).orderCount(1L).build()));
+        OrderLiveFeed feed = new OrderLiveFeed(new LiveFeedProperties(), totalMetricsRepository);
+        OrderResponse order = OrderResponse.builder().orderId(UUID.randomUUID()).build();
+
+        StepVerifier.create(feed.events())
+                .assertNext(event -> {
+                    assertEquals(OrderLiveFeed.TOTAL_EVENT, event.event());
+                    assertEquals(new BigDecimal("21.00"), ((LiveTotalResponse) event.data()).getTotalValue());
+                })
+                .then(() -> feed.publish(order))
+                .assertNext(event -> {
+                    assertEquals(OrderLiveFeed.ORDER_EVENT, event.event());
+                    assertEquals(order, event.data());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void publish_ShouldNotBlockOrBuffer_WhenSubscriberHasNoDemand() {
+        when(totalMetricsRepository.findTotalMetrics()).thenReturn(Mono.empty());
+        OrderLiveFeed feed = new OrderLiveFeed(new LiveFeedProperties(), totalMetricsRepository);
+        List<ServerSentEvent<Object>> received = new ArrayList<>();
+        BaseSubscriber<ServerSentEvent<Object>> stalled = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(org.reactivestreams.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<Object> value) {
+                received.add(value);
+            }
+        };
+        feed.events().subscribe(stalled);
+
+        for (int i = 0; i < 10_000; i++) {
+            feed.publish(OrderResponse.builder().orderId(UUID.randomUUID()).build());
+        }
+
+        assertTrue(received.size() <= 1);
+        stalled.dispose();
+    }
+
+    @Test
+    void publish_ShouldDropOrder_WhenAnotherPublisherHoldsTheFeedPastTheTimeout() throws Exception {
+        when(totalMetricsRepository.findTotalMetrics()).thenReturn(Mono.empty());
+        OrderLiveFeed feed = new OrderLiveFeed(new LiveFeedProperties(), totalMetricsRepository);
+        OrderResponse first = OrderResponse.builder().orderId(UUID.randomUUID()).build();
+        OrderResponse second = OrderResponse.builder().orderId(UUID.randomUUID()).build();
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> received = new ArrayList<>();
+        Disposable viewer = feed.events().subscribe(event -> {
+            if (OrderLiveFeed.ORDER_EVENT.equals(event.event())) {
+                received.add(event.data());
+                delivering.countDown();
+                awaitQuietly(release);
+            }
+        });
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> feed.publish(first));
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> contender = CompletableFuture.runAsync(() -> feed.publish(second));
+
+        contender.get(5, TimeUnit.SECONDS);
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(first), received);
+        viewer.dispose();
+    }
+
+    @Test
+    void events_ShouldShareOneTotalPoll_AcrossViewers() throws InterruptedException {
+        LiveFeedProperties properties = new LiveFeedProperties();
+        properties.setTotalRefresh(Duration.ofHours(1));
+        when(totalMetricsRepository.findTotalMetrics()).thenReturn(Mono.empty());
+        OrderLiveFeed feed = new OrderLiveFeed(properties, totalMetricsRepository);
+
+        List<Disposable> viewers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            viewers.add(feed.events().subscribe());
+        }
+        Thread.sleep(100);
+
+        verify(totalMetricsRepository, times(1)).findTotalMetrics();
+        assertEquals(100, feed.subscriberCount());
+        viewers.forEach(Disposable::dispose);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
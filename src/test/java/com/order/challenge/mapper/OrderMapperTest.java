@@ -2,11 +2,11 @@ package com.order.challenge.mapper;
 
 import com.order.challenge.entities.OrderEntity;
 import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
 import com.order.challenge.request.OrderRequest;
 import com.order.challenge.response.OrderResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,15 +27,15 @@ class OrderMapperTest {
                 .orderId(orderId)
                 .barCode("4567890")
                 .quantity(3)
-                .price(new BigDecimal("15.00"))
+                .price(Money.of("15.00"))
                 .build();
 
         mockEntity = OrderEntity.builder()
                 .orderId(orderId)
                 .barCode("4567890")
                 .quantity(3)
-                .price(new BigDecimal("15.00"))
-                .totalValue(new BigDecimal("45.00"))
+                .price(Money.of("15.00"))
+                .totalValue(Money.of("45.00"))
                 .createdAt(LocalDateTime.now())
                 .status(OrderStatus.NOT_ACCOUNTED)
                 .build();
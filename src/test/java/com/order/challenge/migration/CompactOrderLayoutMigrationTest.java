@@ -0,0 +1,189 @@
+package com.order.challenge.migration;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.order.challenge.config.MigrationProperties;
+import com.order.challenge.config.MongoMappingConfig;
+import com.order.challenge.entities.MigrationMarkerEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import org.bson.BsonBinary;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.io.BasicOutputBuffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompactOrderLayoutMigrationTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 9, 35, 10, 123_000_000);
+
+    @Test
+    void toCompact_ShouldReadBackAsSameOrder_WhenDocumentHasLegacyLayout() {
+        UUID orderId = UUID.randomUUID();
+        BsonDocument compact = CompactOrderLayoutMigration.toCompact(legacy(new BsonBinary(orderId, UuidRepresentation.JAVA_LEGACY)));
+
+        assertFalse(compact.containsKey("_class"));
+        assertEquals(new BsonBinary(orderId, UuidRepresentation.STANDARD), compact.get("_id"));
+        assertEquals(new BigDecimal("59.70"), compact.getDecimal128(OrderEntity.TOTAL_VALUE).getValue().bigDecimalValue());
+
+        OrderEntity order = readAsEntity(compact);
+        assertEquals(orderId, order.getOrderId());
+        assertEquals("7891234567895", order.getBarCode());
+        assertEquals(3, order.getQuantity());
+        assertEquals(Money.of("19.90"), order.getPrice());
+        assertEquals(Money.of("59.70"), order.getTotalValue());
+        assertEquals(CREATED_AT, order.getCreatedAt());
+        assertEquals(OrderStatus.ACCOUNTED, order.getStatus());
+    }
+
+    @Test
+    void rewrites_ShouldInsertCompactCopyBeforeDeletingLegacy_WhenIdChanges() {
+        BsonDocument legacy = legacy(new BsonBinary(UUID.randomUUID(), UuidRepresentation.JAVA_LEGACY));
+
+        List<WriteModel<BsonDocument>> writes = CompactOrderLayoutMigration.rewrites(List.of(legacy));
+
+        assertEquals(2, writes.size());
+        assertInstanceOf(UpdateOneModel.class, writes.get(0));
+        assertInstanceOf(DeleteOneModel.class, writes.get(1));
+    }
+
+    @Test
+    void rewrites_ShouldUpsertCompactCopyAsAccounted_WhenLegacyOrderHasNoStatus() {
+        BsonDocument legacy = legacy(new BsonBinary(UUID.randomUUID(), UuidRepresentation.JAVA_LEGACY));
+        legacy.remove("status");
+
+        List<WriteModel<BsonDocument>> writes = CompactOrderLayoutMigration.rewrites(List.of(legacy));
+
+        BsonDocument inserted = ((UpdateOneModel<BsonDocument>) writes.get(0)).getUpdate().toBsonDocument()
+                .getDocument("$setOnInsert");
+        assertEquals(OrderStatus.ACCOUNTED.name(), inserted.getString(OrderEntity.STATUS).getValue());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ShouldRefuseToStart_WhenMigrationIsDisabledAndLegacyOrdersRemain() {
+        ReactiveMongoTemplate mongoTemplate = mongoTemplate(false, true);
+
+        CompactOrderLayoutMigration migration = new CompactOrderLayoutMigration(mongoTemplate, disabled());
+
+        assertThrows(IllegalStateException.class, migration::afterSingletonsInstantiated);
+        verify(mongoTemplate, never()).save(any(MigrationMarkerEntity.class));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ShouldMarkCompleted_WhenMigrationIsDisabledAndNoLegacyOrdersRemain() {
+        ReactiveMongoTemplate mongoTemplate = mongoTemplate(false, false);
+
+        assertDoesNotThrow(new CompactOrderLayoutMigration(mongoTemplate, disabled())::afterSingletonsInstantiated);
+        verify(mongoTemplate).save(any(MigrationMarkerEntity.class));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ShouldSkipTheScan_WhenAnEarlierRunCompleted() {
+        ReactiveMongoTemplate mongoTemplate = mongoTemplate(true, true);
+
+        new CompactOrderLayoutMigration(mongoTemplate, new MigrationProperties()).afterSingletonsInstantiated();
+
+        verify(mongoTemplate, never()).exists(any(Query.class), eq("orders"));
+        verify(mongoTemplate, never()).getCollection(anyString());
+    }
+
+    @Test
+    void rewrites_ShouldReplaceInPlace_WhenIdIsAlreadyStandard() {
+        BsonDocument legacy = legacy(new BsonBinary(UUID.randomUUID(), UuidRepresentation.STANDARD));
+
+        List<WriteModel<BsonDocument>> writes = CompactOrderLayoutMigration.rewrites(List.of(legacy));
+
+        assertEquals(1, writes.size());
+        assertInstanceOf(ReplaceOneModel.class, writes.get(0));
+    }
+
+    private static ReactiveMongoTemplate mongoTemplate(boolean completed, boolean legacyOrdersRemain) {
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.exists(any(Query.class), eq(MigrationMarkerEntity.class))).thenReturn(Mono.just(completed));
+        lenient().when(mongoTemplate.getCollectionName(OrderEntity.class)).thenReturn("orders");
+        lenient().when(mongoTemplate.exists(any(Query.class), eq("orders"))).thenReturn(Mono.just(legacyOrdersRemain));
+        lenient().when(mongoTemplate.save(any(MigrationMarkerEntity.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        return mongoTemplate;
+    }
+
+    private static MigrationProperties disabled() {
+        MigrationProperties properties = new MigrationProperties();
+        properties.getCompactOrders().setEnabled(false);
+        return properties;
+    }
+
+    private static BsonDocument legacy(BsonBinary id) {
+        return new BsonDocument("_id", id)
+                .append("barCode", new BsonString("7891234567895"))
+                .append("quantity", new BsonInt32(3))
+                .append("price", new BsonString("19.90"))
+                .append("totalValue", new BsonString("59.70"))
+                .append("createdAt", new BsonDateTime(CREATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))
+                .append("status", new BsonString("ACCOUNTED"))
+                .append("_class", new BsonString(OrderEntity.class.getName()));
+    }
+
+    // Goes through the wire format and the driver's STANDARD UUID codec, the way the application reads it.
+    private static OrderEntity readAsEntity(BsonDocument compact) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        new BsonDocumentCodec().encode(new BsonBinaryWriter(buffer), compact, EncoderContext.builder().build());
+        Document document = CodecRegistries.withUuidRepresentation(MongoClientSettings.getDefaultCodecRegistry(),
+                        UuidRepresentation.STANDARD)
+                .get(Document.class)
+                .decode(new BsonBinaryReader(ByteBuffer.wrap(buffer.toByteArray())), DecoderContext.builder().build());
+
+        MongoCustomConversions conversions = new MongoMappingConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null, mappingContext));
+        converter.afterPropertiesSet();
+        return converter.read(OrderEntity.class, document);
+    }
+}
@@ -0,0 +1,89 @@
+package com.order.challenge.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.challenge.request.OrderRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    private static final List<String> AMOUNTS = List.of("0", "0.00", "19.9", "19.90", "-0.05", "1234.5678", "1E+3",
+            "92233720368547758.07", "-92233720368547758.08", "99999999999999999999.99");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void arithmetic_ShouldMatchBigDecimal_ForCompactAndFallbackAmounts() {
+        for (String amount : AMOUNTS) {
+            BigDecimal decimal = new BigDecimal(amount);
+            Money money = Money.of(decimal);
+
+            assertEquals(decimal.toString(), money.toString());
+            assertEquals(Money.of(decimal.multiply(new BigDecimal(1000))), money.times(1000));
+            assertEquals(Money.of(decimal.add(new BigDecimal("0.5"))), money.plus(Money.of("0.5")));
+            assertEquals(Money.of(decimal.negate()), money.negate());
+            assertEquals(decimal.signum(), money.signum());
+            assertEquals(Integer.signum(decimal.compareTo(BigDecimal.TEN)), Integer.signum(money.compareTo(Money.of("10"))));
+        }
+        assertTrue(Money.of("19.90").isCompact());
+        assertFalse(Money.of("1234.5678").isCompact());
+        assertFalse(Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)).isCompact());
+    }
+
+    @Test
+    void toCents_ShouldRejectFractionsOfACent_WhenRoundingIsUnnecessary() {
+        assertEquals(1990, Money.of("19.9").toCents(RoundingMode.UNNECESSARY));
+        assertEquals(1235, Money.of("12.345").toCents(RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> Money.of("12.345").toCents(RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void json_ShouldReadAndWriteTheSameNumbersAsBigDecimal() throws Exception {
+        for (String amount : AMOUNTS) {
+            BigDecimal decimal = objectMapper.readValue(amount, BigDecimal.class);
+            Money money = objectMapper.readValue(amount, Money.class);
+
+            assertEquals(Money.of(decimal), money);
+            assertEquals(objectMapper.writeValueAsString(decimal), objectMapper.writeValueAsString(money));
+        }
+        assertEquals(Money.of("12.30"), objectMapper.readValue("\"12.30\"", Money.class));
+    }
+
+    @Test
+    void decimal128_ShouldEncodeLikeBigDecimalAndReadBack() {
+        for (String amount : AMOUNTS) {
+            BigDecimal decimal = new BigDecimal(amount);
+            Decimal128 encoded = MoneyConverters.MoneyToDecimal128Converter.INSTANCE.convert(Money.of(decimal));
+
+            assertEquals(new Decimal128(decimal), encoded);
+            assertEquals(Money.of(decimal), MoneyConverters.Decimal128ToMoneyConverter.INSTANCE.convert(encoded));
+        }
+    }
+
+    @Test
+    void decimalMin_ShouldValidateMoneyFields() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        OrderRequest request = OrderRequest.builder()
+                .orderId(UUID.randomUUID())
+                .barCode("7891234567895")
+                .quantity(1)
+                .price(Money.of("0.01"))
+                .build();
+        assertTrue(validator.validate(request).isEmpty());
+
+        request.setPrice(Money.of("0.00"));
+        assertEquals(1, validator.validate(request).size());
+    }
+}
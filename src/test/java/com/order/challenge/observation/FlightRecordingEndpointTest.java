@@ -0,0 +1,84 @@
+package com.order.challenge.observation;
+
+import com.order.challenge.config.FlightRecorderProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private OrderFlightRecorder recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.stop();
+        }
+    }
+
+    @Test
+    void dump_ShouldDeleteTheFile_WhenTheResponseHasBeenRead() throws IOException {
+        FlightRecordingEndpoint endpoint = startedEndpoint();
+
+        Resource dump = endpoint.dump().getBody();
+
+        assertFalse(dump.isFile());
+        try (ReadableByteChannel channel = dump.readableChannel()) {
+            assertTrue(channel.read(ByteBuffer.allocate(1024)) > 0);
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void dump_ShouldWriteDistinctFiles_WhenCalledWithinTheSameSecond() throws IOException {
+        FlightRecordingEndpoint endpoint = startedEndpoint();
+
+        Resource first = endpoint.dump().getBody();
+        Resource second = endpoint.dump().getBody();
+
+        assertNotEquals(first.getFilename(), second.getFilename());
+        try (InputStream in = first.getInputStream()) {
+            in.readAllBytes();
+        }
+        assertFalse(Files.exists(Path.of(first.getURI())));
+        assertTrue(Files.exists(Path.of(second.getURI())));
+    }
+
+    @Test
+    void dump_ShouldReturnNotFound_WhenNoRecordingIsRunning() {
+        recorder = new OrderFlightRecorder(properties());
+
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, new FlightRecordingEndpoint(recorder).dump().getStatus());
+    }
+
+    private FlightRecordingEndpoint startedEndpoint() {
+        recorder = new OrderFlightRecorder(properties());
+        recorder.start();
+        return new FlightRecordingEndpoint(recorder);
+    }
+
+    private FlightRecorderProperties properties() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setDumpDirectory(directory);
+        return properties;
+    }
+}
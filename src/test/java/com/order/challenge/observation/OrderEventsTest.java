@@ -0,0 +1,70 @@
+package com.order.challenge.observation;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OrderEventsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void lookup_ShouldReturnWorkUntouched_WhenNoRecordingIsRunning() {
+        Mono<String> work = Mono.just("order");
+
+        assertSame(work, OrderEvents.lookup(UUID.randomUUID(), work));
+    }
+
+    @Test
+    void events_ShouldCarryOrderIdAndOutcome_WhenRecording() throws IOException {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        Path file = directory.resolve("orders.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(OrderLookupEvent.class);
+            recording.enable(OrderPersistEvent.class);
+            recording.enable(OrderNotFoundEvent.class);
+            recording.start();
+
+            StepVerifier.create(OrderEvents.lookup(found, Mono.just("order"))).expectNext("order").verifyComplete();
+            StepVerifier.create(OrderEvents.lookup(missing, Mono.empty())).verifyComplete();
+            StepVerifier.create(OrderEvents.persist(found, 1, Mono.error(new IllegalStateException("DB Error"))))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+            OrderEvents.notFound(missing, true);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(List.of(
+                "Lookup " + found + " success",
+                "Lookup " + missing + " empty",
+                "Persist " + found + " error",
+                "NotFound " + missing + " filtered"
+        ), events.stream()
+                .sorted((left, right) -> left.getStartTime().compareTo(right.getStartTime()))
+                .map(event -> event.getEventType().getName().substring("com.order.challenge.".length())
+                        + " " + event.getString("orderId") + " " + event.getString("outcome"))
+                .toList());
+        assertEquals(1, events.stream()
+                .filter(event -> event.getEventType().getName().endsWith("Persist"))
+                .mapToInt(event -> event.getInt("orderCount"))
+                .sum());
+    }
+}
@@ -0,0 +1,23 @@
+package com.order.challenge.observation;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadPreferenceCommandTagsProviderTest {
+
+    @Test
+    void readPreferenceOf_ShouldReadMode_WhenDriverAttachedIt() {
+        BsonDocument find = BsonDocument.parse("{find: 'orders', '$db': 'db', '$readPreference': {mode: 'secondaryPreferred'}}");
+
+        assertEquals("secondaryPreferred", ReadPreferenceCommandTagsProvider.readPreferenceOf(find));
+    }
+
+    @Test
+    void readPreferenceOf_ShouldBePrimary_WhenCommandCarriesNoReadPreference() {
+        BsonDocument insert = BsonDocument.parse("{insert: 'orders', '$db': 'db'}");
+
+        assertEquals("primary", ReadPreferenceCommandTagsProvider.readPreferenceOf(insert));
+    }
+}
@@ -0,0 +1,150 @@
+package com.order.challenge.ranking;
+
+import com.order.challenge.config.TopBarcodesProperties;
+import com.order.challenge.entities.TopBarcodesSnapshotEntity;
+import com.order.challenge.enums.TopBarcodeRanking;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.TopBarcodesSnapshotRepositoryCustom;
+import com.order.challenge.response.TopBarcodesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopBarcodeTrackerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T10:07:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private TopBarcodesSnapshotRepositoryCustom snapshotRepository;
+
+    private TopBarcodeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new TopBarcodeTracker(new TopBarcodesProperties(), snapshotRepository, CLOCK);
+    }
+
+    @Test
+    void top_ShouldReportRevenueInCurrencyUnits() {
+        tracker.record("4567890", 2, Money.of("21.00"));
+        tracker.record("1234567", 10, Money.of("5.50"));
+
+        TopBarcodesResponse response = tracker.top(TopBarcodeRanking.REVENUE, 50, Duration.ofMinutes(10)).block();
+
+        assertEquals("4567890", response.getEntries().get(0).getBarCode());
+        assertEquals(new BigDecimal("21.00"), response.getEntries().get(0).getEstimate());
+        assertEquals(new BigDecimal("0.00"), response.getEntries().get(0).getMaxError());
+        assertEquals(2, response.getEntries().size());
+    }
+
+    @Test
+    void saveSnapshot_ShouldAllowRankingToSurviveRestart() {
+        TopBarcodeTracker instance = new TopBarcodeTracker(snapshotProperties("orders-1"), snapshotRepository, CLOCK);
+        instance.record("4567890", 3, Money.of("9.00"));
+        when(snapshotRepository.saveSnapshot(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(instance.saveSnapshot()).verifyComplete();
+
+        ArgumentCaptor<TopBarcodesSnapshotEntity> captor = ArgumentCaptor.forClass(TopBarcodesSnapshotEntity.class);
+        verify(snapshotRepository).saveSnapshot(captor.capture());
+
+        TopBarcodeTracker restarted = new TopBarcodeTracker(snapshotProperties("orders-1"), snapshotRepository, CLOCK);
+        when(snapshotRepository.findSnapshot(TopBarcodeTracker.SNAPSHOT_ID + ":orders-1"))
+                .thenReturn(Mono.just(captor.getValue()));
+        when(snapshotRepository.findSnapshotsTakenAfter(any())).thenReturn(Flux.just(captor.getValue()));
+
+        StepVerifier.create(restarted.restoreSnapshot()).verifyComplete();
+
+        // Its own snapshot is already restored into the sketch, so it must not be counted a second time.
+        TopBarcodesResponse response = restarted.top(TopBarcodeRanking.QUANTITY, 50, Duration.ofHours(1)).block();
+        assertEquals(new BigDecimal("3"), response.getEntries().get(0).getEstimate());
+    }
+
+    @Test
+    void top_ShouldMergeOtherInstancesSnapshots_WhenSnapshotsAreEnabled() {
+        TopBarcodeTracker other = new TopBarcodeTracker(snapshotProperties("orders-2"), snapshotRepository, CLOCK);
+        other.record("4567890", 5, Money.of("10.00"));
+        other.record("7654321", 1, Money.of("1.00"));
+        when(snapshotRepository.saveSnapshot(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        StepVerifier.create(other.saveSnapshot()).verifyComplete();
+        ArgumentCaptor<TopBarcodesSnapshotEntity> captor = ArgumentCaptor.forClass(TopBarcodesSnapshotEntity.class);
+        verify(snapshotRepository).saveSnapshot(captor.capture());
+
+        TopBarcodeTracker instance = new TopBarcodeTracker(snapshotProperties("orders-1"), snapshotRepository, CLOCK);
+        instance.record("4567890", 2, Money.of("4.00"));
+        when(snapshotRepository.findSnapshotsTakenAfter(LocalDateTime.of(2026, 10, 18, 9, 7)))
+                .thenReturn(Flux.just(captor.getValue()));
+
+        TopBarcodesResponse response = instance.top(TopBarcodeRanking.QUANTITY, 50, Duration.ofHours(1)).block();
+
+        assertEquals("4567890", response.getEntries().get(0).getBarCode());
+        assertEquals(new BigDecimal("7"), response.getEntries().get(0).getEstimate());
+        assertEquals(2, response.getEntries().size());
+    }
+
+    @Test
+    void top_ShouldAnswerFromThisInstance_WhenOtherSnapshotsCannotBeRead() {
+        TopBarcodeTracker instance = new TopBarcodeTracker(snapshotProperties("orders-1"), snapshotRepository, CLOCK);
+        instance.record("4567890", 2, Money.of("4.00"));
+        when(snapshotRepository.findSnapshotsTakenAfter(any())).thenReturn(Flux.error(new IllegalStateException("down")));
+
+        TopBarcodesResponse response = instance.top(TopBarcodeRanking.QUANTITY, 50, Duration.ofHours(1)).block();
+
+        assertEquals(new BigDecimal("2"), response.getEntries().get(0).getEstimate());
+    }
+
+    @Test
+    void expireSnapshots_ShouldDeleteSnapshotsTakenBeforeTheWindow() {
+        TopBarcodeTracker instance = new TopBarcodeTracker(snapshotProperties("orders-1"), snapshotRepository, CLOCK);
+        when(snapshotRepository.deleteSnapshotsTakenBefore(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(instance.expireSnapshots()).verifyComplete();
+
+        verify(snapshotRepository).deleteSnapshotsTakenBefore(LocalDateTime.of(2026, 10, 18, 9, 7));
+    }
+
+    @Test
+    void constructor_ShouldFail_WhenSnapshotsAreEnabledWithoutInstanceId() {
+        assertThrows(IllegalStateException.class,
+                () -> new TopBarcodeTracker(snapshotProperties(""), snapshotRepository, CLOCK));
+    }
+
+    @Test
+    void saveSnapshot_ShouldKeySnapshotByInstance_WhenInstanceIdIsSet() {
+        TopBarcodeTracker instance = new TopBarcodeTracker(snapshotProperties("orders-1"), snapshotRepository, CLOCK);
+        when(snapshotRepository.saveSnapshot(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(instance.saveSnapshot()).verifyComplete();
+
+        ArgumentCaptor<TopBarcodesSnapshotEntity> captor = ArgumentCaptor.forClass(TopBarcodesSnapshotEntity.class);
+        verify(snapshotRepository).saveSnapshot(captor.capture());
+        assertEquals(TopBarcodeTracker.SNAPSHOT_ID + ":orders-1", captor.getValue().getId());
+    }
+
+    private static TopBarcodesProperties snapshotProperties(String instanceId) {
+        TopBarcodesProperties properties = new TopBarcodesProperties();
+        properties.getSnapshot().setEnabled(true);
+        properties.getSnapshot().setInstanceId(instanceId);
+        return properties;
+    }
+}
@@ -0,0 +1,176 @@
+package com.order.challenge.repository.impl;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.order.challenge.bulkhead.MongoBulkheads;
+import com.order.challenge.config.ConsistencyProperties;
+import com.order.challenge.config.HedgedReadProperties;
+import com.order.challenge.config.QueryProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.hedge.HedgedReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRepositoryImplTest {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private ReactiveBulkOperations bulkOperations;
+
+    private OrderRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        ConsistencyProperties consistencyProperties = new ConsistencyProperties();
+        consistencyProperties.setReadYourWrites(false);
+        repository = new OrderRepositoryImpl(MongoBulkheads.shared(mongoTemplate), consistencyProperties,
+                new QueryProperties(), new HedgedReads(new HedgedReadProperties(), new SimpleMeterRegistry()));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderEntity.class))
+                .thenReturn(bulkOperations);
+    }
+
+    @Test
+    void insertAll_ShouldReportOnlyRejectedOrders_WhenTemplateTranslatesBulkFailure() {
+        List<OrderEntity> orders = List.of(order(), order(), order());
+        DataAccessException translated = translate(orders.size(),
+                new BulkWriteError(DUPLICATE_KEY, "E11000 duplicate key", new BsonDocument(), 1));
+        assertInstanceOf(DuplicateKeyException.class, translated);
+        when(bulkOperations.execute()).thenReturn(Mono.error(translated));
+
+        StepVerifier.create(repository.insertAll(orders))
+                .assertNext(result -> {
+                    assertEquals(List.of(orders.get(0), orders.get(2)), result.getInserted());
+                    assertEquals(Set.of(1), result.getFailures().keySet());
+                    assertEquals(Set.of(1), result.getDuplicates());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void insertAll_ShouldKeepFailureOutOfDuplicates_WhenDocumentIsRejectedForAnotherReason() {
+        List<OrderEntity> orders = List.of(order(), order());
+        BulkWriteError invalid = new BulkWriteError(121, "Document failed validation", new BsonDocument(), 0);
+        when(bulkOperations.execute()).thenReturn(Mono.error(translate(orders.size(), invalid)));
+
+        StepVerifier.create(repository.insertAll(orders))
+                .assertNext(result -> {
+                    assertEquals(List.of(orders.get(1)), result.getInserted());
+                    assertEquals(Set.of(0), result.getFailures().keySet());
+                    assertEquals(Set.of(), result.getDuplicates());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void insertAll_ShouldReportEachRejectedCopy_WhenBulkRepeatsAnOrderId() {
+        OrderEntity order = order();
+        OrderEntity firstCopy = OrderEntity.builder().orderId(order.getOrderId()).build();
+        OrderEntity secondCopy = OrderEntity.builder().orderId(order.getOrderId()).build();
+        List<OrderEntity> orders = List.of(order, firstCopy, secondCopy);
+        MongoBulkWriteException bulkWriteException = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, null, List.of(), List.of()),
+                List.of(new BulkWriteError(DUPLICATE_KEY, "E11000 duplicate key", new BsonDocument(), 1),
+                        new BulkWriteError(DUPLICATE_KEY, "E11000 duplicate key", new BsonDocument(), 2)),
+                null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenReturn(Mono.error(
+                new MongoExceptionTranslator().translateExceptionIfPossible(bulkWriteException)));
+
+        StepVerifier.create(repository.insertAll(orders))
+                .assertNext(result -> {
+                    assertEquals(List.of(order), result.getInserted());
+                    assertEquals(Set.of(1, 2), result.getFailures().keySet());
+                    assertEquals(Set.of(1, 2), result.getDuplicates());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void insertAll_ShouldFail_WhenBulkFailsWithoutPerDocumentErrors() {
+        when(bulkOperations.execute()).thenReturn(Mono.error(new DataAccessException("connection reset") { }));
+
+        StepVerifier.create(repository.insertAll(List.of(order())))
+                .expectError(DataAccessException.class)
+                .verify();
+    }
+
+    @Test
+    void findByOrderId_ShouldReadFromPrimary_WhenSecondaryRejectsTheCausalRead() {
+        ConsistencyProperties consistencyProperties = new ConsistencyProperties();
+        consistencyProperties.setReadYourWrites(true);
+        OrderRepositoryImpl causalRepository = new OrderRepositoryImpl(MongoBulkheads.shared(mongoTemplate),
+                consistencyProperties, new QueryProperties(),
+                new HedgedReads(new HedgedReadProperties(), new SimpleMeterRegistry()));
+        OrderEntity order = order();
+        ClientSession session = mock(ClientSession.class);
+        ReactiveMongoDatabaseFactory databaseFactory = mock(ReactiveMongoDatabaseFactory.class);
+        ReactiveMongoTemplate sessionTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.getMongoDatabaseFactory()).thenReturn(databaseFactory);
+        when(databaseFactory.getSession(any(ClientSessionOptions.class))).thenReturn(Mono.just(session));
+        when(mongoTemplate.withSession(session)).thenReturn(sessionTemplate);
+        // A member whose cluster time is behind the token's refuses the read instead of waiting for it.
+        MongoCommandException rejected = new MongoCommandException(BsonDocument.parse(
+                "{ok: 0, code: 2, codeName: 'BadValue', errmsg: 'readConcern afterClusterTime value must not be greater than the current clusterTime'}"),
+                new ServerAddress());
+        when(sessionTemplate.findOne(any(Query.class), eq(OrderEntity.class)))
+                .thenReturn(Mono.error(new MongoExceptionTranslator().translateExceptionIfPossible(rejected)));
+        when(mongoTemplate.findOne(argThat(query -> query != null && ReadPreference.primary().equals(query.getReadPreference())),
+                eq(OrderEntity.class))).thenReturn(Mono.just(order));
+
+        StepVerifier.create(causalRepository.findByOrderId(order.getOrderId(), new BsonTimestamp(1_760_000_000, 1)))
+                .expectNext(order)
+                .verifyComplete();
+    }
+
+    // What ReactiveMongoTemplate hands back for a bulk the server partly rejected.
+    private static DataAccessException translate(int submitted, BulkWriteError error) {
+        MongoBulkWriteException bulkWriteException = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(submitted - 1, 0, 0, null, List.of(), List.of()),
+                List.of(error), null, new ServerAddress(), Set.of());
+        return new MongoExceptionTranslator().translateExceptionIfPossible(bulkWriteException);
+    }
+
+    private static OrderEntity order() {
+        return OrderEntity.builder().orderId(UUID.randomUUID()).build();
+    }
+}
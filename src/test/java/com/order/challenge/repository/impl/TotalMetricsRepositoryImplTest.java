@@ -0,0 +1,363 @@
+package com.order.challenge.repository.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.bulkhead.MongoBulkheads;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.AccountingMode;
+import com.order.challenge.enums.CounterLayout;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TotalMetricsRepositoryImplTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 9, 35, 10);
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private ReactiveBulkOperations rollupOperations;
+
+    private MetricsProperties metricsProperties;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TotalMetricsRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        metricsProperties = new MetricsProperties();
+        repository = new TotalMetricsRepositoryImpl(MongoBulkheads.shared(mongoTemplate), metricsProperties,
+                meterRegistry);
+    }
+
+    @Test
+    void recordOrders_ShouldTargetGlobalDocument_WhenLayoutIsSingle() {
+        stubWrites();
+
+        StepVerifier.create(repository.recordOrders(List.of(order("10.00", CREATED_AT))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).upsert(captor.capture(), any(Update.class), eq(TotalMetricsEntity.class));
+        assertEquals(TotalMetricsRepositoryImpl.GLOBAL_ID, captor.getValue().getQueryObject().get("_id"));
+    }
+
+    @Test
+    void recordOrders_ShouldSpreadAcrossSlots_WhenLayoutIsSharded() {
+        metricsProperties.setLayout(CounterLayout.SHARDED);
+        metricsProperties.setShards(4);
+        stubWrites();
+
+        for (int i = 0; i < 20; i++) {
+            repository.recordOrders(List.of(order("1.00", CREATED_AT))).block();
+        }
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(20)).upsert(captor.capture(), any(Update.class), eq(TotalMetricsEntity.class));
+        captor.getAllValues().forEach(query -> {
+            String id = (String) query.getQueryObject().get("_id");
+            assertTrue(id.matches(TotalMetricsRepositoryImpl.GLOBAL_ID + "#[0-3]"), id);
+        });
+    }
+
+    @Test
+    void recordOrders_ShouldUpdateCountMinMaxAndLeaveMinuteAndHourRollupsToTheFlush() {
+        stubWrites();
+
+        repository.recordOrders(List.of(
+                order("10.25", CREATED_AT),
+                order("4.75", CREATED_AT.plusSeconds(5)),
+                order("0.10", CREATED_AT.plusSeconds(20)))).block();
+        verifyNoInteractions(rollupOperations);
+        StepVerifier.create(repository.flush()).verifyComplete();
+
+        ArgumentCaptor<Update> counter = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), counter.capture(), eq(TotalMetricsEntity.class));
+        Document update = counter.getValue().getUpdateObject();
+        assertEquals(new Decimal128(new BigDecimal("15.10")), ((Document) update.get("$inc")).get("totalValue"));
+        assertEquals(3L, ((Document) update.get("$inc")).get("orderCount"));
+        assertEquals(new Decimal128(new BigDecimal("0.10")), ((Document) update.get("$min")).get("minValue"));
+        assertEquals(new Decimal128(new BigDecimal("10.25")), ((Document) update.get("$max")).get("maxValue"));
+
+        ArgumentCaptor<Query> rollups = ArgumentCaptor.forClass(Query.class);
+        verify(rollupOperations, times(2)).upsert(rollups.capture(), any(UpdateDefinition.class));
+        assertEquals(List.of("MINUTE:2026-10-18T09:35", "HOUR:2026-10-18T09:00"),
+                rollups.getAllValues().stream().map(query -> query.getQueryObject().get("_id")).toList());
+        verify(rollupOperations, times(1)).execute();
+    }
+
+    @Test
+    void findTotalMetrics_ShouldMergeLegacyDocumentAndSlots() {
+        when(mongoTemplate.find(any(Query.class), eq(TotalMetricsEntity.class)))
+                .thenReturn(Flux.just(
+                        new TotalMetricsEntity(TotalMetricsRepositoryImpl.GLOBAL_ID, new BigDecimal("100.50")),
+                        new TotalMetricsEntity(TotalMetricsRepositoryImpl.GLOBAL_ID + "#0", new BigDecimal("20.25"),
+                                3L, new BigDecimal("1.25"), new BigDecimal("15.00"), true),
+                        new TotalMetricsEntity(TotalMetricsRepositoryImpl.GLOBAL_ID + "#3", new BigDecimal("4.25"),
+                                1L, new BigDecimal("4.25"), new BigDecimal("4.25"), true)));
+
+        StepVerifier.create(repository.findTotalMetrics())
+                .assertNext(metrics -> {
+                    assertEquals(TotalMetricsRepositoryImpl.GLOBAL_ID, metrics.getId());
+                    assertEquals(new BigDecimal("125.00"), metrics.getTotalValue());
+                    assertEquals(4L, metrics.getOrderCount());
+                    assertEquals(new BigDecimal("1.25"), metrics.getMinValue());
+                    assertEquals(new BigDecimal("15.00"), metrics.getMaxValue());
+                    assertEquals(false, metrics.getCountComplete());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findTotalMetrics_ShouldReturnEmpty_WhenNoCounterExists() {
+        when(mongoTemplate.find(any(Query.class), eq(TotalMetricsEntity.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(repository.findTotalMetrics())
+                .verifyComplete();
+    }
+
+    @Test
+    void recordOrders_ShouldNotWriteToDatabase_WhenAccumulatorIsEnabled() {
+        metricsProperties.getAccumulator().setEnabled(true);
+
+        StepVerifier.create(repository.recordOrders(List.of(order("10.25", LocalDateTime.now()))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void flush_ShouldIssueSingleCombinedUpdate_WhenAccumulatorIsEnabled() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        stubWrites();
+        LocalDateTime now = LocalDateTime.now();
+
+        repository.recordOrders(List.of(order("10.25", now))).block();
+        repository.recordOrders(List.of(order("4.75", now))).block();
+        repository.recordOrders(List.of(order("0.10", now))).block();
+
+        StepVerifier.create(repository.flush()).verifyComplete();
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), captor.capture(), eq(TotalMetricsEntity.class));
+        Document increment = (Document) captor.getValue().getUpdateObject().get("$inc");
+        assertEquals(new Decimal128(new BigDecimal("15.10")), increment.get("totalValue"));
+        assertEquals(3L, increment.get("orderCount"));
+        verify(rollupOperations, times(2)).upsert(any(Query.class), any(UpdateDefinition.class));
+    }
+
+    @Test
+    void findTotalMetrics_ShouldAddUnflushedDelta_WhenAccumulatorIsEnabled() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        when(mongoTemplate.find(any(Query.class), eq(TotalMetricsEntity.class)))
+                .thenReturn(Flux.just(new TotalMetricsEntity(TotalMetricsRepositoryImpl.GLOBAL_ID, new BigDecimal("100.00"),
+                        10L, new BigDecimal("5.00"), new BigDecimal("20.00"), true)));
+
+        repository.recordOrders(List.of(order("2.50", LocalDateTime.now()))).block();
+
+        StepVerifier.create(repository.findTotalMetrics())
+                .assertNext(metrics -> {
+                    assertEquals(new BigDecimal("102.50"), metrics.getTotalValue());
+                    assertEquals(11L, metrics.getOrderCount());
+                    assertEquals(new BigDecimal("2.50"), metrics.getMinValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void flush_ShouldKeepDeltaPending_WhenDatabaseWriteFails() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(TotalMetricsEntity.class)))
+                .thenReturn(Mono.error(new RuntimeException("DB Error")));
+        when(mongoTemplate.find(any(Query.class), eq(TotalMetricsEntity.class))).thenReturn(Flux.empty());
+
+        repository.recordOrders(List.of(order("7.00", LocalDateTime.now()))).block();
+
+        StepVerifier.create(repository.flush()).verifyError();
+
+        StepVerifier.create(repository.findTotalMetrics())
+                .assertNext(metrics -> {
+                    assertEquals(new BigDecimal("7.00"), metrics.getTotalValue());
+                    assertEquals(1L, metrics.getOrderCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void flush_ShouldRetryOnlyRollups_WhenCounterWasWrittenButRollupsFailed() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        stubWrites();
+        when(rollupOperations.execute())
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("socket timeout")))
+                .thenReturn(Mono.just(BulkWriteResult.acknowledged(0, 0, 0, 2, List.of(), List.of())));
+
+        repository.recordOrders(List.of(order("7.00", LocalDateTime.now()))).block();
+
+        StepVerifier.create(repository.flush()).verifyError(DataAccessResourceFailureException.class);
+        StepVerifier.create(repository.flush()).verifyComplete();
+
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(Update.class), eq(TotalMetricsEntity.class));
+        ArgumentCaptor<Query> rollupQueries = ArgumentCaptor.forClass(Query.class);
+        verify(rollupOperations, times(4)).upsert(rollupQueries.capture(), any(UpdateDefinition.class));
+        // Both attempts carry the same delta id, so a bucket the first attempt reached does not match the second.
+        assertEquals(rollupQueries.getAllValues().get(0).getQueryObject(), rollupQueries.getAllValues().get(2).getQueryObject());
+    }
+
+    @Test
+    void flush_ShouldTreatBucketsThatAlreadyHaveTheDeltaAsWritten() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        stubWrites();
+        DataAccessException alreadyApplied = new MongoExceptionTranslator().translateExceptionIfPossible(
+                new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                        List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                        null, new ServerAddress(), Set.of()));
+        when(rollupOperations.execute()).thenReturn(Mono.error(alreadyApplied));
+
+        repository.recordOrders(List.of(order("7.00", LocalDateTime.now()))).block();
+
+        StepVerifier.create(repository.flush()).verifyComplete();
+        verify(rollupOperations, times(2)).execute();
+    }
+
+    @Test
+    void findRollups_ShouldMergeUnflushedBuckets_WhenAccumulatorIsEnabled() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        LocalDateTime hour = RollupGranularity.HOUR.truncate(LocalDateTime.now());
+        when(mongoTemplate.find(any(Query.class), eq(MetricsRollupEntity.class)))
+                .thenReturn(Flux.just(MetricsRollupEntity.builder()
+                        .id(MetricsRollupEntity.idOf(RollupGranularity.HOUR, hour))
+                        .granularity(RollupGranularity.HOUR)
+                        .bucketStart(hour)
+                        .orderCount(2L)
+                        .totalValue(new BigDecimal("30.00"))
+                        .minValue(new BigDecimal("10.00"))
+                        .maxValue(new BigDecimal("20.00"))
+                        .build()));
+
+        repository.recordOrders(List.of(order("25.00", LocalDateTime.now()))).block();
+
+        StepVerifier.create(repository.findRollups(RollupGranularity.HOUR, hour, hour.plusMinutes(59)))
+                .assertNext(rollup -> {
+                    assertEquals(hour, rollup.getBucketStart());
+                    assertEquals(3L, rollup.getOrderCount());
+                    assertEquals(new BigDecimal("55.00"), rollup.getTotalValue());
+                    assertEquals(new BigDecimal("10.00"), rollup.getMinValue());
+                    assertEquals(new BigDecimal("25.00"), rollup.getMaxValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void flush_ShouldWriteEachBucketOnce_WhenManyUnbufferedOrdersShareIt() {
+        stubWrites();
+
+        for (int i = 0; i < 50; i++) {
+            repository.recordOrders(List.of(order("1.00", CREATED_AT.plusSeconds(i % 60)))).block();
+        }
+        StepVerifier.create(repository.flush()).verifyComplete();
+
+        verify(mongoTemplate, times(50)).upsert(any(Query.class), any(Update.class), eq(TotalMetricsEntity.class));
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(rollupOperations, times(2)).upsert(any(Query.class), updates.capture());
+        assertEquals(50L, ((Document) updates.getValue().getUpdateObject().get("$inc")).get("orderCount"));
+        verify(rollupOperations, times(1)).execute();
+    }
+
+    @Test
+    void recordOrders_ShouldWriteRollupsWithTheCounter_WhenAccountingRunsOnTheChangeStream() {
+        metricsProperties.getAccounting().setMode(AccountingMode.CHANGE_STREAM);
+        stubWrites();
+
+        repository.recordOrders(List.of(order("10.25", CREATED_AT))).block();
+
+        ArgumentCaptor<Query> rollups = ArgumentCaptor.forClass(Query.class);
+        verify(rollupOperations, times(2)).upsert(rollups.capture(), any(UpdateDefinition.class));
+        assertEquals(Set.of("_id"), rollups.getValue().getQueryObject().keySet());
+    }
+
+    @Test
+    void flush_ShouldWriteEarlierRollupsFirst_WhenAnEarlierFlushLeftThemPending() {
+        metricsProperties.getAccumulator().setEnabled(true);
+        stubWrites();
+        when(rollupOperations.execute())
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("socket timeout")))
+                .thenReturn(Mono.just(BulkWriteResult.acknowledged(0, 0, 0, 2, List.of(), List.of())));
+
+        repository.recordOrders(List.of(order("7.00", LocalDateTime.now()))).block();
+        StepVerifier.create(repository.flush()).verifyError(DataAccessResourceFailureException.class);
+
+        repository.recordOrders(List.of(order("3.00", LocalDateTime.now()))).block();
+        StepVerifier.create(repository.flush()).verifyComplete();
+
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(rollupOperations, times(6)).upsert(any(Query.class), updates.capture());
+        List<Object> sequences = updates.getAllValues().stream()
+                .map(update -> ((Document) update.getUpdateObject().get("$max")).values().stream()
+                        .filter(Long.class::isInstance).findFirst().orElseThrow())
+                .toList();
+        assertEquals(List.of(1L, 1L, 1L, 1L, 2L, 2L), sequences);
+    }
+
+    private void stubWrites() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(TotalMetricsEntity.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricsRollupEntity.class))
+                .thenReturn(rollupOperations);
+        lenient().when(rollupOperations.execute())
+                .thenReturn(Mono.just(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of())));
+    }
+
+    private static OrderEntity order(String totalValue, LocalDateTime createdAt) {
+        return OrderEntity.builder()
+                .orderId(UUID.randomUUID())
+                .totalValue(Money.of(totalValue))
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+package com.order.challenge.repository.local;
+
+import com.order.challenge.config.LocalStoreProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.impl.MetricsStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalOrderStoreTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 9, 35, 10, 123_456_789);
+
+    @TempDir
+    Path directory;
+
+    private LocalStoreProperties properties;
+    private LocalOrderStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LocalStoreProperties();
+        properties.setDirectory(directory);
+        properties.setInitialIndexCapacity(16);
+        properties.getCompaction().setEnabled(false);
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void save_ShouldReturnLatestVersion_WhenOrderIsSavedTwice() {
+        UUID orderId = UUID.randomUUID();
+        store.save(order(orderId, "7891234567895", 2, "10.50"));
+        store.save(order(orderId, "7891234567895", 3, "10.50"));
+
+        OrderEntity found = store.find(orderId);
+        assertEquals(3, found.getQuantity());
+        assertEquals(Money.of("31.50"), found.getTotalValue());
+        assertEquals(CREATED_AT, found.getCreatedAt());
+        assertEquals("7891234567895", found.getBarCode());
+        assertNull(store.find(UUID.randomUUID()));
+    }
+
+    @Test
+    void insert_ShouldRejectOrder_WhenIdAlreadyExists() {
+        UUID orderId = UUID.randomUUID();
+        assertTrue(store.insert(order(orderId, "A", 1, "1.00")));
+        assertFalse(store.insert(order(orderId, "B", 1, "2.00")));
+
+        assertEquals("A", store.find(orderId).getBarCode());
+    }
+
+    @Test
+    void account_ShouldCountEachOrderOnce() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        store.save(order(first, "A", 1, "10.00"));
+        store.save(order(second, "B", 2, "5.00"));
+
+        assertEquals(2, store.account(List.of(first, second, UUID.randomUUID())));
+        assertEquals(0, store.account(List.of(first)));
+
+        MetricsStats total = store.total();
+        assertEquals(2, total.count());
+        assertEquals(Money.of("20.00"), total.sum());
+        assertEquals(OrderStatus.ACCOUNTED, store.find(first).getStatus());
+        assertEquals(1, store.minutes(CREATED_AT.withSecond(0).withNano(0), CREATED_AT.plusMinutes(1)).size());
+    }
+
+    @Test
+    void open_ShouldReplayOrdersAndMetrics_WhenStoreIsReopened() {
+        UUID accounted = UUID.randomUUID();
+        UUID replaced = UUID.randomUUID();
+        store.save(order(accounted, "A", 1, "10.00"));
+        store.save(order(replaced, "B", 1, "1.00"));
+        store.account(List.of(accounted, replaced));
+        store.save(order(replaced, "B", 4, "1.00"));
+        store.close();
+
+        store = open();
+
+        assertEquals(OrderStatus.ACCOUNTED, store.find(accounted).getStatus());
+        assertEquals(4, store.find(replaced).getQuantity());
+        assertFalse(store.isAccounted(replaced));
+        assertEquals(1, store.total().count());
+        assertEquals(Money.of("10.00"), store.total().sum());
+    }
+
+    @Test
+    void insert_ShouldKeepEveryOrder_WhenFsyncWritersShareForcesAcrossSegmentRolls() throws Exception {
+        store.close();
+        properties.setFsync(true);
+        properties.setSegmentSize(DataSize.ofBytes(LocalOrderRecord.SIZE * 8L));
+        store = open();
+
+        List<UUID> orderIds = Stream.generate(UUID::randomUUID).limit(64).toList();
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> inserts = orderIds.stream()
+                    .map(orderId -> writers.submit(() -> store.insert(order(orderId, "A", 1, "1.00"))))
+                    .toList();
+            for (Future<Boolean> insert : inserts) {
+                assertTrue(insert.get());
+            }
+        } finally {
+            writers.shutdown();
+        }
+        store.close();
+
+        store = open();
+
+        orderIds.forEach(orderId -> assertEquals(orderId, store.find(orderId).getOrderId()));
+    }
+
+    @Test
+    void open_ShouldDiscardTornTail_WhenLastRecordIsCorrupt() throws IOException {
+        UUID kept = UUID.randomUUID();
+        UUID torn = UUID.randomUUID();
+        store.save(order(kept, "A", 1, "1.00"));
+        store.save(order(torn, "B", 1, "1.00"));
+        store.close();
+        corrupt(onlySegment(), 2);
+
+        store = open();
+        assertEquals("A", store.find(kept).getBarCode());
+        assertNull(store.find(torn));
+
+        UUID next = UUID.randomUUID();
+        store.save(order(next, "C", 1, "1.00"));
+        store.close();
+        store = open();
+        assertEquals(2, store.orderIds().size());
+        assertEquals("C", store.find(next).getBarCode());
+    }
+
+    @Test
+    void compact_ShouldKeepLiveOrdersAndMetrics_WhenSegmentsAreMostlyGarbage() throws IOException {
+        store.close();
+        properties.setDirectory(directory.resolve("small-segments"));
+        properties.setSegmentSize(DataSize.ofBytes(LocalOrderRecord.SIZE * 8L));
+        store = open();
+
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (int version = 1; version <= 10; version++) {
+            for (UUID orderId : orderIds) {
+                store.save(order(orderId, "A", version, "1.00"));
+            }
+        }
+        store.account(orderIds.subList(0, 2));
+        long segmentsBefore = segmentCount();
+
+        assertTrue(store.compact());
+
+        assertTrue(segmentCount() < segmentsBefore);
+        orderIds.forEach(orderId -> assertEquals(10, store.find(orderId).getQuantity()));
+        assertEquals(2, store.total().count());
+
+        store.close();
+        store = open();
+        orderIds.forEach(orderId -> assertEquals(10, store.find(orderId).getQuantity()));
+        assertTrue(store.isAccounted(orderIds.get(0)));
+        assertFalse(store.isAccounted(orderIds.get(2)));
+        assertEquals(Money.of("20.00"), store.total().sum());
+    }
+
+    private LocalOrderStore open() {
+        LocalOrderStore opened = new LocalOrderStore(properties);
+        opened.open();
+        return opened;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(LocalSegment.SUFFIX)).findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            return files.filter(path -> path.toString().endsWith(LocalSegment.SUFFIX)).count();
+        }
+    }
+
+    private static void corrupt(Path segment, int slot) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), LocalSegment.offsetOf(slot) + 40L);
+        }
+    }
+
+    private static OrderEntity order(UUID orderId, String barCode, int quantity, String price) {
+        Money unitPrice = Money.of(price);
+        return OrderEntity.builder()
+                .orderId(orderId)
+                .barCode(barCode)
+                .quantity(quantity)
+                .price(unitPrice)
+                .totalValue(unitPrice.times(quantity))
+                .createdAt(CREATED_AT)
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.order.challenge.repository.local;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OffHeapOrderIndexTest {
+
+    @Test
+    void put_ShouldKeepEveryEntry_WhenTableGrows() {
+        OffHeapOrderIndex index = new OffHeapOrderIndex(16);
+        Map<UUID, Long> expected = new HashMap<>();
+        for (long location = 1; location <= 10_000; location++) {
+            UUID orderId = UUID.randomUUID();
+            index.put(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits(), location);
+            expected.put(orderId, location);
+        }
+
+        assertEquals(expected.size(), index.size());
+        expected.forEach((orderId, location) ->
+                assertEquals(location, index.get(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits())));
+        assertEquals(0, index.get(1, 2));
+    }
+
+    @Test
+    void put_ShouldReturnPreviousLocation_WhenIdIsAlreadyIndexed() {
+        OffHeapOrderIndex index = new OffHeapOrderIndex(16);
+        UUID orderId = UUID.randomUUID();
+
+        assertEquals(0, index.put(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits(), 7));
+        assertEquals(7, index.put(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits(), 9));
+        assertEquals(1, index.size());
+        assertEquals(9, index.get(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits()));
+    }
+}
@@ -0,0 +1,212 @@
+package com.order.challenge.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.AccountingCheckpointEntity;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.AccountingMode;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.repository.impl.OrderAccountingRepositoryImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The template answers from a handful of seeded orders, filtered the way the server would filter them.
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderAccountingBacklogTest {
+
+    private static final LocalDateTime CUTOVER = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private TotalMetricsRepositoryCustom totalMetricsRepository;
+
+    private final List<OrderEntity> orders = new CopyOnWriteArrayList<>();
+    private final List<OrderEntity> counted = new CopyOnWriteArrayList<>();
+
+    private OrderAccountingRepositoryImpl repository;
+    private OrderAccountingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OrderAccountingRepositoryImpl(mongoTemplate, transactionalOperator);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class)))
+                .thenAnswer(invocation -> Flux.fromIterable(matching(invocation.getArgument(0))));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(OrderEntity.class)))
+                .thenAnswer(invocation -> Mono.just(update(invocation.getArgument(0), invocation.getArgument(1))));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(AccountingCheckpointEntity.class)))
+                .thenReturn(Mono.just(AccountingCheckpointEntity.builder().cutoverAt(CUTOVER).build()));
+        when(mongoTemplate.findById(anyString(), eq(AccountingCheckpointEntity.class))).thenReturn(Mono.empty());
+        when(mongoTemplate.getCollectionName(OrderEntity.class)).thenReturn("orders");
+        when(mongoTemplate.changeStream(anyString(), any(), eq(OrderEntity.class))).thenReturn(Flux.never());
+        when(totalMetricsRepository.recordOrders(anyCollection())).thenAnswer(invocation -> {
+            Collection<OrderEntity> recorded = invocation.getArgument(0);
+            counted.addAll(recorded);
+            return Mono.just(UpdateResult.acknowledged(recorded.size(), (long) recorded.size(), null));
+        });
+
+        MetricsProperties metricsProperties = new MetricsProperties();
+        metricsProperties.getAccounting().setMode(AccountingMode.CHANGE_STREAM);
+        pipeline = new OrderAccountingPipeline(repository, totalMetricsRepository, transactionalOperator,
+                metricsProperties, new OrderAccountant(repository, totalMetricsRepository));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void backlogSweep_ShouldSkipOrdersAlreadyCountedBeforeCutover_WhenSwitchingToChangeStream() {
+        OrderEntity legacy = seed(null, CUTOVER.minusDays(30));
+        OrderEntity countedInlineBeforeCutover = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.minusMinutes(5));
+        OrderEntity countedInline = seed(OrderStatus.ACCOUNTED, CUTOVER.plusMinutes(1));
+        OrderEntity pending = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.plusMinutes(2));
+
+        // Every stubbed call completes on the caller's thread, so the sweep is done when start returns.
+        pipeline.start();
+
+        assertEquals(List.of(pending), counted);
+        assertEquals(OrderStatus.ACCOUNTED, pending.getStatus());
+        assertNull(legacy.getStatus());
+        assertEquals(OrderStatus.NOT_ACCOUNTED, countedInlineBeforeCutover.getStatus());
+        assertEquals(OrderStatus.ACCOUNTED, countedInline.getStatus());
+    }
+
+    @Test
+    void claim_ShouldReturnOnlyOrdersStillPending_WhenSomeWereAlreadyAccounted() {
+        OrderEntity legacy = seed(null, CUTOVER.minusDays(1));
+        OrderEntity accounted = seed(OrderStatus.ACCOUNTED, CUTOVER.plusMinutes(1));
+        OrderEntity pending = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.plusMinutes(2));
+
+        StepVerifier.create(repository.claim(List.of(legacy.getOrderId(), accounted.getOrderId(), pending.getOrderId())))
+                .expectNext(List.of(pending.getOrderId()))
+                .verifyComplete();
+        StepVerifier.create(repository.claim(List.of(legacy.getOrderId(), accounted.getOrderId(), pending.getOrderId())))
+                .expectNext(List.of())
+                .verifyComplete();
+    }
+
+    @Test
+    void claim_ShouldRetry_WhenTransactionHitsAWriteConflict() {
+        OrderEntity first = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.plusMinutes(1));
+        OrderEntity second = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.plusMinutes(2));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(OrderEntity.class)))
+                .thenReturn(Mono.error(new UncategorizedMongoDbException("Write conflict",
+                        new MongoException(112, "WriteConflict"))))
+                .thenAnswer(invocation -> Mono.just(update(invocation.getArgument(0), invocation.getArgument(1))));
+
+        StepVerifier.create(repository.claim(List.of(first.getOrderId(), second.getOrderId())))
+                .expectNext(List.of(first.getOrderId(), second.getOrderId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void claim_ShouldNotRetry_WhenTransactionFailsForAnotherReason() {
+        OrderEntity first = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.plusMinutes(1));
+        OrderEntity second = seed(OrderStatus.NOT_ACCOUNTED, CUTOVER.plusMinutes(2));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(OrderEntity.class)))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Not primary")));
+
+        StepVerifier.create(repository.claim(List.of(first.getOrderId(), second.getOrderId())))
+                .verifyError(DataAccessResourceFailureException.class);
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(OrderEntity.class));
+    }
+
+    private OrderEntity seed(OrderStatus status, LocalDateTime createdAt) {
+        OrderEntity order = OrderEntity.builder()
+                .orderId(UUID.randomUUID())
+                .totalValue(Money.of("10.00"))
+                .createdAt(createdAt)
+                .status(status)
+                .build();
+        orders.add(order);
+        return order;
+    }
+
+    private List<OrderEntity> matching(Query query) {
+        return orders.stream()
+                .filter(order -> matches(order, query.getQueryObject()))
+                .toList();
+    }
+
+    private UpdateResult update(Query query, Update update) {
+        List<OrderEntity> matched = matching(query);
+        Document set = (Document) update.getUpdateObject().get("$set");
+        matched.forEach(order -> order.setStatus((OrderStatus) set.get("status")));
+        return UpdateResult.acknowledged(matched.size(), (long) matched.size(), null);
+    }
+
+    // Covers the operators the accounting queries use; a missing field matches neither a value nor a range.
+    private static boolean matches(OrderEntity order, Document filter) {
+        BeanWrapperImpl fields = new BeanWrapperImpl(order);
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            Object actual = fields.getPropertyValue(condition.getKey());
+            if (!(condition.getValue() instanceof Document operators)) {
+                if (!Objects.equals(actual, condition.getValue())) {
+                    return false;
+                }
+                continue;
+            }
+            for (Map.Entry<String, Object> operator : operators.entrySet()) {
+                boolean matched = switch (operator.getKey()) {
+                    case "$in" -> new ArrayList<>((Collection<?>) operator.getValue()).contains(actual);
+                    case "$gte" -> actual != null
+                            && !((LocalDateTime) actual).isBefore((LocalDateTime) operator.getValue());
+                    default -> throw new IllegalArgumentException("Unsupported operator " + operator.getKey());
+                };
+                if (!matched) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.order.challenge.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderAccountingPipelineTest {
+
+    @Mock
+    private OrderAccountingRepositoryCustom accountingRepository;
+
+    @Mock
+    private TotalMetricsRepositoryCustom totalMetricsRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private OrderAccountant orderAccountant;
+
+    private OrderAccountingPipeline pipeline;
+
+    private final BsonDocument resumeToken = new BsonDocument("_data", new BsonString("8263A1"));
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new OrderAccountingPipeline(accountingRepository, totalMetricsRepository,
+                transactionalOperator, new MetricsProperties(), orderAccountant);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void account_ShouldIncrementOnlyOrdersNotYetAccounted_AndStoreResumeToken() {
+        OrderEntity pending = order("10.00");
+        OrderEntity alreadyAccounted = order("99.00");
+        when(accountingRepository.findNotAccounted(anyCollection())).thenReturn(Flux.just(pending));
+        when(accountingRepository.markAccounted(List.of(pending.getOrderId())))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(totalMetricsRepository.recordOrders(anyCollection()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(accountingRepository.saveResumeToken(eq(OrderAccountingPipeline.PIPELINE_ID), eq(resumeToken)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(pipeline.account(List.of(pending, alreadyAccounted), resumeToken))
+                .verifyComplete();
+
+        verify(totalMetricsRepository, times(1)).recordOrders(List.of(pending));
+        verify(accountingRepository, times(1)).saveResumeToken(OrderAccountingPipeline.PIPELINE_ID, resumeToken);
+        verify(transactionalOperator, times(1)).transactional(any(Mono.class));
+    }
+
+    @Test
+    void account_ShouldOnlyAdvanceCheckpoint_WhenEveryOrderWasAlreadyAccounted() {
+        when(accountingRepository.findNotAccounted(anyCollection())).thenReturn(Flux.empty());
+        when(accountingRepository.saveResumeToken(eq(OrderAccountingPipeline.PIPELINE_ID), eq(resumeToken)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(pipeline.account(List.of(order("10.00")), resumeToken))
+                .verifyComplete();
+
+        verify(accountingRepository, never()).markAccounted(any());
+        verify(totalMetricsRepository, never()).recordOrders(any());
+    }
+
+    @Test
+    void account_ShouldNotTouchCheckpoint_WhenSweepingBacklog() {
+        OrderEntity pending = order("5.50");
+        when(accountingRepository.findNotAccounted(anyCollection())).thenReturn(Flux.just(pending));
+        when(accountingRepository.markAccounted(anyCollection()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(totalMetricsRepository.recordOrders(anyCollection()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        StepVerifier.create(pipeline.account(List.of(pending), null))
+                .verifyComplete();
+
+        verify(accountingRepository, never()).saveResumeToken(any(), any());
+    }
+
+    private static OrderEntity order(String totalValue) {
+        return OrderEntity.builder()
+                .orderId(UUID.randomUUID())
+                .totalValue(Money.of(totalValue))
+                .status(OrderStatus.NOT_ACCOUNTED)
+                .build();
+    }
+}
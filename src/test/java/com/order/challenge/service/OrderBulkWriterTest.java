@@ -0,0 +1,84 @@
+package com.order.challenge.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.repository.BulkInsertResult;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBulkWriterTest {
+
+    @Mock
+    private OrderRepositoryCustom orderRepository;
+
+    @Mock
+    private OrderAccountant orderAccountant;
+
+    private OrderBulkWriter orderBulkWriter;
+
+    @BeforeEach
+    void setUp() {
+        orderBulkWriter = new OrderBulkWriter(orderRepository, orderAccountant, new MetricsProperties());
+    }
+
+    @Test
+    void write_ShouldReportInsertedOrders_WhenMetricsUpdateFails() {
+        List<OrderEntity> orders = List.of(order(), order());
+        BulkInsertResult inserted = new BulkInsertResult(orders, Map.of());
+        when(orderRepository.insertAll(orders)).thenReturn(Mono.just(inserted));
+        AtomicInteger attempts = new AtomicInteger();
+        when(orderAccountant.accountInserted(orders)).thenReturn(Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("metrics unavailable"));
+        }));
+        when(orderAccountant.account(orders)).thenReturn(Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.just(UpdateResult.acknowledged(2, 2L, null));
+        }));
+
+        StepVerifier.create(orderBulkWriter.write(orders))
+                .expectNext(inserted)
+                .verifyComplete();
+
+        // The retry backs off for about a second before it claims the orders again.
+        StepVerifier.create(Mono.delay(Duration.ofMillis(100)).repeat().takeUntil(tick -> attempts.get() == 2).then())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void write_ShouldSkipAccounting_WhenNothingWasInserted() {
+        List<OrderEntity> orders = List.of(order());
+        when(orderRepository.insertAll(anyList())).thenReturn(Mono.just(new BulkInsertResult(List.of(), Map.of(0, "E11000"))));
+
+        StepVerifier.create(orderBulkWriter.write(orders))
+                .assertNext(result -> assertTrue(result.getInserted().isEmpty()))
+                .verifyComplete();
+
+        verifyNoInteractions(orderAccountant);
+    }
+
+    private static OrderEntity order() {
+        return OrderEntity.builder().orderId(UUID.randomUUID()).build();
+    }
+}
@@ -0,0 +1,273 @@
+package com.order.challenge.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.order.challenge.bulkhead.MongoBulkheads;
+import com.order.challenge.cache.OrderExistenceFilter;
+import com.order.challenge.cache.OrderResponseCache;
+import com.order.challenge.config.ConcurrencyLimitProperties;
+import com.order.challenge.config.ConsistencyProperties;
+import com.order.challenge.config.HedgedReadProperties;
+import com.order.challenge.config.IngestProperties;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.config.OrderCacheProperties;
+import com.order.challenge.config.QueryProperties;
+import com.order.challenge.config.ReadCoalescingProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.limit.OrderConcurrencyLimiter;
+import com.order.challenge.hedge.HedgedReads;
+import com.order.challenge.live.OrderLiveFeed;
+import com.order.challenge.mapper.OrderMapper;
+import com.order.challenge.money.Money;
+import com.order.challenge.observation.OrderStageObserver;
+import com.order.challenge.ranking.TopBarcodeTracker;
+import com.order.challenge.repository.OrderAccountingRepositoryCustom;
+import com.order.challenge.repository.OrderRepositoryCustom;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import com.order.challenge.repository.impl.OrderRepositoryImpl;
+import com.order.challenge.request.OrderRequest;
+import com.order.challenge.response.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A retry storm against a store that, like the unique _id index, accepts each orderId once.
+class OrderIdempotencyTest {
+
+    private static final int RETRIES = 64;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final MongoExceptionTranslator TRANSLATOR = new MongoExceptionTranslator();
+
+    private final Map<UUID, OrderEntity> stored = new ConcurrentHashMap<>();
+    private final List<OrderEntity> counted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger metricsFailures = new AtomicInteger();
+
+    private final IngestProperties ingestProperties = new IngestProperties();
+    private final OrderCacheProperties cacheProperties = new OrderCacheProperties();
+    private OrderRepositoryCustom orderRepository;
+    private TotalMetricsRepositoryCustom totalMetricsRepository;
+    private OrderAccountingRepositoryCustom accountingRepository;
+    private OrderWriteCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        // The real repository over a template that fails like the server does, so duplicates arrive translated.
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.insert(any(OrderEntity.class))).thenAnswer(invocation -> {
+            OrderEntity order = invocation.getArgument(0);
+            return stored.putIfAbsent(order.getOrderId(), order) == null
+                    ? Mono.just(order)
+                    : Mono.error(TRANSLATOR.translateExceptionIfPossible(new MongoWriteException(
+                            new WriteError(DUPLICATE_KEY, duplicateMessage(order), new BsonDocument()), new ServerAddress())));
+        });
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderEntity.class)).thenAnswer(invocation -> bulkInsert());
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenAnswer(invocation -> Mono.justOrEmpty(
+                stored.get((UUID) invocation.<Query>getArgument(0).getQueryObject().get("orderId"))));
+
+        ConsistencyProperties consistencyProperties = new ConsistencyProperties();
+        consistencyProperties.setReadYourWrites(false);
+        orderRepository = new OrderRepositoryImpl(MongoBulkheads.shared(mongoTemplate), consistencyProperties,
+                new QueryProperties(), new HedgedReads(new HedgedReadProperties(), new SimpleMeterRegistry()));
+
+        totalMetricsRepository = mock(TotalMetricsRepositoryCustom.class);
+        when(totalMetricsRepository.recordOrders(anyCollection())).thenAnswer(invocation -> {
+            List<OrderEntity> orders = List.copyOf(invocation.getArgument(0));
+            if (metricsFailures.getAndDecrement() > 0) {
+                return Mono.error(new DataAccessResourceFailureException("metrics update timed out"));
+            }
+            counted.addAll(orders);
+            return Mono.just(UpdateResult.acknowledged(orders.size(), (long) orders.size(), null));
+        });
+
+        // Like the conditional status update: only the first claim on a stored order flips it.
+        accountingRepository = mock(OrderAccountingRepositoryCustom.class);
+        when(accountingRepository.claim(anyCollection())).thenAnswer(invocation -> {
+            List<UUID> claimed = new ArrayList<>();
+            for (UUID orderId : invocation.<Collection<UUID>>getArgument(0)) {
+                stored.computeIfPresent(orderId, (id, order) -> {
+                    if (order.getStatus() == OrderStatus.NOT_ACCOUNTED) {
+                        order.setStatus(OrderStatus.ACCOUNTED);
+                        claimed.add(id);
+                    }
+                    return order;
+                });
+            }
+            return Mono.just(claimed);
+        });
+        when(accountingRepository.release(anyCollection())).thenAnswer(invocation -> {
+            invocation.<Collection<UUID>>getArgument(0).forEach(orderId -> stored.get(orderId).setStatus(OrderStatus.NOT_ACCOUNTED));
+            return Mono.just(UpdateResult.acknowledged(1, 1L, null));
+        });
+        when(accountingRepository.recordCutover(anyString())).thenReturn(Mono.just(LocalDateTime.MIN));
+    }
+
+    private ReactiveBulkOperations bulkInsert() {
+        ReactiveBulkOperations bulkOperations = mock(ReactiveBulkOperations.class);
+        List<OrderEntity> orders = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            orders.addAll(invocation.getArgument(0));
+            return bulkOperations;
+        });
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            List<BulkWriteError> errors = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                OrderEntity order = orders.get(i);
+                if (stored.putIfAbsent(order.getOrderId(), order) != null) {
+                    errors.add(new BulkWriteError(DUPLICATE_KEY, duplicateMessage(order), new BsonDocument(), i));
+                }
+            }
+            BulkWriteResult result = BulkWriteResult.acknowledged(orders.size() - errors.size(), 0, 0, null, List.of(), List.of());
+            return errors.isEmpty()
+                    ? Mono.just(result)
+                    : Mono.error(TRANSLATOR.translateExceptionIfPossible(
+                            new MongoBulkWriteException(result, errors, null, new ServerAddress(), Set.of())));
+        });
+        return bulkOperations;
+    }
+
+    private static String duplicateMessage(OrderEntity order) {
+        return "E11000 duplicate key error collection: orders index: _id_ dup key: " + order.getOrderId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.stop();
+        }
+    }
+
+    @Test
+    void createOrder_ShouldCountOrderOnce_WhenRetriesRaceWithCacheEnabled() {
+        assertRetryStormCountsOnce();
+    }
+
+    @Test
+    void createOrder_ShouldCountOrderOnce_WhenRetriesRaceWithCacheDisabled() {
+        cacheProperties.setEnabled(false);
+        assertRetryStormCountsOnce();
+    }
+
+    @Test
+    void createOrder_ShouldCountOrderOnce_WhenRetriesAreCoalescedIntoTheSameBulk() {
+        cacheProperties.setEnabled(false);
+        ingestProperties.getCoalescing().setEnabled(true);
+        ingestProperties.getCoalescing().setMaxDelay(Duration.ofMillis(20));
+        assertRetryStormCountsOnce();
+    }
+
+    @Test
+    void createOrder_ShouldFinishAccountingOnRetry_WhenFirstAttemptFailedAfterInsert() {
+        OrderService orderService = orderService();
+        OrderRequest request = request();
+        metricsFailures.set(1);
+
+        StepVerifier.create(orderService.createOrder(request))
+                .expectError(DataAccessResourceFailureException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, stored.size());
+        assertEquals(0, counted.size());
+
+        StepVerifier.create(orderService.createOrder(request))
+                .assertNext(response -> assertEquals(request.getOrderId(), response.getOrderId()))
+                .verifyComplete();
+        StepVerifier.create(orderService.createOrder(request))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, counted.size());
+        assertEquals(OrderStatus.ACCOUNTED, stored.get(request.getOrderId()).getStatus());
+    }
+
+    private void assertRetryStormCountsOnce() {
+        OrderService orderService = orderService();
+        OrderRequest request = request();
+
+        List<OrderResponse> responses = Flux.range(0, RETRIES)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(attempt -> orderService.createOrder(request))
+                .sequential()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(RETRIES, responses.size());
+        assertEquals(1, responses.stream().distinct().count());
+        assertEquals(1, stored.size());
+        assertEquals(1, counted.size());
+        assertEquals(Money.of("31.50"), counted.get(0).getTotalValue());
+    }
+
+    private static OrderRequest request() {
+        return OrderRequest.builder()
+                .orderId(UUID.randomUUID())
+                .barCode("7891234567895")
+                .quantity(3)
+                .price(Money.of("10.50"))
+                .build();
+    }
+
+    private OrderService orderService() {
+        MetricsProperties metricsProperties = new MetricsProperties();
+        OrderAccountant orderAccountant = new OrderAccountant(accountingRepository, totalMetricsRepository);
+        OrderBulkWriter orderBulkWriter = new OrderBulkWriter(orderRepository, orderAccountant, metricsProperties);
+        coalescer = new OrderWriteCoalescer(orderBulkWriter, ingestProperties);
+        coalescer.start();
+
+        return new OrderService(
+                new OrderMapper(),
+                orderRepository,
+                totalMetricsRepository,
+                orderAccountant,
+                orderBulkWriter,
+                coalescer,
+                ingestProperties,
+                metricsProperties,
+                new OrderResponseCache(cacheProperties),
+                mock(OrderExistenceFilter.class),
+                mock(TopBarcodeTracker.class),
+                mock(OrderLiveFeed.class),
+                new OrderStageObserver(ObservationRegistry.NOOP),
+                new OrderConcurrencyLimiter(new ConcurrencyLimitProperties(), new SimpleMeterRegistry()),
+                new OrderReadCoalescer(new ReadCoalescingProperties(), new SimpleMeterRegistry()));
+    }
+}
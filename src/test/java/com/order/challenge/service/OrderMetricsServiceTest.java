@@ -0,0 +1,133 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.entities.MetricsRollupEntity;
+import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.RollupGranularity;
+import com.order.challenge.exception.InvalidMetricsRangeException;
+import com.order.challenge.ranking.TopBarcodeTracker;
+import com.order.challenge.repository.TotalMetricsRepositoryCustom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderMetricsServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 10, 18, 8, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 10, 18, 10, 30);
+
+    @Mock
+    private TotalMetricsRepositoryCustom totalMetricsRepository;
+
+    @Spy
+    private MetricsProperties metricsProperties = new MetricsProperties();
+
+    @Mock
+    private TopBarcodeTracker topBarcodeTracker;
+
+    @InjectMocks
+    private OrderMetricsService orderMetricsService;
+
+    @Test
+    void getTotalMetrics_ShouldComputeAverage() {
+        when(totalMetricsRepository.findTotalMetrics()).thenReturn(Mono.just(TotalMetricsEntity.builder()
+                .totalValue(new BigDecimal("100.00"))
+                .orderCount(3L)
+                .minValue(new BigDecimal("10.00"))
+                .maxValue(new BigDecimal("60.00"))
+                .build()));
+
+        StepVerifier.create(orderMetricsService.getTotalMetrics())
+                .assertNext(metrics -> {
+                    assertEquals(3, metrics.getOrderCount());
+                    assertEquals(new BigDecimal("33.33"), metrics.getAverageValue());
+                    assertEquals(new BigDecimal("60.00"), metrics.getMaxValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getTotalMetrics_ShouldNotReportAverage_WhenTotalPredatesOrderCount() {
+        when(totalMetricsRepository.findTotalMetrics()).thenReturn(Mono.just(TotalMetricsEntity.builder()
+                .totalValue(new BigDecimal("5000.00"))
+                .orderCount(2L)
+                .countComplete(false)
+                .build()));
+
+        StepVerifier.create(orderMetricsService.getTotalMetrics())
+                .assertNext(metrics -> {
+                    assertEquals(new BigDecimal("5000.00"), metrics.getTotalValue());
+                    assertNull(metrics.getAverageValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getRollups_ShouldSummarizeBucketsInRange() {
+        when(totalMetricsRepository.findRollups(RollupGranularity.HOUR, FROM, TO)).thenReturn(Flux.just(
+                rollup(FROM, 2, "30.00", "10.00", "20.00"),
+                rollup(FROM.plusHours(2), 1, "5.00", "5.00", "5.00")));
+
+        StepVerifier.create(orderMetricsService.getRollups(RollupGranularity.HOUR, FROM, TO))
+                .assertNext(metrics -> {
+                    assertEquals(2, metrics.getBuckets().size());
+                    assertEquals(3, metrics.getOrderCount());
+                    assertEquals(new BigDecimal("35.00"), metrics.getTotalValue());
+                    assertEquals(new BigDecimal("5.00"), metrics.getMinValue());
+                    assertEquals(new BigDecimal("20.00"), metrics.getMaxValue());
+                    assertEquals(new BigDecimal("11.67"), metrics.getAverageValue());
+                    assertEquals(new BigDecimal("15.00"), metrics.getBuckets().get(0).getAverageValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getRollups_ShouldReturnEmptySummary_WhenNoOrdersInRange() {
+        when(totalMetricsRepository.findRollups(RollupGranularity.MINUTE, FROM, TO)).thenReturn(Flux.empty());
+
+        StepVerifier.create(orderMetricsService.getRollups(RollupGranularity.MINUTE, FROM, TO))
+                .assertNext(metrics -> {
+                    assertEquals(0, metrics.getOrderCount());
+                    assertEquals(BigDecimal.ZERO, metrics.getTotalValue());
+                    assertNull(metrics.getAverageValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getRollups_ShouldReject_WhenRangeSpansTooManyBuckets() {
+        StepVerifier.create(orderMetricsService.getRollups(RollupGranularity.MINUTE, FROM.minusDays(2), TO))
+                .expectError(InvalidMetricsRangeException.class)
+                .verify();
+
+        verify(totalMetricsRepository, never()).findRollups(any(), any(), any());
+    }
+
+    private static MetricsRollupEntity rollup(LocalDateTime bucketStart, long count, String total, String min, String max) {
+        return MetricsRollupEntity.builder()
+                .granularity(RollupGranularity.HOUR)
+                .bucketStart(bucketStart)
+                .orderCount(count)
+                .totalValue(new BigDecimal(total))
+                .minValue(new BigDecimal(min))
+                .maxValue(new BigDecimal(max))
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.ReadCoalescingProperties;
+import com.order.challenge.response.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderReadCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadCoalescingProperties properties = new ReadCoalescingProperties();
+
+    @Test
+    void order_ShouldQueryOnceForConcurrentReadsOfTheSameId() {
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(properties, meterRegistry);
+        UUID orderId = UUID.randomUUID();
+        Sinks.One<OrderResponse> stored = Sinks.one();
+        AtomicInteger lookups = new AtomicInteger();
+
+        Mono<List<OrderResponse>> readers = Flux.range(0, 10)
+                .flatMap(reader -> coalescer.order(orderId, () -> {
+                    lookups.incrementAndGet();
+                    return stored.asMono();
+                }))
+                .collectList();
+
+        StepVerifier.create(readers)
+                .then(() -> stored.tryEmitValue(OrderResponse.builder().orderId(orderId).build()))
+                .assertNext(responses -> {
+                    assertEquals(10, responses.size());
+                    assertEquals(1, responses.stream().distinct().count());
+                })
+                .verifyComplete();
+
+        assertEquals(1, lookups.get());
+        assertEquals(1, calls("get", "executed"));
+        assertEquals(9, calls("get", "merged"));
+
+        StepVerifier.create(coalescer.order(orderId, () -> {
+                    lookups.incrementAndGet();
+                    return Mono.empty();
+                }))
+                .verifyComplete();
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void execute_ShouldCancelTheCallOnlyWhenTheLastReaderLeaves() {
+        SingleFlight<String, BigDecimal> singleFlight = new SingleFlight<>(meterRegistry.counter("executed"),
+                meterRegistry.counter("merged"));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<BigDecimal> total = singleFlight.execute("total", () -> Mono.<BigDecimal>never()
+                .doOnCancel(() -> cancelled.set(true)));
+
+        Disposable first = total.subscribe();
+        Disposable second = total.subscribe();
+        assertEquals(1, singleFlight.inFlight());
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, singleFlight.inFlight());
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_ShouldShareTheErrorAndForgetTheCall_WhenTheLookupFails() {
+        SingleFlight<String, BigDecimal> singleFlight = new SingleFlight<>(meterRegistry.counter("executed"),
+                meterRegistry.counter("merged"));
+        Sinks.One<BigDecimal> failing = Sinks.one();
+
+        Mono<List<Throwable>> readers = Flux.range(0, 3)
+                .flatMap(reader -> singleFlight.execute("total", failing::asMono)
+                        .then(Mono.<Throwable>empty())
+                        .onErrorResume(Mono::just))
+                .collectList();
+
+        StepVerifier.create(readers)
+                .then(() -> failing.tryEmitError(new IllegalStateException("mongo down")))
+                .assertNext(errors -> assertEquals(3, errors.size()))
+                .verifyComplete();
+        assertEquals(0, singleFlight.inFlight());
+
+        StepVerifier.create(singleFlight.execute("total", () -> Mono.just(BigDecimal.TEN)))
+                .expectNext(BigDecimal.TEN)
+                .verifyComplete();
+    }
+
+    @Test
+    void totalValue_ShouldQueryEveryCall_WhenDisabled() {
+        properties.setEnabled(false);
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(properties, meterRegistry);
+        AtomicInteger lookups = new AtomicInteger();
+
+        StepVerifier.create(Flux.range(0, 5)
+                        .flatMap(reader -> coalescer.totalValue(() -> {
+                            lookups.incrementAndGet();
+                            return Mono.delay(Duration.ofMillis(10)).thenReturn(BigDecimal.ONE);
+                        }))
+                        .count())
+                .expectNext(5L)
+                .verifyComplete();
+
+        assertEquals(5, lookups.get());
+    }
+
+    private double calls(String operation, String outcome) {
+        return meterRegistry.get(OrderReadCoalescer.NAME + ".calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -1,30 +1,60 @@
 package com.order.challenge.service;
 
+import com.order.challenge.cache.OrderExistenceFilter;
+import com.order.challenge.cache.OrderResponseCache;
+import com.order.challenge.config.ConcurrencyLimitProperties;
+import com.order.challenge.config.IngestProperties;
+import com.order.challenge.config.MetricsProperties;
+import com.order.challenge.config.ReadCoalescingProperties;
 import com.order.challenge.entities.OrderEntity;
 import com.order.challenge.entities.TotalMetricsEntity;
+import com.order.challenge.enums.AccountingMode;
+import com.order.challenge.enums.BatchItemStatus;
 import com.order.challenge.enums.OrderStatus;
+import com.order.challenge.exception.InvalidOrderQueryException;
+import com.order.challenge.exception.OrderConflictException;
 import com.order.challenge.exception.OrderNotFoundException;
 import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.limit.OrderConcurrencyLimiter;
+import com.order.challenge.live.OrderLiveFeed;
 import com.order.challenge.mapper.OrderMapper;
+import com.order.challenge.money.Money;
+import com.order.challenge.observation.OrderStageObserver;
+import com.order.challenge.ranking.TopBarcodeTracker;
+import com.order.challenge.repository.BulkInsertResult;
+import com.order.challenge.repository.OrderQuery;
 import com.order.challenge.repository.OrderRepositoryCustom;
 import com.order.challenge.repository.TotalMetricsRepositoryCustom;
 import com.order.challenge.request.OrderRequest;
 import com.order.challenge.response.OrderResponse; // Importar OrderResponse
 import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.bson.BsonTimestamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +69,45 @@ class OrderServiceTest {
     @Mock
     private TotalMetricsRepositoryCustom totalMetricsRepository;
 
+    @Mock
+    private OrderAccountant orderAccountant;
+
+    @Mock
+    private OrderBulkWriter orderBulkWriter;
+
+    @Mock
+    private OrderWriteCoalescer orderWriteCoalescer;
+
+    @Spy
+    private IngestProperties ingestProperties = new IngestProperties();
+
+    @Mock
+    private OrderResponseCache orderResponseCache;
+
+    @Mock
+    private OrderExistenceFilter orderExistenceFilter;
+
+    @Spy
+    private MetricsProperties metricsProperties = new MetricsProperties();
+
+    @Mock
+    private TopBarcodeTracker topBarcodeTracker;
+
+    @Mock
+    private OrderLiveFeed orderLiveFeed;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderStageObserver orderStageObserver = new OrderStageObserver(observationRegistry(meterRegistry));
+
+    @Spy
+    private OrderConcurrencyLimiter orderConcurrencyLimiter =
+            new OrderConcurrencyLimiter(new ConcurrencyLimitProperties(), meterRegistry);
+
+    @Spy
+    private OrderReadCoalescer orderReadCoalescer = new OrderReadCoalescer(new ReadCoalescingProperties(), meterRegistry);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -51,9 +120,9 @@ class OrderServiceTest {
     @BeforeEach
     void setUp() {
         orderId = UUID.randomUUID();
-        BigDecimal price = new BigDecimal("10.00");
+        Money price = Money.of("10.00");
         Integer quantity = 5;
-        BigDecimal totalValue = new BigDecimal("50.00");
+        Money totalValue = Money.of("50.00");
 
         mockRequest = OrderRequest.builder()
                 .orderId(orderId)
@@ -93,8 +162,8 @@ class OrderServiceTest {
     @Test
     void createOrder_ShouldSaveOrderAndUpdateMetricsSuccessfully() {
         when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
-        when(orderRepository.save(any(OrderEntity.class))).thenReturn(Mono.just(mockSavedEntity));
-        when(totalMetricsRepository.incrementTotalValue(any(BigDecimal.class)))
+        when(orderRepository.insert(any(OrderEntity.class))).thenReturn(Mono.just(mockSavedEntity));
+        when(orderAccountant.accountInserted(anyCollection()))
                 .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
 
         // CORREÇÃO: Deve retornar um objeto OrderResponse
@@ -104,22 +173,44 @@ class OrderServiceTest {
                 .expectNext(mockResponse) // Espera o objeto de resposta
                 .verifyComplete();
 
-        verify(orderRepository, times(1)).save(any(OrderEntity.class));
-        verify(totalMetricsRepository, times(1)).incrementTotalValue(mockSavedEntity.getTotalValue());
+        assertEquals(OrderStatus.ACCOUNTED, mockEntity.getStatus());
+        verify(orderRepository, times(1)).insert(any(OrderEntity.class));
+        verify(orderAccountant, times(1)).accountInserted(List.of(mockSavedEntity));
+        verify(orderAccountant, never()).account(any());
+    }
+
+    @Test
+    void createOrder_ShouldTimeEachStage_WhenOrderIsCreatedOrFails() {
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderRepository.insert(any(OrderEntity.class)))
+                .thenReturn(Mono.just(mockSavedEntity))
+                .thenReturn(Mono.error(new IllegalStateException("DB Error")));
+        when(orderAccountant.accountInserted(anyCollection()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest)).expectNext(mockResponse).verifyComplete();
+        StepVerifier.create(orderService.createOrder(mockRequest)).expectError(OrderPersistenceException.class).verify();
+
+        assertEquals(2, meterRegistry.get(OrderStageObserver.NAME).tags("operation", "create", "stage", "prepare").timer().count());
+        assertEquals(1, meterRegistry.get(OrderStageObserver.NAME).tags("operation", "create", "stage", "account").timer().count());
+        assertEquals(1, meterRegistry.get(OrderStageObserver.NAME).tags("operation", "create", "stage", "remember").timer().count());
+        assertEquals(1, meterRegistry.get(OrderStageObserver.NAME).tags("stage", "save", "error", "none").timer().count());
+        assertEquals(1, meterRegistry.get(OrderStageObserver.NAME).tags("stage", "save", "error", "IllegalStateException").timer().count());
     }
 
     @Test
     void createOrder_ShouldThrowPersistenceException_WhenRepositorySaveFails() {
         when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
-        when(orderRepository.save(any(OrderEntity.class))).thenReturn(Mono.error(new RuntimeException("DB Error")));
+        when(orderRepository.insert(any(OrderEntity.class))).thenReturn(Mono.error(new RuntimeException("DB Error")));
 
         StepVerifier.create(orderService.createOrder(mockRequest))
                 .expectErrorMatches(throwable -> throwable instanceof OrderPersistenceException &&
                         throwable.getMessage().contains("Failed to save order with BarCode: XYZ123"))
                 .verify();
 
-        verify(orderRepository, times(1)).save(any(OrderEntity.class));
-        verify(totalMetricsRepository, never()).incrementTotalValue(any());
+        verify(orderRepository, times(1)).insert(any(OrderEntity.class));
+        verify(orderAccountant, never()).accountInserted(any());
         // Não precisamos mockar o toResponse aqui, pois o fluxo falha antes.
     }
 
@@ -171,4 +262,258 @@ class OrderServiceTest {
                 .expectNext(BigDecimal.ZERO)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void createOrders_ShouldReturnPerOrderResults_WhenChunkPartiallyFails() {
+        UUID failedOrderId = UUID.randomUUID();
+        OrderRequest failingRequest = OrderRequest.builder()
+                .orderId(failedOrderId)
+                .barCode("XYZ456")
+                .quantity(1)
+                .price(Money.of("3.00"))
+                .build();
+        OrderRequest incompleteRequest = OrderRequest.builder().barCode("XYZ789").build();
+
+        when(orderMapper.toEntity(any(OrderRequest.class)))
+                .thenReturn(mockEntity)
+                .thenReturn(OrderEntity.builder().orderId(failedOrderId).quantity(1).price(Money.of("3.00")).build());
+        when(orderBulkWriter.write(anyList()))
+                .thenReturn(Mono.just(new BulkInsertResult(List.of(mockSavedEntity), Map.of(1, "E11000 duplicate key"))));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrders(Flux.just(mockRequest, failingRequest, incompleteRequest)).collectList())
+                .assertNext(results -> {
+                    assertEquals(3, results.size());
+                    assertEquals(BatchItemStatus.CREATED, results.get(0).getStatus());
+                    assertEquals(mockResponse, results.get(0).getOrder());
+                    assertEquals(failedOrderId, results.get(1).getOrderId());
+                    assertEquals(BatchItemStatus.FAILED, results.get(1).getStatus());
+                    assertEquals(BatchItemStatus.FAILED, results.get(2).getStatus());
+                })
+                .verifyComplete();
+
+        verify(orderBulkWriter, times(1)).write(anyList());
+        verify(orderRepository, never()).insert(any());
+    }
+
+    @Test
+    void createOrders_ShouldWriteOneBulkPerChunk() {
+        ingestProperties.getBatch().setChunkSize(2);
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderBulkWriter.write(anyList()))
+                .thenAnswer(invocation -> Mono.just(new BulkInsertResult(invocation.getArgument(0), Map.of())));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrders(Flux.just(mockRequest, mockRequest, mockRequest)))
+                .expectNextMatches(result -> result.getStatus() == BatchItemStatus.CREATED)
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(orderBulkWriter, times(2)).write(anyList());
+    }
+
+    @Test
+    void createOrder_ShouldGoThroughCoalescer_WhenCoalescingIsEnabled() {
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderWriteCoalescer.isEnabled()).thenReturn(true);
+        when(orderWriteCoalescer.submit(any(OrderEntity.class))).thenReturn(Mono.just(mockSavedEntity));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderRepository, never()).insert(any());
+        verify(orderAccountant, never()).accountInserted(any());
+    }
+
+    @Test
+    void createOrder_ShouldThrowPersistenceException_WhenCoalescedWriteFails() {
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderWriteCoalescer.isEnabled()).thenReturn(true);
+        when(orderWriteCoalescer.submit(any(OrderEntity.class)))
+                .thenReturn(Mono.error(new OrderPersistenceException("E11000 duplicate key")));
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectErrorMatches(throwable -> throwable instanceof OrderPersistenceException &&
+                        throwable.getMessage().contains("Failed to save order with BarCode: XYZ123"))
+                .verify();
+    }
+
+    @Test
+    void createOrder_ShouldOnlyInsert_WhenAccountingRunsOnChangeStream() {
+        metricsProperties.getAccounting().setMode(AccountingMode.CHANGE_STREAM);
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderRepository.insert(any(OrderEntity.class))).thenReturn(Mono.just(mockSavedEntity));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        assertEquals(OrderStatus.NOT_ACCOUNTED, mockEntity.getStatus());
+        verify(orderRepository, times(1)).insert(any(OrderEntity.class));
+        verify(orderAccountant, never()).accountInserted(any());
+    }
+
+    @Test
+    void getOrderById_ShouldServeFromCache_WithoutQueryingRepository() {
+        when(orderResponseCache.get(orderId)).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.getOrderById(orderId))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderRepository, never()).findByOrderId(any());
+    }
+
+    @Test
+    void createOrder_ShouldPopulateCache_WhenOrderIsSaved() {
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderRepository.insert(any(OrderEntity.class))).thenReturn(Mono.just(mockSavedEntity));
+        when(orderAccountant.accountInserted(anyCollection()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderResponseCache, times(1)).put(mockResponse);
+        verify(topBarcodeTracker, times(1)).record("XYZ123", mockResponse.getQuantity(), mockResponse.getTotalValue());
+        verify(orderLiveFeed, times(1)).publish(mockResponse);
+    }
+
+    @Test
+    void createOrder_ShouldReplayCachedOrder_WithoutInsertingOrCounting_WhenOrderIdIsRecent() {
+        when(orderResponseCache.get(orderId)).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderRepository, never()).insert(any());
+        verify(orderAccountant, never()).accountInserted(any());
+    }
+
+    @Test
+    void createOrder_ShouldReplayStoredOrder_WithoutCounting_WhenInsertHitsDuplicateKey() {
+        mockSavedEntity.setStatus(OrderStatus.ACCOUNTED);
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderRepository.insert(any(OrderEntity.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+        when(orderRepository.findByOrderIdOnPrimary(orderId)).thenReturn(Mono.just(mockSavedEntity));
+        when(orderMapper.toResponse(mockSavedEntity)).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderResponseCache, times(1)).put(mockResponse);
+        verify(orderAccountant, never()).account(any());
+        verify(topBarcodeTracker, never()).record(any(), any(), any());
+        verify(orderLiveFeed, never()).publish(any());
+    }
+
+    @Test
+    void createOrder_ShouldFinishAccounting_WhenReplayedOrderWasStoredButNotCounted() {
+        mockSavedEntity.setCreatedAt(LocalDateTime.now());
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderRepository.insert(any(OrderEntity.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+        when(orderRepository.findByOrderIdOnPrimary(orderId)).thenReturn(Mono.just(mockSavedEntity));
+        when(orderAccountant.cutover()).thenReturn(Mono.just(LocalDateTime.MIN));
+        when(orderAccountant.account(List.of(mockSavedEntity)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(orderMapper.toResponse(mockSavedEntity)).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderAccountant, times(1)).account(List.of(mockSavedEntity));
+    }
+
+    @Test
+    void createOrder_ShouldNotCountReplayedOrder_WhenItWasCreatedBeforeCutover() {
+        mockSavedEntity.setCreatedAt(LocalDateTime.now().minusDays(1));
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(mockEntity);
+        when(orderRepository.insert(any(OrderEntity.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+        when(orderRepository.findByOrderIdOnPrimary(orderId)).thenReturn(Mono.just(mockSavedEntity));
+        when(orderAccountant.cutover()).thenReturn(Mono.just(LocalDateTime.now()));
+        when(orderMapper.toResponse(mockSavedEntity)).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderAccountant, never()).account(any());
+    }
+
+    @Test
+    void createOrder_ShouldThrowConflictException_WhenOrderIdIsReusedWithDifferentPayload() {
+        when(orderResponseCache.get(orderId)).thenReturn(mockResponse);
+        mockRequest.setQuantity(6);
+
+        StepVerifier.create(orderService.createOrder(mockRequest))
+                .expectError(OrderConflictException.class)
+                .verify();
+
+        verify(orderRepository, never()).insert(any());
+    }
+
+    @Test
+    void getOrderById_ShouldReturnNotFound_WithoutQueryingRepository_WhenFilterRulesOrderOut() {
+        when(orderExistenceFilter.isDefinitelyAbsent(orderId)).thenReturn(true);
+
+        StepVerifier.create(orderService.getOrderById(orderId))
+                .expectError(OrderNotFoundException.class)
+                .verify();
+
+        verify(orderRepository, never()).findByOrderId(any());
+    }
+
+    @Test
+    void getOrderById_ShouldReadCausally_AndIgnoreFilter_WhenOperationTimeIsGiven() {
+        BsonTimestamp operationTime = new BsonTimestamp(1_700_000_000, 1);
+        when(orderRepository.findByOrderId(orderId, operationTime)).thenReturn(Mono.just(mockEntity));
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.getOrderById(orderId, operationTime))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(orderExistenceFilter, never()).isDefinitelyAbsent(any());
+        verify(orderRepository, never()).findByOrderId(orderId);
+    }
+
+    @Test
+    void findOrders_ShouldMapEntitiesStreamedFromRepository() {
+        OrderQuery query = OrderQuery.builder().barCode("XYZ123").build();
+        when(orderRepository.findOrders(query)).thenReturn(Flux.just(mockEntity));
+        when(orderMapper.toResponse(mockEntity)).thenReturn(mockResponse);
+
+        StepVerifier.create(orderService.findOrders(query))
+                .expectNext(mockResponse)
+                .verifyComplete();
+    }
+
+    @Test
+    void findOrders_ShouldReject_WhenRangeIsEmpty() {
+        LocalDateTime now = LocalDateTime.now();
+        OrderQuery query = OrderQuery.builder().from(now).to(now.minusHours(1)).build();
+
+        StepVerifier.create(orderService.findOrders(query))
+                .expectError(InvalidOrderQueryException.class)
+                .verify();
+
+        verify(orderRepository, never()).findOrders(any());
+    }
+
+    private static ObservationRegistry observationRegistry(MeterRegistry meterRegistry) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        return registry;
+    }
+}
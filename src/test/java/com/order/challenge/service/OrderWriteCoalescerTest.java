@@ -0,0 +1,159 @@
+package com.order.challenge.service;
+
+import com.order.challenge.config.IngestProperties;
+import com.order.challenge.entities.OrderEntity;
+import com.order.challenge.exception.OrderPersistenceException;
+import com.order.challenge.money.Money;
+import com.order.challenge.repository.BulkInsertResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderWriteCoalescerTest {
+
+    @Mock
+    private OrderBulkWriter orderBulkWriter;
+
+    private OrderWriteCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        IngestProperties ingestProperties = new IngestProperties();
+        ingestProperties.getCoalescing().setEnabled(true);
+        ingestProperties.getCoalescing().setMaxBatchSize(10);
+        ingestProperties.getCoalescing().setMaxDelay(Duration.ofMillis(50));
+
+        coalescer = new OrderWriteCoalescer(orderBulkWriter, ingestProperties);
+        coalescer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.stop();
+    }
+
+    @Test
+    void submit_ShouldCoalesceConcurrentWritesIntoOneBulkInsert() {
+        when(orderBulkWriter.write(anyList()))
+                .thenAnswer(invocation -> Mono.just(new BulkInsertResult(invocation.getArgument(0), Map.of())));
+
+        StepVerifier.create(Flux.range(0, 10).flatMap(i -> coalescer.submit(order())))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        verify(orderBulkWriter, times(1)).write(anyList());
+    }
+
+    @Test
+    void submit_ShouldFailOnlyTheRejectedOrder_WhenBulkInsertPartiallyFails() {
+        OrderEntity accepted = order();
+        OrderEntity rejected = order();
+        when(orderBulkWriter.write(anyList()))
+                .thenReturn(Mono.just(new BulkInsertResult(List.of(accepted), Map.of(1, "E11000 duplicate key"))));
+
+        Flux<String> outcomes = Flux.merge(
+                coalescer.submit(accepted).map(saved -> "CREATED"),
+                coalescer.submit(rejected).map(saved -> "CREATED")
+                        .onErrorResume(OrderPersistenceException.class, e -> Mono.just(e.getMessage())));
+
+        StepVerifier.create(outcomes.collectList())
+                .assertNext(results -> {
+                    assertTrue(results.contains("CREATED"));
+                    assertTrue(results.contains("E11000 duplicate key"));
+                })
+                .verifyComplete();
+
+        verify(orderBulkWriter, times(1)).write(anyList());
+    }
+
+    @Test
+    void submit_ShouldFailEveryCaller_WhenBulkWriterFails() {
+        when(orderBulkWriter.write(anyList())).thenReturn(Mono.error(new RuntimeException("DB Error")));
+
+        StepVerifier.create(Flux.range(0, 3).flatMap(i -> coalescer.submit(order()).onErrorResume(
+                        OrderPersistenceException.class, e -> Mono.empty())))
+                .verifyComplete();
+    }
+
+    @Test
+    void submit_ShouldFail_WhenCoalescerIsStopped() {
+        coalescer.stop();
+
+        StepVerifier.create(coalescer.submit(order()))
+                .expectError(OrderPersistenceException.class)
+                .verify(Duration.ofSeconds(1));
+
+        verify(orderBulkWriter, never()).write(anyList());
+    }
+
+    @Test
+    void stop_ShouldFlushBufferedWrites_BeforeShuttingDown() {
+        coalescer = coalescer(Duration.ofMinutes(1), Duration.ofSeconds(5));
+        when(orderBulkWriter.write(anyList()))
+                .thenAnswer(invocation -> Mono.just(new BulkInsertResult(invocation.getArgument(0), Map.of())));
+        Mono<List<OrderEntity>> saved = Flux.merge(coalescer.submit(order()), coalescer.submit(order()))
+                .collectList()
+                .cache();
+        saved.subscribe();
+
+        coalescer.stop();
+
+        StepVerifier.create(saved)
+                .assertNext(orders -> assertEquals(2, orders.size()))
+                .verifyComplete();
+        verify(orderBulkWriter, times(1)).write(anyList());
+    }
+
+    @Test
+    void stop_ShouldFailInFlightWrites_WhenTheyOutliveTheShutdownTimeout() {
+        coalescer = coalescer(Duration.ofMillis(1), Duration.ofMillis(100));
+        when(orderBulkWriter.write(anyList())).thenReturn(Mono.never());
+        Mono<OrderEntity> pending = coalescer.submit(order()).cache();
+        pending.subscribe(null, error -> { });
+
+        coalescer.stop();
+
+        StepVerifier.create(pending)
+                .expectError(OrderPersistenceException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    private OrderWriteCoalescer coalescer(Duration maxDelay, Duration shutdownTimeout) {
+        coalescer.stop();
+        IngestProperties ingestProperties = new IngestProperties();
+        ingestProperties.getCoalescing().setEnabled(true);
+        ingestProperties.getCoalescing().setMaxBatchSize(10);
+        ingestProperties.getCoalescing().setMaxDelay(maxDelay);
+        ingestProperties.getCoalescing().setShutdownTimeout(shutdownTimeout);
+        OrderWriteCoalescer started = new OrderWriteCoalescer(orderBulkWriter, ingestProperties);
+        started.start();
+        return started;
+    }
+
+    private static OrderEntity order() {
+        return OrderEntity.builder()
+                .orderId(UUID.randomUUID())
+                .barCode("7891234567895")
+                .quantity(1)
+                .price(Money.of("10.00"))
+                .totalValue(Money.of("10.00"))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.order.challenge.validation;
+
+import com.order.challenge.money.Money;
+import com.order.challenge.request.OrderRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderRequestValidatorTest {
+
+    private final OrderRequestValidator validator = new OrderRequestValidator();
+
+    @Test
+    void isEan13_ShouldAcceptOnlyThirteenDigitsWithMatchingCheckDigit() {
+        assertTrue(OrderRequestValidator.isEan13("7891234567895"));
+        assertTrue(OrderRequestValidator.isEan13("4006381333931"));
+        assertFalse(OrderRequestValidator.isEan13("7891234567890"));
+        assertFalse(OrderRequestValidator.isEan13("4567890"));
+        assertFalse(OrderRequestValidator.isEan13("789123456789A"));
+        assertFalse(OrderRequestValidator.isEan13("78912345678955"));
+    }
+
+    @Test
+    void validate_ShouldReturnFirstViolation_WhenRequestBreaksTheConstraints() {
+        assertNull(validator.validate(request("7891234567895", 1, "0.01")));
+        assertEquals(OrderViolation.ORDER_ID_MISSING, validator.validate(OrderRequest.builder().build()));
+        assertEquals(OrderViolation.BAR_CODE_MISSING, validator.validate(request(" ", 1, "1.00")));
+        assertEquals(OrderViolation.BAR_CODE_NOT_EAN13, validator.validate(request("4567890", 1, "1.00")));
+        assertEquals(OrderViolation.QUANTITY_MISSING, validator.validate(request("7891234567895", null, "1.00")));
+        assertEquals(OrderViolation.QUANTITY_TOO_SMALL, validator.validate(request("7891234567895", 0, "1.00")));
+        assertEquals(OrderViolation.PRICE_MISSING, validator.validate(request("7891234567895", 1, null)));
+        assertEquals(OrderViolation.PRICE_TOO_SMALL, validator.validate(request("7891234567895", 1, "0.009")));
+    }
+
+    private static OrderRequest request(String barCode, Integer quantity, String price) {
+        return OrderRequest.builder()
+                .orderId(UUID.randomUUID())
+                .barCode(barCode)
+                .quantity(quantity)
+                .price(price == null ? null : Money.of(price))
+                .build();
+    }
+}